@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.benchmark;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Deterministic criteria lists for benchmarks
+ */
+final class CriteriaFixtures {
+
+    private CriteriaFixtures() {
+    }
+
+    /**
+     * @param size number of criteria
+     * @param runLength number of consecutive criteria sharing the same connector
+     * @return criteria mixing string, numeric and date operations
+     */
+    static List<DSCriteria> mixed(int size, int runLength) {
+        return of("mixed", size, runLength, 1);
+    }
+
+    /**
+     * @param mix operation mix: {@code mixed}, {@code equality}, {@code range}, {@code like} or {@code in}
+     * @param size number of criteria
+     * @param runLength number of consecutive criteria sharing the same connector
+     * @param inSize number of values of each IN criteria
+     * @return criteria of the operation mix over the keys of {@link BenchmarkEntity}
+     */
+    static List<DSCriteria> of(String mix, int size, int runLength, int inSize) {
+        List<DSCriteria> result = new ArrayList<>(size);
+        for (int idx = 0; idx < size; idx++) {
+            boolean or = (idx / runLength) % 2 == 1;
+            result.add(switch (mix) {
+                case "mixed" -> mixed(idx, or);
+                case "equality" -> idx % 2 == 0
+                        ? new DSCriteria("code", DSOperation.EQUAL, "C" + idx, or)
+                        : new DSCriteria("age", DSOperation.EQUAL, idx, or);
+                case "range" -> idx % 2 == 0
+                        ? new DSCriteria("age", DSOperation.GREATER_THAN_EQUAL, idx, or)
+                        : new DSCriteria("amount", DSOperation.LESS_THAN, (long) idx * 100, or);
+                case "like" -> idx % 2 == 0
+                        ? new DSCriteria("name", DSOperation.CONTAINS, "name" + idx, or)
+                        : new DSCriteria("code", DSOperation.BEGINS_WITH, "C" + idx, or);
+                case "in" -> new DSCriteria("amount", DSOperation.IN, values(idx, inSize), or);
+                default -> throw new IllegalArgumentException("Unknown operation mix: " + mix);
+            });
+        }
+        return result;
+    }
+
+    private static DSCriteria mixed(int idx, boolean or) {
+        return switch (idx % 5) {
+            case 0 -> new DSCriteria("name", DSOperation.CONTAINS, "name" + idx, or);
+            case 1 -> new DSCriteria("age", DSOperation.GREATER_THAN_EQUAL, idx, or);
+            case 2 -> new DSCriteria("code", DSOperation.EQUAL, "C" + idx, or);
+            case 3 -> new DSCriteria("amount", DSOperation.LESS_THAN, (long) idx * 100, or);
+            default -> new DSCriteria("createdDate", DSOperation.GREATER_THAN, "2023-01-01", or);
+        };
+    }
+
+    private static List<Long> values(int idx, int inSize) {
+        return LongStream.range(0, inSize).map(value -> (long) idx * inSize + value).boxed().toList();
+    }
+}
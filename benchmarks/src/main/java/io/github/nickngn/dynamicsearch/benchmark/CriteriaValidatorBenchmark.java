@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.benchmark;
+
+import io.github.nickngn.dynamicsearch.validation.CriteriaValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link CriteriaValidator#isValid} of valid templates, across criteria-list sizes,
+ * operation mixes and reference-class widths: {@code narrow} is {@link BenchmarkCriteria},
+ * {@code wide} is {@link WideBenchmarkCriteria}. <br>
+ * Descriptors are warmed up, so only the per-request validation is measured.
+ * Run with {@code -prof gc} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CriteriaValidatorBenchmark {
+
+    @Param({"10", "100"})
+    public int size;
+
+    @Param({"mixed", "equality", "like"})
+    public String mix;
+
+    @Param({"narrow", "wide"})
+    public String width;
+
+    @Param({"5"})
+    public int runLength;
+
+    private BenchmarkTemplate template;
+
+    private final CriteriaValidator validator = new CriteriaValidator();
+
+    @Setup
+    public void setUp() {
+        Class<?> referenceClass = "wide".equals(width) ? WideBenchmarkCriteria.class : BenchmarkCriteria.class;
+        CriteriaValidator.warmUp(referenceClass);
+        template = new BenchmarkTemplate(referenceClass, CriteriaFixtures.of(mix, size, runLength, 1));
+        if (!validator.isValid(template, null)) {
+            throw new IllegalStateException("Benchmark template must be valid");
+        }
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        // the context is only used to report violations, which valid templates don't have
+        return validator.isValid(template, null);
+    }
+}
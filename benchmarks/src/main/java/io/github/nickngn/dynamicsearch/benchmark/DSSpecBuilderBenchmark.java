@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.benchmark;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSSpecBuilder;
+import io.github.nickngn.dynamicsearch.builder.DSSpecification;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Build time of {@link DSSpecBuilder#build(List)} and the predicate tree it produces,
+ * compared with folding criteria into a chain of composed specifications. <br>
+ * Run with {@code -prof gc} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DSSpecBuilderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"5"})
+    public int runLength;
+
+    private List<DSCriteria> criteria;
+
+    private final DSSpecBuilder<BenchmarkEntity> builder = new DSSpecBuilder<>();
+
+    @Setup
+    public void setUp() {
+        criteria = CriteriaFixtures.mixed(size, runLength);
+    }
+
+    @Benchmark
+    public Predicate build(JpaState jpa) {
+        return toPredicate(jpa, builder.build(criteria));
+    }
+
+    @Benchmark
+    public Predicate chainedBaseline(JpaState jpa) {
+        Specification<BenchmarkEntity> result = Specification.where(new DSSpecification<>(criteria.get(0)));
+        for (int idx = 1; idx < criteria.size(); idx++) {
+            DSCriteria dsCriteria = criteria.get(idx);
+            result = dsCriteria.isOr()
+                    ? Specification.where(result).or(new DSSpecification<>(dsCriteria))
+                    : Specification.where(result).and(new DSSpecification<>(dsCriteria));
+        }
+        return toPredicate(jpa, result);
+    }
+
+    private static Predicate toPredicate(JpaState jpa, Specification<BenchmarkEntity> spec) {
+        CriteriaQuery<BenchmarkEntity> query = jpa.criteriaBuilder.createQuery(BenchmarkEntity.class);
+        Root<BenchmarkEntity> root = query.from(BenchmarkEntity.class);
+        return spec.toPredicate(root, query, jpa.criteriaBuilder);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.benchmark;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSParameterizedSqlBuilder;
+import io.github.nickngn.dynamicsearch.builder.DSSqlBuilder;
+import io.github.nickngn.dynamicsearch.builder.DSSqlStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link DSSqlBuilder#build(List)} with inlined values and of {@link DSParameterizedSqlBuilder#build(List)}
+ * with bound parameters, across criteria-list sizes, operation mixes and IN-list sizes. <br>
+ * Run with {@code -prof gc} to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DSSqlBuilderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"mixed", "equality", "range", "like", "in"})
+    public String mix;
+
+    @Param({"1", "10", "100"})
+    public int inSize;
+
+    @Param({"5"})
+    public int runLength;
+
+    private List<DSCriteria> criteria;
+
+    private final DSSqlBuilder sqlBuilder = new DSSqlBuilder();
+
+    private final DSParameterizedSqlBuilder parameterizedSqlBuilder = new DSParameterizedSqlBuilder();
+
+    @Setup
+    public void setUp() {
+        criteria = CriteriaFixtures.of(mix, size, runLength, inSize);
+    }
+
+    @Benchmark
+    public String inlined() {
+        return sqlBuilder.build(criteria);
+    }
+
+    @Benchmark
+    public DSSqlStatement parameterized() {
+        return parameterizedSqlBuilder.build(criteria);
+    }
+}
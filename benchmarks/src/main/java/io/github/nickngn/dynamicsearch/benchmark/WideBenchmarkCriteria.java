@@ -0,0 +1,188 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.benchmark;
+
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reference class with the keys of {@link BenchmarkCriteria} plus 50 constrained fields
+ */
+@Getter
+@Setter
+public class WideBenchmarkCriteria extends BenchmarkCriteria {
+
+    @Size(max = 50)
+    private String field01;
+
+    @Size(max = 50)
+    private String field02;
+
+    @Size(max = 50)
+    private String field03;
+
+    @Size(max = 50)
+    private String field04;
+
+    @Size(max = 50)
+    private String field05;
+
+    @Size(max = 50)
+    private String field06;
+
+    @Size(max = 50)
+    private String field07;
+
+    @Size(max = 50)
+    private String field08;
+
+    @Size(max = 50)
+    private String field09;
+
+    @Size(max = 50)
+    private String field10;
+
+    @Size(max = 50)
+    private String field11;
+
+    @Size(max = 50)
+    private String field12;
+
+    @Size(max = 50)
+    private String field13;
+
+    @Size(max = 50)
+    private String field14;
+
+    @Size(max = 50)
+    private String field15;
+
+    @Size(max = 50)
+    private String field16;
+
+    @Size(max = 50)
+    private String field17;
+
+    @Size(max = 50)
+    private String field18;
+
+    @Size(max = 50)
+    private String field19;
+
+    @Size(max = 50)
+    private String field20;
+
+    @Size(max = 50)
+    private String field21;
+
+    @Size(max = 50)
+    private String field22;
+
+    @Size(max = 50)
+    private String field23;
+
+    @Size(max = 50)
+    private String field24;
+
+    @Size(max = 50)
+    private String field25;
+
+    @Size(max = 50)
+    private String field26;
+
+    @Size(max = 50)
+    private String field27;
+
+    @Size(max = 50)
+    private String field28;
+
+    @Size(max = 50)
+    private String field29;
+
+    @Size(max = 50)
+    private String field30;
+
+    @Size(max = 50)
+    private String field31;
+
+    @Size(max = 50)
+    private String field32;
+
+    @Size(max = 50)
+    private String field33;
+
+    @Size(max = 50)
+    private String field34;
+
+    @Size(max = 50)
+    private String field35;
+
+    @Size(max = 50)
+    private String field36;
+
+    @Size(max = 50)
+    private String field37;
+
+    @Size(max = 50)
+    private String field38;
+
+    @Size(max = 50)
+    private String field39;
+
+    @Size(max = 50)
+    private String field40;
+
+    @Size(max = 50)
+    private String field41;
+
+    @Size(max = 50)
+    private String field42;
+
+    @Size(max = 50)
+    private String field43;
+
+    @Size(max = 50)
+    private String field44;
+
+    @Size(max = 50)
+    private String field45;
+
+    @Size(max = 50)
+    private String field46;
+
+    @Size(max = 50)
+    private String field47;
+
+    @Size(max = 50)
+    private String field48;
+
+    @Size(max = 50)
+    private String field49;
+
+    @Size(max = 50)
+    private String field50;
+}
@@ -0,0 +1,57 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch;
+
+/**
+ * Options to count the total number of results of a paged search
+ */
+public enum DSCountMode {
+    /**
+     * Count every page with a separate query, returns a {@link org.springframework.data.domain.Page}
+     */
+    EXACT,
+    /**
+     * Count only when the total can't be derived from the page content, eg: the first page is full,
+     * returns a {@link org.springframework.data.domain.Page}
+     */
+    LAZY,
+    /**
+     * Don't count, fetch one more row than the page size to know if there is a next page,
+     * returns a {@link org.springframework.data.domain.Slice}
+     */
+    NONE,
+    /**
+     * Fetch the page without waiting for the count, which runs asynchronously,
+     * returns a {@link org.springframework.data.domain.Slice} with the pending total.
+     * Requires a count executor, see {@link io.github.nickngn.dynamicsearch.execution.DSSearchExecutor#setCountExecutor}
+     */
+    ASYNC,
+    /**
+     * Serve the count from a short-lived cache keyed by the criteria,
+     * returns a {@link org.springframework.data.domain.Page}
+     */
+    CACHED
+}
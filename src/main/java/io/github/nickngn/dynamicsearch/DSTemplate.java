@@ -50,6 +50,28 @@ public abstract class DSTemplate {
      */
     protected Pageable pageable;
 
+    /**
+     * Fields to select for projection searches, validated as searchable keys of {@link #getReferenceClass()}
+     */
+    protected List<String> fields;
+
+    /**
+     * Use keyset (seek) pagination instead of offset: the page number of {@link #pageable} is ignored
+     * and the page starts after {@link #cursor}
+     */
+    protected boolean keyset;
+
+    /**
+     * Opaque cursor of the last row's sort keys of the previous page for keyset pagination,
+     * null for the first page
+     */
+    protected String cursor;
+
+    /**
+     * Option to count the total number of results, {@link DSCountMode#EXACT} if not specified
+     */
+    protected DSCountMode countMode;
+
     /**
      * Referred class with its fields and validation annotations to validate criteria keys with values
      */
@@ -88,4 +110,11 @@ public abstract class DSTemplate {
         }
         return pageable;
     }
+
+    public DSCountMode getCountMode() {
+        if (countMode == null) {
+            countMode = DSCountMode.EXACT;
+        }
+        return countMode;
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.autoconfigure;
+
+import io.github.nickngn.dynamicsearch.execution.DSStatementCapture;
+import io.github.nickngn.dynamicsearch.validation.CriteriaValidator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration of dynamic search
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(DynamicSearchProperties.class)
+public class DynamicSearchAutoConfiguration {
+
+    private static final String STATEMENT_INSPECTOR = "hibernate.session_factory.statement_inspector";
+
+    /**
+     * Describes reference classes listed in {@code dynamic-search.validation.warm-up-classes}
+     * once all singletons are created
+     */
+    @Bean
+    public SmartInitializingSingleton dsReferenceClassWarmUp(DynamicSearchProperties properties) {
+        return () -> CriteriaValidator.warmUp(properties.getValidation().getWarmUpClasses().toArray(Class<?>[]::new));
+    }
+
+    /**
+     * Registers {@link DSStatementCapture} as Hibernate statement inspector when
+     * {@code dynamic-search.slow-search.capture-sql} is enabled, unless another inspector is configured
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "dynamic-search.slow-search", name = "capture-sql", havingValue = "true")
+    public HibernatePropertiesCustomizer dsStatementCapture() {
+        return properties -> properties.putIfAbsent(STATEMENT_INSPECTOR, new DSStatementCapture());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.autoconfigure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.nickngn.dynamicsearch.json.DSJacksonModule;
+import io.github.nickngn.dynamicsearch.json.DSJsonOptions;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto-configuration registering {@link DSJacksonModule}, picked up by the auto-configured {@link ObjectMapper}
+ */
+@AutoConfiguration(beforeName = "org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration")
+@ConditionalOnClass(ObjectMapper.class)
+@ConditionalOnProperty(prefix = "dynamic-search.json", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(DynamicSearchProperties.class)
+public class DynamicSearchJacksonAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public DSJacksonModule dsJacksonModule(DynamicSearchProperties properties) {
+        DynamicSearchProperties.Json json = properties.getJson();
+        return new DSJacksonModule(DSJsonOptions.builder()
+                .maxCriteria(json.getMaxCriteria())
+                .maxValues(json.getMaxValues())
+                .maxTextLength(json.getMaxTextLength())
+                .build());
+    }
+}
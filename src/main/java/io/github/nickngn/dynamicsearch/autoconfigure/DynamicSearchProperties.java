@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.autoconfigure;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties of dynamic search, prefixed by {@code dynamic-search}
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "dynamic-search")
+public class DynamicSearchProperties {
+
+    private Validation validation = new Validation();
+
+    private Metrics metrics = new Metrics();
+
+    private SlowSearch slowSearch = new SlowSearch();
+
+    private Web web = new Web();
+
+    private Json json = new Json();
+
+    @Getter
+    @Setter
+    public static class Validation {
+
+        /**
+         * Reference classes to describe eagerly at application startup
+         */
+        private List<Class<?>> warmUpClasses = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Metrics {
+
+        /**
+         * Publish metrics of the search pipeline to Micrometer when a meter registry is present
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of distinct criteria shape tags, further shapes are tagged as {@code other}
+         */
+        private int maxShapeTags = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class SlowSearch {
+
+        /**
+         * Register {@link io.github.nickngn.dynamicsearch.execution.DSStatementCapture} as Hibernate statement
+         * inspector, so slow searches log their SQL
+         */
+        private boolean captureSql = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Web {
+
+        /**
+         * Resolve {@link io.github.nickngn.dynamicsearch.DSTemplate} arguments of Spring MVC handlers annotated with
+         * {@link io.github.nickngn.dynamicsearch.web.DSQuery} from query strings
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of criteria of a query string
+         */
+        private int maxCriteria = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Json {
+
+        /**
+         * Deserialize templates by {@link io.github.nickngn.dynamicsearch.json.DSTemplateDeserializer}
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of criteria of a template
+         */
+        private int maxCriteria = 100;
+
+        /**
+         * Maximum number of values of an IN/NOT_IN criteria
+         */
+        private int maxValues = 10_000;
+
+        /**
+         * Maximum length of a key or a text value
+         */
+        private int maxTextLength = 4096;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.autoconfigure;
+
+import io.github.nickngn.dynamicsearch.web.DSQueryStringArgumentResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Auto-configuration resolving {@link io.github.nickngn.dynamicsearch.DSTemplate} arguments of Spring MVC handlers
+ * annotated with {@link io.github.nickngn.dynamicsearch.web.DSQuery} from query strings, applied to servlet web
+ * applications
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.autoconfigure.data.web.SpringDataWebAutoConfiguration")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass({WebMvcConfigurer.class, PageableHandlerMethodArgumentResolver.class})
+@ConditionalOnProperty(prefix = "dynamic-search.web", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(DynamicSearchProperties.class)
+public class DynamicSearchWebAutoConfiguration {
+
+    /**
+     * Resolves paging with the pageable resolver of Spring Data web support when configured,
+     * so {@code spring.data.web.pageable} limits apply
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public DSQueryStringArgumentResolver dsQueryStringArgumentResolver(
+            DynamicSearchProperties properties,
+            ObjectProvider<PageableHandlerMethodArgumentResolver> pageableResolver) {
+        return new DSQueryStringArgumentResolver(
+                pageableResolver.getIfAvailable(DSQueryStringArgumentResolver::defaultPageableResolver),
+                properties.getWeb().getMaxCriteria());
+    }
+
+    @Bean
+    public WebMvcConfigurer dsQueryStringWebMvcConfigurer(DSQueryStringArgumentResolver resolver) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+                resolvers.add(resolver);
+            }
+        };
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Compiled accessor of a property of Java objects, resolved once per class and key. <br>
+ * Getters, record components and {@code isX} methods are bound by {@link LambdaMetafactory}, fields without getter
+ * by a {@link MethodHandle}, so no reflection happens per access. Keys matching no field, bean property or
+ * record component are rejected, other methods are never invoked. <br>
+ * Dotted keys navigate nested objects, eg: {@code address.city}. A collection or array on the path matches
+ * if any of its elements matches, an empty one or a null object on the path is tested as a null value.
+ */
+public final class DSAccessor {
+
+    private record AccessorKey(Class<?> type, String key) {
+    }
+
+    private static final ConcurrentHashMap<AccessorKey, DSAccessor> ACCESSORS = new ConcurrentHashMap<>();
+
+    private final Function<Object, Object>[] getters;
+
+    private final boolean[] multiValued;
+
+    private final boolean singleValued;
+
+    private final Class<?> type;
+
+    private DSAccessor(Function<Object, Object>[] getters, boolean[] multiValued, Class<?> type) {
+        this.getters = getters;
+        this.multiValued = multiValued;
+        this.type = type;
+        boolean single = true;
+        for (boolean multi : multiValued) {
+            single &= !multi;
+        }
+        this.singleValued = single;
+    }
+
+    /**
+     * @param type class of the accessed objects
+     * @param key property of the class, dotted for nested properties
+     * @return cached accessor of the property
+     * @throws InvalidCriteriaException if a segment of the key isn't a property
+     */
+    public static DSAccessor of(Class<?> type, String key) {
+        AccessorKey accessorKey = new AccessorKey(type, key);
+        DSAccessor accessor = ACCESSORS.get(accessorKey);
+        if (accessor == null) {
+            accessor = ACCESSORS.computeIfAbsent(accessorKey, k -> compile(k.type(), k.key()));
+        }
+        return accessor;
+    }
+
+    /**
+     * @return Java type of the accessed property, the element type for collections and arrays
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return no collection or array is on the path, so {@link #get(Object)} applies
+     */
+    public boolean isSingleValued() {
+        return singleValued;
+    }
+
+    /**
+     * @param target accessed object
+     * @return value of the property, null if an object on the path is null
+     * @throws IllegalStateException if a collection or array is on the path
+     */
+    public Object get(Object target) {
+        if (!singleValued) {
+            throw new IllegalStateException("Property is multi-valued, use anyMatch instead");
+        }
+        Object value = target;
+        for (int idx = 0; idx < getters.length && value != null; idx++) {
+            value = getters[idx].apply(value);
+        }
+        return value;
+    }
+
+    /**
+     * @param target accessed object
+     * @param test test of a property value
+     * @return the test holds for any value of the property
+     */
+    public boolean anyMatch(Object target, Predicate<Object> test) {
+        return anyMatch(target, 0, test);
+    }
+
+    private boolean anyMatch(Object value, int segment, Predicate<Object> test) {
+        if (value == null || segment == getters.length) {
+            return test.test(value);
+        }
+        Object next = getters[segment].apply(value);
+        if (!multiValued[segment] || next == null) {
+            return anyMatch(next, segment + 1, test);
+        }
+        Iterable<?> elements = next instanceof Object[] array ? Arrays.asList(array) : (Iterable<?>) next;
+        boolean empty = true;
+        for (Object element : elements) {
+            empty = false;
+            if (anyMatch(element, segment + 1, test)) {
+                return true;
+            }
+        }
+        return empty && test.test(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DSAccessor compile(Class<?> type, String key) {
+        String[] segments = key.split("\\.");
+        Function<Object, Object>[] getters = new Function[segments.length];
+        boolean[] multiValued = new boolean[segments.length];
+        Class<?> current = type;
+        for (int idx = 0; idx < segments.length; idx++) {
+            Method method = segments[idx].isEmpty() ? null : getter(current, segments[idx]);
+            Field field = method == null ? ReflectionUtils.findField(current, segments[idx]) : null;
+            if (method == null && (field == null || Modifier.isStatic(field.getModifiers()))) {
+                throw new InvalidCriteriaException(String.format("Field '%s' isn't a property of %s",
+                        segments[idx], current.getSimpleName()));
+            }
+            getters[idx] = method != null ? bind(method) : bind(field);
+            Class<?> propertyType = method != null ? method.getReturnType() : field.getType();
+            Type genericType = method != null ? method.getGenericReturnType() : field.getGenericType();
+            multiValued[idx] = propertyType.isArray() || Collection.class.isAssignableFrom(propertyType);
+            current = multiValued[idx] ? elementType(propertyType, genericType) : propertyType;
+        }
+        return new DSAccessor(getters, multiValued, current);
+    }
+
+    /**
+     * @return getter or {@code isX} method of a bean property, or accessor of a record component,
+     * other methods, eg: {@code hashCode}, are never bound
+     */
+    private static Method getter(Class<?> type, String name) {
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                if (component.getName().equals(name)) {
+                    return component.getAccessor();
+                }
+            }
+        }
+        String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (String candidate : new String[]{"get" + capitalized, "is" + capitalized}) {
+            Method method = ReflectionUtils.findMethod(type, candidate);
+            if (method == null || method.getReturnType() == void.class || Modifier.isStatic(method.getModifiers())
+                    || method.getDeclaringClass() == Object.class) {
+                continue;
+            }
+            boolean bool = method.getReturnType() == boolean.class || method.getReturnType() == Boolean.class;
+            if (bool || !candidate.equals("is" + capitalized)) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> elementType(Class<?> type, Type genericType) {
+        if (type.isArray()) {
+            return type.getComponentType();
+        }
+        if (genericType instanceof ParameterizedType parameterized
+                && parameterized.getActualTypeArguments()[0] instanceof Class<?> element) {
+            return element;
+        }
+        return Object.class;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> bind(Method method) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle handle = lookup.unreflect(method);
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                        MethodType.methodType(Function.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(method.getReturnType(), method.getDeclaringClass()).wrap());
+                return (Function<Object, Object>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                // eg: the lookup has no full privilege access to the declaring class
+                return invoker(handle);
+            }
+        } catch (IllegalAccessException e) {
+            throw new InvalidCriteriaException(String.format("Getter '%s' isn't accessible", method.getName()), e);
+        }
+    }
+
+    private static Function<Object, Object> bind(Field field) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return invoker(lookup.unreflectGetter(field));
+        } catch (IllegalAccessException e) {
+            throw new InvalidCriteriaException(String.format("Field '%s' isn't accessible", field.getName()), e);
+        }
+    }
+
+    private static Function<Object, Object> invoker(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> {
+            try {
+                return generic.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.metrics.DSMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Options shared by {@link DSSpecBuilder} and {@link DSParameterizedSqlBuilder}
+ */
+@Getter
+@Builder(toBuilder = true)
+public final class DSBuilderOptions {
+
+    private static final DSBuilderOptions DEFAULTS = DSBuilderOptions.builder().build();
+
+    /**
+     * Maximum number of cached plans per builder, 0 to disable the plan cache
+     */
+    @Builder.Default
+    private final int planCacheSize = 0;
+
+    /**
+     * Strategy to render IN/NOT_IN lists
+     */
+    @Builder.Default
+    private final DSInStrategy inStrategy = DSInStrategy.none();
+
+    /**
+     * Fetch to-one associations joined by dotted keys when searching entities,
+     * to-many associations are only joined
+     */
+    @Builder.Default
+    private final boolean fetchJoins = false;
+
+    /**
+     * Rewrite criteria by {@link DSCriteriaNormalizer} before building them
+     */
+    @Builder.Default
+    private final boolean normalizeCriteria = false;
+
+    /**
+     * Estimator reordering ANDed criteria by {@link DSCriteriaOrdering}, null to keep the order of the criteria
+     */
+    @Builder.Default
+    private final DSSelectivityEstimator selectivityEstimator = null;
+
+    /**
+     * Metrics measuring the builds, null to use the default ones of {@link DSMetrics}
+     */
+    @Builder.Default
+    private final DSSearchMetrics metrics = null;
+
+    public static DSBuilderOptions defaults() {
+        return DEFAULTS;
+    }
+}
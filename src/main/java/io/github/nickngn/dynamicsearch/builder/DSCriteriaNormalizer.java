@@ -0,0 +1,484 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import lombok.experimental.UtilityClass;
+
+import org.springframework.util.ClassUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Rewrites criteria into the smallest equivalent criteria before building them:
+ * <ul>
+ *     <li>duplicate conditions are removed</li>
+ *     <li>ORed {@code EQUAL}/{@code IN} conditions of the same key are merged into one {@code IN}</li>
+ *     <li>ANDed range bounds of the same key collapse into the tightest ones, ORed ones into the loosest ones</li>
+ *     <li>contradictions, eg: {@code age > 5 AND age < 3}, {@code age NULL AND age = 1} or an empty {@code IN},
+ *     make the criteria {@link DSNormalizedCriteria#empty() match nothing}</li>
+ * </ul>
+ * Bounds and equal values are compared only when the searched attribute is a number or a temporal value,
+ * after converting both of them to its Java type by {@link DSValueConverters}. Without the type of the attribute,
+ * or for other types, eg: strings whose order depends on the database collation, they are kept as they are. <br>
+ * {@link #normalize(List)} follows the left-to-right evaluation of {@link DSSpecBuilder},
+ * {@link #normalizeSql(List)} the SQL precedence of {@link DSSqlBuilder} and {@link DSParameterizedSqlBuilder}.
+ */
+@UtilityClass
+public final class DSCriteriaNormalizer {
+
+    private static final Set<Class<?>> ORDERED_TEMPORALS = Set.of(
+            Instant.class, LocalDate.class, LocalDateTime.class, LocalTime.class);
+
+    private record Condition(String key, DSOperation operation, Object value) {
+
+        static Condition of(DSCriteria dsCriteria) {
+            return new Condition(dsCriteria.key(), dsCriteria.operation(), dsCriteria.value());
+        }
+    }
+
+    /**
+     * Normalizes criteria combined from left to right, see {@link DSCriteriaRun}.
+     * Types of the searched attributes are unknown, so bounds and equal values aren't compared
+     * @param dsCriteriaList criteria to normalize
+     * @return equivalent criteria
+     */
+    public static DSNormalizedCriteria normalize(List<DSCriteria> dsCriteriaList) {
+        return normalize(dsCriteriaList, (Class<?>) null);
+    }
+
+    /**
+     * Normalizes criteria combined from left to right, see {@link DSCriteriaRun}
+     * @param dsCriteriaList criteria to normalize
+     * @param type searched class resolving the types of the searched attributes by {@link DSAccessor},
+     *             null if unknown
+     * @return equivalent criteria
+     */
+    public static DSNormalizedCriteria normalize(List<DSCriteria> dsCriteriaList, Class<?> type) {
+        return normalize(dsCriteriaList, new Types(type));
+    }
+
+    private static DSNormalizedCriteria normalize(List<DSCriteria> dsCriteriaList, Types types) {
+        if (dsCriteriaList == null || dsCriteriaList.isEmpty()) {
+            return DSNormalizedCriteria.of(Collections.emptyList());
+        }
+        List<DSCriteria> result = new ArrayList<>(dsCriteriaList.size());
+        boolean matchesNothing = false;
+        List<DSCriteriaRun> runs = DSCriteriaRun.of(dsCriteriaList);
+        for (int idx = 0; idx < runs.size(); idx++) {
+            DSCriteriaRun run = runs.get(idx);
+            List<DSCriteria> members = dsCriteriaList.subList(run.from(), run.to());
+            // null when the members are false altogether
+            List<DSCriteria> simplified = run.or() ? simplifyOr(members, types) : simplifyAnd(members, types);
+            if (idx == 0 || (matchesNothing && run.or())) {
+                // false OR c1 OR c2 is c1 OR c2, the run starts the expression again
+                result.clear();
+                matchesNothing = simplified == null;
+                append(result, simplified, run.or());
+            } else if (!matchesNothing) {
+                if (simplified == null && !run.or()) {
+                    // x AND false is false, x OR false is x
+                    result.clear();
+                    matchesNothing = true;
+                } else {
+                    append(result, simplified, run.or());
+                }
+            }
+        }
+        return matchesNothing ? DSNormalizedCriteria.matchingNothing() : DSNormalizedCriteria.of(result);
+    }
+
+    /**
+     * Normalizes criteria of a SQL WHERE clause, where AND takes precedence over OR,
+     * so the criteria are an OR of AND groups and the first group starts with {@code 1=1}.
+     * Types of the searched columns are unknown, so bounds and equal values aren't compared
+     * @param dsCriteriaList criteria to normalize
+     * @return equivalent criteria
+     */
+    public static DSNormalizedCriteria normalizeSql(List<DSCriteria> dsCriteriaList) {
+        Types types = new Types(null);
+        if (dsCriteriaList == null || dsCriteriaList.isEmpty()) {
+            return DSNormalizedCriteria.of(Collections.emptyList());
+        }
+        List<List<DSCriteria>> groups = new ArrayList<>();
+        List<DSCriteria> group = new ArrayList<>();
+        groups.add(group);
+        for (DSCriteria dsCriteria : dsCriteriaList) {
+            if (Boolean.TRUE.equals(dsCriteria.isOr())) {
+                group = new ArrayList<>();
+                groups.add(group);
+            }
+            group.add(dsCriteria);
+        }
+
+        List<List<DSCriteria>> simplifiedGroups = new ArrayList<>(groups.size());
+        Set<List<Condition>> seen = new HashSet<>();
+        List<DSCriteria> singles = new ArrayList<>();
+        int singlesAt = -1;
+        for (List<DSCriteria> members : groups) {
+            if (members.isEmpty()) {
+                // 1=1 OR ... matches every row
+                return DSNormalizedCriteria.of(Collections.emptyList());
+            }
+            List<DSCriteria> simplified = simplifyAnd(members, types);
+            if (simplified == null || !seen.add(simplified.stream().map(Condition::of).toList())) {
+                continue;
+            }
+            if (simplified.size() == 1) {
+                if (singlesAt < 0) {
+                    singlesAt = simplifiedGroups.size();
+                    simplifiedGroups.add(singles);
+                }
+                singles.add(simplified.get(0));
+            } else {
+                simplifiedGroups.add(simplified);
+            }
+        }
+        if (singlesAt >= 0) {
+            // single conditions are ORed with each other, so their EQUALs and bounds can be merged
+            simplifiedGroups.remove(singlesAt);
+            List<DSCriteria> merged = simplifyOr(singles, types);
+            for (int idx = merged.size() - 1; idx >= 0; idx--) {
+                simplifiedGroups.add(singlesAt, List.of(merged.get(idx)));
+            }
+        }
+        if (simplifiedGroups.isEmpty()) {
+            return DSNormalizedCriteria.matchingNothing();
+        }
+
+        List<DSCriteria> result = new ArrayList<>(dsCriteriaList.size());
+        for (int idx = 0; idx < simplifiedGroups.size(); idx++) {
+            List<DSCriteria> members = simplifiedGroups.get(idx);
+            for (int member = 0; member < members.size(); member++) {
+                result.add(withOr(members.get(member), idx > 0 && member == 0));
+            }
+        }
+        return DSNormalizedCriteria.of(result);
+    }
+
+    private static void append(List<DSCriteria> result, List<DSCriteria> members, boolean or) {
+        if (members == null) {
+            return;
+        }
+        for (DSCriteria member : members) {
+            result.add(withOr(member, or && !result.isEmpty()));
+        }
+    }
+
+    /**
+     * @return ANDed members without redundant conditions, null if they contradict each other
+     */
+    private static List<DSCriteria> simplifyAnd(List<DSCriteria> members, Types types) {
+        List<DSCriteria> slots = new ArrayList<>(members.size());
+        Set<Condition> seen = new HashSet<>();
+        Map<String, Integer> lowers = new HashMap<>();
+        Map<String, Integer> uppers = new HashMap<>();
+        Map<String, Integer> equals = new HashMap<>();
+        Set<String> nulls = new HashSet<>();
+        Set<String> notNulls = new HashSet<>();
+        for (DSCriteria member : members) {
+            if (!seen.add(Condition.of(member))) {
+                continue;
+            }
+            String key = member.key();
+            Object value = member.value();
+            switch (member.operation()) {
+                case IN -> {
+                    if (value instanceof List<?> values && values.isEmpty()) {
+                        return null;
+                    }
+                }
+                case NUL -> nulls.add(key);
+                case NOT_NULL -> notNulls.add(key);
+                case EQUAL -> {
+                    if (value != null) {
+                        Integer existing = equals.get(key);
+                        if (existing != null) {
+                            Integer cmp = types.compare(key, value, slots.get(existing).value());
+                            if (cmp != null && cmp != 0) {
+                                return null;
+                            }
+                        } else {
+                            equals.put(key, slots.size());
+                        }
+                    }
+                }
+                case GREATER_THAN, GREATER_THAN_EQUAL -> {
+                    if (tighten(slots, lowers, member, 1, true, types)) {
+                        continue;
+                    }
+                }
+                case LESS_THAN, LESS_THAN_EQUAL -> {
+                    if (tighten(slots, uppers, member, -1, true, types)) {
+                        continue;
+                    }
+                }
+                default -> {
+                }
+            }
+            slots.add(member);
+        }
+
+        for (String key : nulls) {
+            if (notNulls.contains(key) || equals.containsKey(key) || lowers.containsKey(key) || uppers.containsKey(key)) {
+                return null;
+            }
+        }
+        for (Map.Entry<String, Integer> lower : lowers.entrySet()) {
+            Integer upper = uppers.get(lower.getKey());
+            if (upper != null && !satisfiable(slots.get(lower.getValue()), slots.get(upper), types)) {
+                return null;
+            }
+        }
+        for (Map.Entry<String, Integer> equal : equals.entrySet()) {
+            Object value = slots.get(equal.getValue()).value();
+            for (Integer bound : new Integer[]{lowers.get(equal.getKey()), uppers.get(equal.getKey())}) {
+                if (bound == null) {
+                    continue;
+                }
+                Boolean within = within(value, slots.get(bound), types);
+                if (Boolean.FALSE.equals(within)) {
+                    return null;
+                }
+                if (Boolean.TRUE.equals(within)) {
+                    // the equal value already satisfies the bound
+                    slots.set(bound, null);
+                }
+            }
+        }
+        return compact(slots);
+    }
+
+    /**
+     * @return ORed members without redundant conditions, null if all of them are false
+     */
+    private static List<DSCriteria> simplifyOr(List<DSCriteria> members, Types types) {
+        List<DSCriteria> slots = new ArrayList<>(members.size());
+        Set<Condition> seen = new HashSet<>();
+        Map<String, Integer> lowers = new HashMap<>();
+        Map<String, Integer> uppers = new HashMap<>();
+        Map<String, Integer> values = new HashMap<>();
+        Map<String, Set<Object>> valueSets = new HashMap<>();
+        for (DSCriteria member : members) {
+            if (!seen.add(Condition.of(member))) {
+                continue;
+            }
+            String key = member.key();
+            Object value = member.value();
+            switch (member.operation()) {
+                case IN, EQUAL -> {
+                    if (member.operation() == DSOperation.IN && value instanceof List<?> list && list.isEmpty()) {
+                        continue;
+                    }
+                    if (member.operation() == DSOperation.EQUAL && value == null) {
+                        break;
+                    }
+                    Set<Object> valueSet = valueSets.computeIfAbsent(key, k -> new LinkedHashSet<>());
+                    if (value instanceof List<?> list && member.operation() == DSOperation.IN) {
+                        valueSet.addAll(list);
+                    } else {
+                        valueSet.add(value);
+                    }
+                    if (values.containsKey(key)) {
+                        continue;
+                    }
+                    values.put(key, slots.size());
+                }
+                case GREATER_THAN, GREATER_THAN_EQUAL -> {
+                    if (tighten(slots, lowers, member, -1, false, types)) {
+                        continue;
+                    }
+                }
+                case LESS_THAN, LESS_THAN_EQUAL -> {
+                    if (tighten(slots, uppers, member, 1, false, types)) {
+                        continue;
+                    }
+                }
+                default -> {
+                }
+            }
+            slots.add(member);
+        }
+
+        for (Map.Entry<String, Integer> slot : values.entrySet()) {
+            DSCriteria first = slots.get(slot.getValue());
+            Set<Object> valueSet = valueSets.get(slot.getKey());
+            if (first.operation() == DSOperation.IN || valueSet.size() > 1) {
+                slots.set(slot.getValue(), new DSCriteria(first.key(), DSOperation.IN, new ArrayList<>(valueSet), first.isOr()));
+            }
+        }
+        List<DSCriteria> result = compact(slots);
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Keeps a single bound per key, preferring the greater value when the direction is positive
+     * and the strict bound at equal values when preferring strict bounds
+     * @return the bound was merged into the existing one of its key
+     */
+    private static boolean tighten(List<DSCriteria> slots, Map<String, Integer> bounds, DSCriteria bound,
+                                   int direction, boolean preferStrict, Types types) {
+        Integer existing = bounds.get(bound.key());
+        if (existing == null) {
+            if (bound.value() != null) {
+                bounds.put(bound.key(), slots.size());
+            }
+            return false;
+        }
+        DSCriteria current = slots.get(existing);
+        Integer cmp = types.compare(bound.key(), bound.value(), current.value());
+        if (cmp == null) {
+            return false;
+        }
+        boolean strict = isStrict(bound.operation());
+        if (cmp * direction > 0 || (cmp == 0 && strict != isStrict(current.operation()) && strict == preferStrict)) {
+            slots.set(existing, withOr(bound, Boolean.TRUE.equals(current.isOr())));
+        }
+        return true;
+    }
+
+    private static boolean satisfiable(DSCriteria lower, DSCriteria upper, Types types) {
+        Integer cmp = types.compare(lower.key(), lower.value(), upper.value());
+        if (cmp == null) {
+            return true;
+        }
+        return cmp < 0 || (cmp == 0 && !isStrict(lower.operation()) && !isStrict(upper.operation()));
+    }
+
+    /**
+     * @return the value is within the bound, null if they can't be compared
+     */
+    private static Boolean within(Object value, DSCriteria bound, Types types) {
+        Integer cmp = types.compare(bound.key(), value, bound.value());
+        if (cmp == null) {
+            return null;
+        }
+        return switch (bound.operation()) {
+            case GREATER_THAN -> cmp > 0;
+            case GREATER_THAN_EQUAL -> cmp >= 0;
+            case LESS_THAN -> cmp < 0;
+            case LESS_THAN_EQUAL -> cmp <= 0;
+            default -> null;
+        };
+    }
+
+    private static boolean isStrict(DSOperation operation) {
+        return operation == DSOperation.GREATER_THAN || operation == DSOperation.LESS_THAN;
+    }
+
+    /**
+     * Compares values of criteria as the database compares them, after converting them to the type of their attribute
+     */
+    private static final class Types {
+
+        private final Class<?> type;
+
+        private final Map<String, Function<Object, Object>> converters = new HashMap<>();
+
+        private Types(Class<?> type) {
+            this.type = type;
+        }
+
+        /**
+         * @return comparison of the values of a numeric or temporal attribute, null if they can't be compared
+         */
+        @SuppressWarnings("unchecked")
+        private Integer compare(String key, Object left, Object right) {
+            if (left == null || right == null || type == null) {
+                return null;
+            }
+            Function<Object, Object> converter = converters.computeIfAbsent(key, this::converter);
+            if (converter == null) {
+                return null;
+            }
+            try {
+                Object leftValue = converter.apply(left);
+                Object rightValue = converter.apply(right);
+                if (leftValue instanceof Number leftNumber && rightValue instanceof Number rightNumber) {
+                    return new BigDecimal(leftNumber.toString()).compareTo(new BigDecimal(rightNumber.toString()));
+                }
+                return ((Comparable<Object>) leftValue).compareTo(rightValue);
+            } catch (RuntimeException e) {
+                // not convertible, not finite or of unrelated types, eg: Timestamp and Date
+                return null;
+            }
+        }
+
+        private Function<Object, Object> converter(String key) {
+            Class<?> attributeType;
+            try {
+                attributeType = ClassUtils.resolvePrimitiveIfNecessary(DSAccessor.of(type, key).getType());
+            } catch (InvalidCriteriaException e) {
+                return null;
+            }
+            if (Number.class.isAssignableFrom(attributeType) || Date.class.isAssignableFrom(attributeType)
+                    || ORDERED_TEMPORALS.contains(attributeType)) {
+                return DSValueConverters.forType(attributeType);
+            }
+            if (attributeType == OffsetDateTime.class || attributeType == ZonedDateTime.class) {
+                // compared by instant as the database does, not by local date-time
+                Function<Object, Object> converter = DSValueConverters.forType(attributeType);
+                return value -> Instant.from((TemporalAccessor) converter.apply(value));
+            }
+            return null;
+        }
+    }
+
+    private static DSCriteria withOr(DSCriteria dsCriteria, boolean or) {
+        if (Boolean.valueOf(or).equals(dsCriteria.isOr())) {
+            return dsCriteria;
+        }
+        return new DSCriteria(dsCriteria.key(), dsCriteria.operation(), dsCriteria.value(), or);
+    }
+
+    private static List<DSCriteria> compact(List<DSCriteria> slots) {
+        List<DSCriteria> result = new ArrayList<>(slots.size());
+        for (DSCriteria slot : slots) {
+            if (slot != null) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+}
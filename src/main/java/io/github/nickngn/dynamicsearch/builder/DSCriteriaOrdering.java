@@ -0,0 +1,106 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reorders ANDed criteria by their estimated selectivity, so cheap and selective predicates come first
+ * for databases and evaluators honoring the predicate order. <br>
+ * Only criteria inside an AND group are moved, ORed criteria and the boundaries between groups keep their order,
+ * so the result is equivalent. Criteria with equal estimates keep their order.
+ */
+@UtilityClass
+public final class DSCriteriaOrdering {
+
+    /**
+     * Reorders criteria combined from left to right, see {@link DSCriteriaRun}.
+     * The result of the previous runs stays the first operand of an AND run.
+     * @param dsCriteriaList criteria to reorder
+     * @param estimator selectivity estimator
+     * @return reordered criteria
+     */
+    public static List<DSCriteria> reorder(List<DSCriteria> dsCriteriaList, DSSelectivityEstimator estimator) {
+        List<DSCriteria> result = new ArrayList<>(dsCriteriaList);
+        for (DSCriteriaRun run : DSCriteriaRun.of(dsCriteriaList)) {
+            if (!run.or() && run.size() > 1) {
+                sort(result, run.from(), run.to(), estimator);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reorders criteria of a SQL WHERE clause, where AND takes precedence over OR,
+     * so every group of criteria between ORs is reordered
+     * @param dsCriteriaList criteria to reorder
+     * @param estimator selectivity estimator
+     * @return reordered criteria
+     */
+    public static List<DSCriteria> reorderSql(List<DSCriteria> dsCriteriaList, DSSelectivityEstimator estimator) {
+        List<DSCriteria> result = new ArrayList<>(dsCriteriaList);
+        int from = 0;
+        for (int idx = 1; idx <= result.size(); idx++) {
+            if (idx == result.size() || Boolean.TRUE.equals(result.get(idx).isOr())) {
+                sort(result, from, idx, estimator);
+                from = idx;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Sorts the group and moves the connector of the group's first criteria to the new first one
+     */
+    private static void sort(List<DSCriteria> criteria, int from, int to, DSSelectivityEstimator estimator) {
+        if (to - from < 2) {
+            return;
+        }
+        List<DSCriteria> group = criteria.subList(from, to);
+        Boolean first = group.get(0).isOr();
+        double[] estimates = new double[group.size()];
+        List<Integer> order = new ArrayList<>(group.size());
+        for (int idx = 0; idx < estimates.length; idx++) {
+            estimates[idx] = estimator.estimate(group.get(idx));
+            order.add(idx);
+        }
+        order.sort(Comparator.comparingDouble(idx -> estimates[idx]));
+        List<DSCriteria> sorted = new ArrayList<>(group.size());
+        for (int idx = 0; idx < order.size(); idx++) {
+            DSCriteria dsCriteria = group.get(order.get(idx));
+            Boolean or = idx == 0 ? first : Boolean.FALSE;
+            sorted.add(new DSCriteria(dsCriteria.key(), dsCriteria.operation(), dsCriteria.value(), or));
+        }
+        for (int idx = 0; idx < sorted.size(); idx++) {
+            group.set(idx, sorted.get(idx));
+        }
+    }
+}
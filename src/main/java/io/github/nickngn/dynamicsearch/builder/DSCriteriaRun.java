@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Run of consecutive criteria joined by the same connector. <br>
+ * Criteria are combined from left to right, eg: {@code ((c1 AND c2) OR c3) OR c4}, so consecutive criteria
+ * with the same connector can be combined into a single n-ary predicate: {@code OR(AND(c1, c2), c3, c4)}.
+ * Every run after the first one takes the result of the previous runs as its first operand.
+ * @param from index of the first criteria in the run, inclusive
+ * @param to index of the last criteria in the run, exclusive
+ * @param or criteria of the run are joined by OR
+ */
+public record DSCriteriaRun(int from, int to, boolean or) {
+
+    public int size() {
+        return to - from;
+    }
+
+    /**
+     * @param dsCriteriaList criteria to split
+     * @return runs of the criteria in order
+     */
+    public static List<DSCriteriaRun> of(List<DSCriteria> dsCriteriaList) {
+        boolean[] ors = new boolean[dsCriteriaList.size()];
+        for (int idx = 0; idx < ors.length; idx++) {
+            ors[idx] = Boolean.TRUE.equals(dsCriteriaList.get(idx).isOr());
+        }
+        return of(ors);
+    }
+
+    /**
+     * @param shape shape of criteria to split
+     * @return runs of the criteria in order
+     */
+    public static List<DSCriteriaRun> of(DSCriteriaShape shape) {
+        boolean[] ors = new boolean[shape.size()];
+        for (int idx = 0; idx < ors.length; idx++) {
+            ors[idx] = shape.getElements().get(idx).or();
+        }
+        return of(ors);
+    }
+
+    private static List<DSCriteriaRun> of(boolean[] ors) {
+        if (ors.length == 0) {
+            return Collections.emptyList();
+        }
+        List<DSCriteriaRun> runs = new ArrayList<>();
+        // the connector of the first criteria is ignored, the first run takes the connector of the second one
+        int from = 0;
+        boolean or = ors.length > 1 && ors[1];
+        for (int idx = 2; idx < ors.length; idx++) {
+            if (ors[idx] != or) {
+                runs.add(new DSCriteriaRun(from, idx, or));
+                from = idx;
+                or = ors[idx];
+            }
+        }
+        runs.add(new DSCriteriaRun(from, ors.length, or));
+        return runs;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Canonical shape of a {@link List} of {@link DSCriteria}: keys, operations and OR/AND flags
+ * without the searched values. <br>
+ * Criteria lists of the same shape compile to the same plan and differ only in bound values.
+ */
+public final class DSCriteriaShape {
+
+    /**
+     * Shape of a single criteria
+     * @param key searched field
+     * @param operation operation
+     * @param or this condition is used as OR condition
+     * @param arity -1 for null value, number of rendered parameters for IN/NOT_IN values, otherwise 0
+     */
+    public record Element(String key, DSOperation operation, boolean or, int arity) {
+    }
+
+    private final List<Element> elements;
+
+    private final int hash;
+
+    private DSCriteriaShape(List<Element> elements) {
+        this.elements = elements;
+        this.hash = elements.hashCode();
+    }
+
+    /**
+     * @param dsCriteriaList criteria to canonicalize
+     * @return shape of the given criteria
+     */
+    public static DSCriteriaShape of(List<DSCriteria> dsCriteriaList) {
+        return of(dsCriteriaList, DSInStrategy.none());
+    }
+
+    /**
+     * @param dsCriteriaList criteria to canonicalize
+     * @param inStrategy strategy rendering IN/NOT_IN lists, lists rendered with the same number
+     *                   of parameters share the same shape
+     * @return shape of the given criteria
+     */
+    public static DSCriteriaShape of(List<DSCriteria> dsCriteriaList, DSInStrategy inStrategy) {
+        if (dsCriteriaList == null || dsCriteriaList.isEmpty()) {
+            return new DSCriteriaShape(Collections.emptyList());
+        }
+        List<Element> elements = new ArrayList<>(dsCriteriaList.size());
+        for (DSCriteria dsCriteria : dsCriteriaList) {
+            elements.add(new Element(dsCriteria.key(), dsCriteria.operation(),
+                    Boolean.TRUE.equals(dsCriteria.isOr()), arity(dsCriteria, inStrategy)));
+        }
+        return new DSCriteriaShape(Collections.unmodifiableList(elements));
+    }
+
+    private static int arity(DSCriteria dsCriteria, DSInStrategy inStrategy) {
+        Object value = dsCriteria.value();
+        if (value == null) {
+            return -1;
+        }
+        if (dsCriteria.operation() == DSOperation.IN || dsCriteria.operation() == DSOperation.NOT_IN) {
+            return inStrategy.parameterCount(value instanceof Collection<?> collection ? collection.size() : 1);
+        }
+        return 0;
+    }
+
+    public List<Element> getElements() {
+        return elements;
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DSCriteriaShape that)) return false;
+        return hash == that.hash && elements.equals(that.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Element element : elements) {
+            if (!result.isEmpty()) {
+                result.append(element.or() ? " OR " : " AND ");
+            }
+            result.append(element.key()).append(' ').append(element.operation().getValue());
+            if (element.arity() > 0) {
+                result.append('[').append(element.arity()).append(']');
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Strategy to render IN/NOT_IN lists
+ * @param padding pad the number of elements up to the next power of two by repeating the last element,
+ *                so lists of different lengths share the same statement
+ * @param chunkSize maximum number of elements per IN group, longer lists are split into groups
+ *                  joined by OR (AND for NOT_IN), 0 to disable chunking
+ * @param arrayParameter bind the whole list as a single array parameter, eg: {@code key = ANY(?)},
+ *                       for databases supporting it. Only applies to {@link DSParameterizedSqlBuilder},
+ *                       see {@link #toArray(List)}
+ */
+public record DSInStrategy(boolean padding, int chunkSize, boolean arrayParameter) {
+
+    private static final DSInStrategy NONE = new DSInStrategy(false, 0, false);
+
+    public DSInStrategy {
+        if (chunkSize < 0) {
+            throw new IllegalArgumentException("Chunk size of IN list can't be negative");
+        }
+    }
+
+    /**
+     * @return strategy rendering one element per list value in a single IN group
+     */
+    public static DSInStrategy none() {
+        return NONE;
+    }
+
+    public DSInStrategy withPadding(boolean padding) {
+        return new DSInStrategy(padding, chunkSize, arrayParameter);
+    }
+
+    public DSInStrategy withChunkSize(int chunkSize) {
+        return new DSInStrategy(padding, chunkSize, arrayParameter);
+    }
+
+    public DSInStrategy withArrayParameter(boolean arrayParameter) {
+        return new DSInStrategy(padding, chunkSize, arrayParameter);
+    }
+
+    /**
+     * Splits the values into IN groups, padding each group if enabled
+     * @param values list values
+     * @return groups of values, a single group if the list doesn't exceed the chunk size
+     */
+    public List<List<?>> partition(List<?> values) {
+        if (chunkSize == 0 || values.size() <= chunkSize) {
+            return Collections.singletonList(pad(values));
+        }
+        List<List<?>> result = new ArrayList<>((values.size() + chunkSize - 1) / chunkSize);
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            result.add(pad(values.subList(from, Math.min(from + chunkSize, values.size()))));
+        }
+        return result;
+    }
+
+    /**
+     * @param values list values
+     * @return array parameter of the values typed by their class, eg: {@code Long[]}, so JDBC drivers infer the type
+     * of the SQL array, an {@code Object[]} if the values are of different classes or all null
+     */
+    public Object[] toArray(List<?> values) {
+        Class<?> common = null;
+        for (Object value : values) {
+            if (value != null && common != value.getClass()) {
+                if (common != null) {
+                    common = Object.class;
+                    break;
+                }
+                common = value.getClass();
+            }
+        }
+        return values.toArray((Object[]) Array.newInstance(common != null ? common : Object.class, values.size()));
+    }
+
+    /**
+     * @param size number of list values
+     * @return number of parameters rendered for the list
+     */
+    public int parameterCount(int size) {
+        if (arrayParameter) {
+            return 1;
+        }
+        if (chunkSize == 0 || size <= chunkSize) {
+            return paddedSize(size);
+        }
+        int fullChunks = size / chunkSize;
+        int remainder = size % chunkSize;
+        return fullChunks * chunkSize + (remainder == 0 ? 0 : paddedSize(remainder));
+    }
+
+    private List<?> pad(List<?> values) {
+        int paddedSize = paddedSize(values.size());
+        if (paddedSize == values.size()) {
+            return values;
+        }
+        List<Object> result = new ArrayList<>(paddedSize);
+        result.addAll(values);
+        Object last = values.get(values.size() - 1);
+        while (result.size() < paddedSize) {
+            result.add(last);
+        }
+        return result;
+    }
+
+    private int paddedSize(int size) {
+        if (!padding || size <= 1) {
+            return size;
+        }
+        int bucket = Integer.highestOneBit(size - 1) << 1;
+        return chunkSize > 0 ? Math.min(bucket, chunkSize) : bucket;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.EntityType;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination: instead of skipping rows by offset, the next page starts right after
+ * the sort keys of the last row of the previous page, carried by an opaque cursor. <br>
+ * The sort is completed by the entity id as tie-breaker, so every row has a unique position.
+ * Sort keys must not be null.
+ */
+@UtilityClass
+public final class DSKeyset {
+
+    private static final char NULL_VALUE = '~';
+
+    private static final char LENGTH_SEPARATOR = ':';
+
+    /**
+     * @param sort requested sort
+     * @param entityType searched entity
+     * @return the requested sort followed by the entity id if the sort doesn't contain it yet
+     */
+    public static Sort sort(Sort sort, EntityType<?> entityType) {
+        if (!entityType.hasSingleIdAttribute()) {
+            throw new InvalidCriteriaException(String.format("Keyset pagination requires a single id attribute on '%s'",
+                    entityType.getName()));
+        }
+        String id = entityType.getId(entityType.getIdType().getJavaType()).getName();
+        return sort.getOrderFor(id) != null ? sort : sort.and(Sort.by(id));
+    }
+
+    /**
+     * @param sort requested sort
+     * @param cursor cursor of the last row of the previous page, null or empty for the first page
+     * @param <T> searching entity
+     * @return specification seeking rows after the cursor in order of the sort completed by the entity id
+     */
+    public static <T> Specification<T> seek(Sort sort, String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return Specification.anyOf();
+        }
+        List<String> values = decode(cursor);
+        return (root, query, cb) -> {
+            List<Sort.Order> orders = sort(sort, root.getModel()).toList();
+            if (orders.size() != values.size()) {
+                throw new InvalidCriteriaException("Cursor doesn't match the requested sort");
+            }
+            List<Path<Comparable<Object>>> paths = new ArrayList<>(orders.size());
+            List<Comparable<Object>> keys = new ArrayList<>(orders.size());
+            for (int idx = 0; idx < orders.size(); idx++) {
+                Path<Comparable<Object>> path = DSPaths.resolve(root, query, orders.get(idx).getProperty(), false);
+                paths.add(path);
+                keys.add(key(root, path, orders.get(idx).getProperty(), values.get(idx)));
+            }
+
+            // (k1 > v1) OR (k1 = v1 AND k2 > v2) OR ... with '<' for descending keys
+            Predicate[] alternatives = new Predicate[orders.size()];
+            for (int idx = 0; idx < orders.size(); idx++) {
+                Predicate[] conjunction = new Predicate[idx + 1];
+                for (int prev = 0; prev < idx; prev++) {
+                    conjunction[prev] = cb.equal(paths.get(prev), keys.get(prev));
+                }
+                conjunction[idx] = orders.get(idx).isAscending()
+                        ? cb.greaterThan(paths.get(idx), keys.get(idx))
+                        : cb.lessThan(paths.get(idx), keys.get(idx));
+                alternatives[idx] = conjunction.length == 1 ? conjunction[0] : cb.and(conjunction);
+            }
+            return alternatives.length == 1 ? alternatives[0] : cb.or(alternatives);
+        };
+    }
+
+    /**
+     * @param lastRow last row of the current page
+     * @param sort sort of the page, completed by the entity id, see {@link #sort(Sort, EntityType)}
+     * @return cursor of the next page
+     */
+    public static String cursor(Object lastRow, Sort sort) {
+        List<String> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            // read through getters, so lazy associations of the row are loaded instead of read as null
+            Object value = DSAccessor.of(lastRow.getClass(), order.getProperty()).get(lastRow);
+            if (value == null) {
+                throw new InvalidCriteriaException(String.format("Keyset pagination doesn't support null sort key '%s'",
+                        order.getProperty()));
+            }
+            values.add(text(value));
+        }
+        return encode(values);
+    }
+
+    /**
+     * @param content rows of the current page
+     * @param pageSize requested page size
+     * @param sort sort of the page, completed by the entity id, see {@link #sort(Sort, EntityType)}
+     * @return cursor of the next page, null if the current page is the last one
+     */
+    public static String nextCursor(List<?> content, int pageSize, Sort sort) {
+        if (content.isEmpty() || content.size() < pageSize) {
+            return null;
+        }
+        return cursor(content.get(content.size() - 1), sort);
+    }
+
+    /**
+     * Timestamps, including {@link java.sql.Timestamp} loaded by JPA providers, are written as ISO instants,
+     * {@link java.sql.Date} and {@link java.sql.Time} as their ISO local value
+     */
+    private static String text(Object value) {
+        if (value instanceof Date date && !(date instanceof java.sql.Date) && !(date instanceof java.sql.Time)) {
+            return date.toInstant().toString();
+        }
+        return value.toString();
+    }
+
+    static String encode(List<String> values) {
+        StringBuilder result = new StringBuilder();
+        for (String value : values) {
+            if (value == null) {
+                result.append(NULL_VALUE);
+            } else {
+                result.append(value.length()).append(LENGTH_SEPARATOR).append(value);
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(result.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static List<String> decode(String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCriteriaException("Invalid cursor", ex);
+        }
+        List<String> values = new ArrayList<>();
+        int idx = 0;
+        while (idx < decoded.length()) {
+            if (decoded.charAt(idx) == NULL_VALUE) {
+                values.add(null);
+                idx++;
+                continue;
+            }
+            int separator = decoded.indexOf(LENGTH_SEPARATOR, idx);
+            try {
+                int length = Integer.parseInt(decoded, idx, separator, 10);
+                values.add(decoded.substring(separator + 1, separator + 1 + length));
+                idx = separator + 1 + length;
+            } catch (RuntimeException ex) {
+                throw new InvalidCriteriaException("Invalid cursor", ex);
+            }
+        }
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> key(Root<?> root, Path<?> path, String property, String value) {
+        if (value == null) {
+            throw new InvalidCriteriaException(String.format("Keyset pagination doesn't support null sort key '%s'", property));
+        }
+        return (Comparable<Object>) DSValueConverters.forAttribute(root.getJavaType(), property, path.getJavaType()).apply(value);
+    }
+}
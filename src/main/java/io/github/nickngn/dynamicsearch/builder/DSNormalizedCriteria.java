@@ -0,0 +1,49 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of {@link DSCriteriaNormalizer}
+ * @param criteria equivalent criteria, empty when the criteria match every row
+ * @param empty the criteria provably match no row, so the search can be skipped
+ */
+public record DSNormalizedCriteria(List<DSCriteria> criteria, boolean empty) {
+
+    private static final DSNormalizedCriteria EMPTY = new DSNormalizedCriteria(Collections.emptyList(), true);
+
+    public static DSNormalizedCriteria of(List<DSCriteria> criteria) {
+        return new DSNormalizedCriteria(criteria, false);
+    }
+
+    public static DSNormalizedCriteria matchingNothing() {
+        return EMPTY;
+    }
+}
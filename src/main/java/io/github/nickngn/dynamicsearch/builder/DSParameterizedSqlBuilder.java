@@ -0,0 +1,119 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.cache.DSCache;
+import io.github.nickngn.dynamicsearch.metrics.DSMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builder to convert {@link List} of {@link DSCriteria} into SQL WHERE clause with placeholders
+ * and ordered bind parameters. <br>
+ * Criteria lists of the same shape produce identical SQL regardless of their values,
+ * so the statement can be reused by prepared statement and database plan caches.
+ * When a plan cache is enabled, the SQL is rendered once per {@link DSCriteriaShape}.
+ */
+public final class DSParameterizedSqlBuilder implements ConditionalBuilder<DSSqlStatement> {
+
+    private final DSPlaceholderStyle style;
+
+    private final DSBuilderOptions options;
+
+    private final DSCache<DSCriteriaShape, DSSqlPlan> planCache;
+
+    public DSParameterizedSqlBuilder() {
+        this(DSPlaceholderStyle.POSITIONAL);
+    }
+
+    public DSParameterizedSqlBuilder(DSPlaceholderStyle style) {
+        this(style, 0);
+    }
+
+    /**
+     * @param style placeholder style
+     * @param planCacheSize maximum number of cached plans, 0 to disable the plan cache
+     */
+    public DSParameterizedSqlBuilder(DSPlaceholderStyle style, int planCacheSize) {
+        this(style, DSBuilderOptions.builder().planCacheSize(planCacheSize).build());
+    }
+
+    public DSParameterizedSqlBuilder(DSPlaceholderStyle style, DSBuilderOptions options) {
+        this.style = style;
+        this.options = options;
+        this.planCache = options.getPlanCacheSize() > 0 ? new DSCache<>(options.getPlanCacheSize()) : null;
+    }
+
+    @Override
+    public DSSqlStatement build(List<DSCriteria> dsCriteriaList) {
+        DSSearchMetrics metrics = DSMetrics.resolve(options.getMetrics());
+        if (metrics == DSSearchMetrics.NOOP || CollectionUtils.isEmpty(dsCriteriaList)) {
+            return render(dsCriteriaList);
+        }
+        return DSMetrics.timed(metrics, DSSearchMetrics.Stage.BUILD, null, DSMetrics.shape(metrics, dsCriteriaList),
+                () -> render(dsCriteriaList));
+    }
+
+    private DSSqlStatement render(List<DSCriteria> dsCriteriaList) {
+        if (CollectionUtils.isEmpty(dsCriteriaList)) {
+            return new DSSqlStatement("WHERE 1=1", new ArrayList<>(), style);
+        }
+        if (options.isNormalizeCriteria()) {
+            DSNormalizedCriteria normalized = DSCriteriaNormalizer.normalizeSql(dsCriteriaList);
+            if (normalized.empty()) {
+                return new DSSqlStatement("WHERE 1=0", new ArrayList<>(), style);
+            }
+            if (normalized.criteria().isEmpty()) {
+                return new DSSqlStatement("WHERE 1=1", new ArrayList<>(), style);
+            }
+            return bind(normalized.criteria());
+        }
+        return bind(dsCriteriaList);
+    }
+
+    private DSSqlStatement bind(List<DSCriteria> criteria) {
+        List<DSCriteria> dsCriteriaList = options.getSelectivityEstimator() != null
+                ? DSCriteriaOrdering.reorderSql(criteria, options.getSelectivityEstimator())
+                : criteria;
+        if (planCache == null) {
+            return DSSqlPlan.compile(dsCriteriaList, style, options.getInStrategy()).bind(dsCriteriaList);
+        }
+        return planCache.get(DSCriteriaShape.of(dsCriteriaList, options.getInStrategy()),
+                        shape -> DSSqlPlan.compile(dsCriteriaList, style, options.getInStrategy()))
+                .bind(dsCriteriaList);
+    }
+
+    /**
+     * @return cache of compiled plans, null if the plan cache is disabled
+     */
+    public DSCache<DSCriteriaShape, DSSqlPlan> getPlanCache() {
+        return planCache;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+
+import java.util.List;
+
+/**
+ * Converts the content of a {@link DSCriteria} object into a SQL WHERE clause condition with
+ * placeholders, collecting the values into the shared list of bind parameters.
+ */
+public class DSParameterizedSqlSpec extends DSPlainSqlSpec {
+
+    private final List<Object> parameters;
+
+    private final DSPlaceholderStyle style;
+
+    private final DSInStrategy inStrategy;
+
+    /**
+     * @param dsCriteria criteria to convert
+     * @param parameters collector of bind parameters, shared by all conditions of a statement
+     * @param style placeholder style
+     */
+    public DSParameterizedSqlSpec(DSCriteria dsCriteria, List<Object> parameters, DSPlaceholderStyle style) {
+        this(dsCriteria, parameters, style, DSInStrategy.none());
+    }
+
+    /**
+     * @param dsCriteria criteria to convert
+     * @param parameters collector of bind parameters, shared by all conditions of a statement
+     * @param style placeholder style
+     * @param inStrategy strategy rendering IN/NOT_IN lists
+     */
+    public DSParameterizedSqlSpec(DSCriteria dsCriteria, List<Object> parameters, DSPlaceholderStyle style,
+                                  DSInStrategy inStrategy) {
+        super(dsCriteria);
+        this.parameters = parameters;
+        this.style = style;
+        this.inStrategy = inStrategy;
+    }
+
+    @Override
+    protected String onIn() {
+        List<?> values = arrVal();
+        if (inStrategy.arrayParameter()) {
+            return key() + " = ANY(" + bind(inStrategy.toArray(values)) + ")";
+        }
+        List<List<?>> chunks = inStrategy.partition(values);
+        if (chunks.size() == 1) {
+            return key() + " in " + " (" + bindAll(chunks.get(0)) + ")";
+        }
+        return "(" + String.join(" OR ", chunks.stream().map(chunk -> key() + " in (" + bindAll(chunk) + ")").toList()) + ")";
+    }
+
+    @Override
+    protected String onNotIn() {
+        List<?> values = arrVal();
+        if (inStrategy.arrayParameter()) {
+            return key() + " <> ALL(" + bind(inStrategy.toArray(values)) + ")";
+        }
+        List<List<?>> chunks = inStrategy.partition(values);
+        if (chunks.size() == 1) {
+            return key() + " not in " + " (" + bindAll(chunks.get(0)) + ")";
+        }
+        return "(" + String.join(" AND ", chunks.stream().map(chunk -> key() + " not in (" + bindAll(chunk) + ")").toList()) + ")";
+    }
+
+    @Override
+    protected String bind(Object value) {
+        String placeholder = style.placeholder(parameters.size());
+        parameters.add(value);
+        return placeholder;
+    }
+
+    @Override
+    protected String bindAll(List<?> values) {
+        StringBuilder result = new StringBuilder();
+        for (Object value : values) {
+            if (!result.isEmpty()) {
+                result.append(',');
+            }
+            result.append(bind(value));
+        }
+        return result.toString();
+    }
+}
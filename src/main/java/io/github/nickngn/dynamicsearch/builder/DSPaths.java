@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Fetch;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Resolves searched keys into JPA paths. Dotted keys, eg: {@code customer.address.city}, navigate
+ * associations by LEFT joins, reusing one join per association path across all criteria of a query.
+ * Embedded attributes are navigated without joins. <br>
+ * A join of a to-many association makes entity and count queries {@code distinct}, so the searched entities aren't duplicated,
+ * projections keep a row per joined association.
+ */
+@UtilityClass
+public final class DSPaths {
+
+    /**
+     * @param from root of the query
+     * @param query query of the root
+     * @param key searched key, dotted for nested attributes
+     * @param fetch fetch joined to-one associations when the query selects the root entity,
+     *              down to the first association that isn't fetched
+     * @param <Y> type of the searched attribute
+     * @return path of the searched attribute
+     */
+    @SuppressWarnings("unchecked")
+    public static <Y> Path<Y> resolve(From<?, ?> from, CriteriaQuery<?> query, String key, boolean fetch) {
+        int dot = key.indexOf('.');
+        if (dot < 0) {
+            return from.get(key);
+        }
+
+        boolean entityQuery = query.getResultType() == from.getJavaType();
+        boolean distinct = entityQuery || query.getResultType() == Long.class;
+        boolean fetchable = fetch && entityQuery;
+        From<?, ?> current = from;
+        Path<?> path = from;
+        ManagedType<?> type = managedType(from);
+        int start = 0;
+        while (dot >= 0) {
+            String segment = key.substring(start, dot);
+            Attribute<?, ?> attribute = type != null ? type.getAttribute(segment) : null;
+            if (attribute != null && attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                path = path.get(segment);
+            } else {
+                if (path != current) {
+                    throw new InvalidCriteriaException(String.format("Association '%s' inside embedded attribute isn't supported", key));
+                }
+                From<?, ?> parent = current;
+                current = join(current, query, segment, attribute, distinct, fetchable);
+                // associations of a joined, not fetched, association can't be fetched
+                fetchable = fetchable && parent.getFetches().contains(current);
+                path = current;
+            }
+            type = targetType(attribute);
+            start = dot + 1;
+            dot = key.indexOf('.', start);
+        }
+        return (Path<Y>) path.get(key.substring(start));
+    }
+
+    private static From<?, ?> join(From<?, ?> from, CriteriaQuery<?> query, String segment,
+                                   Attribute<?, ?> attribute, boolean distinct, boolean fetchable) {
+        boolean collection = attribute != null && attribute.isCollection();
+        if (collection && distinct) {
+            query.distinct(true);
+        }
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(segment) && join.getJoinType() == JoinType.LEFT) {
+                return join;
+            }
+        }
+        for (Fetch<?, ?> fetch : from.getFetches()) {
+            if (fetch.getAttribute().getName().equals(segment) && fetch.getJoinType() == JoinType.LEFT
+                    && fetch instanceof From<?, ?> fetched) {
+                return fetched;
+            }
+        }
+        // to-many associations aren't fetched, paging them would happen in memory
+        if (fetchable && !collection && from.fetch(segment, JoinType.LEFT) instanceof From<?, ?> fetched) {
+            return fetched;
+        }
+        return from.join(segment, JoinType.LEFT);
+    }
+
+    private static ManagedType<?> managedType(From<?, ?> from) {
+        if (from.getModel() instanceof ManagedType<?> managedType) {
+            return managedType;
+        }
+        if (from.getModel() instanceof Attribute<?, ?> attribute) {
+            return targetType(attribute);
+        }
+        return null;
+    }
+
+    private static ManagedType<?> targetType(Attribute<?, ?> attribute) {
+        Type<?> type = null;
+        if (attribute instanceof SingularAttribute<?, ?> singular) {
+            type = singular.getType();
+        } else if (attribute instanceof PluralAttribute<?, ?, ?> plural) {
+            type = plural.getElementType();
+        }
+        return type instanceof ManagedType<?> managedType ? managedType : null;
+    }
+}
@@ -40,7 +40,7 @@ public class DSPlainSqlSpec {
     }
 
     public String toCondition() {
-        String clause = dsCriteria.isOr() ? "OR" : "AND";
+        String clause = Boolean.TRUE.equals(dsCriteria.isOr()) ? "OR" : "AND";
         return clause + " " + generateWhereClause() ;
     }
 
@@ -77,7 +77,7 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             return make("IS","NULL");
         }
-        return make("LIKE", "%" + strVal + "%");
+        return make("LIKE", bind("%" + strVal + "%"));
     }
 
     protected String onDoesNotContains() {
@@ -85,15 +85,15 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             return make("IS NOT","NULL");
         }
-        return make("NOT LIKE", "%" + strVal + "%");
+        return make("NOT LIKE", bind("%" + strVal + "%"));
     }
 
     protected String onEqual() {
-        return make("=", strVal());
+        return make("=", bind(dsCriteria.value()));
     }
 
     protected String onNotEqual() {
-        return make("<>", strVal());
+        return make("<>", bind(dsCriteria.value()));
     }
 
     protected String onBeginWith() {
@@ -101,7 +101,7 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             return make("IS", "NULL");
         }
-        return make("LIKE", strVal + "%");
+        return make("LIKE", bind(strVal + "%"));
     }
 
     protected String onNotBeginWith() {
@@ -109,7 +109,7 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             return make("IS NOT", "NULL");
         }
-        return make("NOT LIKE", strVal + "%");
+        return make("NOT LIKE", bind(strVal + "%"));
     }
 
     protected String onEndWith() {
@@ -117,7 +117,7 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             return make("IS", "NULL");
         }
-        return make("LIKE", "%" + strVal);
+        return make("LIKE", bind("%" + strVal));
     }
 
     protected String onNotEndWith() {
@@ -125,7 +125,7 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             return make("IS NOT", "NULL");
         }
-        return make("NOT LIKE", "%" + strVal);
+        return make("NOT LIKE", bind("%" + strVal));
     }
 
     protected String onNull() {
@@ -141,7 +141,7 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", dsCriteria.operation()));
         }
-        return make(">", strVal);
+        return make(">", bind(dsCriteria.value()));
     }
 
     protected String onGreaterThanEqual() {
@@ -149,7 +149,7 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", dsCriteria.operation()));
         }
-        return make(">=", strVal);
+        return make(">=", bind(dsCriteria.value()));
     }
 
     protected String onLessThan() {
@@ -157,7 +157,7 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", dsCriteria.operation()));
         }
-        return make("<", strVal);
+        return make("<", bind(dsCriteria.value()));
     }
 
     protected String onLessThanEqual() {
@@ -165,17 +165,41 @@ public class DSPlainSqlSpec {
         if (strVal == null) {
             throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", dsCriteria.operation()));
         }
-        return make("<=", strVal);
+        return make("<=", bind(dsCriteria.value()));
     }
 
     protected String onNotIn() {
-        List<String> list = arrVal().stream().map(val -> "'" + val + "'").toList();
-        return dsCriteria.key() + " not in " + " (" + String.join(",", list) + ")";
+        return dsCriteria.key() + " not in " + " (" + bindAll(arrVal()) + ")";
     }
 
     protected String onIn() {
-        List<String> list = arrVal().stream().map(val -> "'" + val + "'").toList();
-        return dsCriteria.key() + " in " + " (" + String.join(",", list) + ")";
+        return dsCriteria.key() + " in " + " (" + bindAll(arrVal()) + ")";
+    }
+
+    /**
+     * Renders a single value into the condition. Plain SQL inlines the value as-is,
+     * subclasses may replace it with a placeholder.
+     *
+     * @param value value to render, may be null
+     * @return the rendered value
+     */
+    protected String bind(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    /**
+     * Renders the elements of an IN/NOT IN list, separated by commas
+     *
+     * @param values list elements
+     * @return the rendered elements
+     */
+    protected String bindAll(List<?> values) {
+        List<String> list = values.stream().map(val -> "'" + val + "'").toList();
+        return String.join(",", list);
+    }
+
+    protected String key() {
+        return dsCriteria.key();
     }
 
     protected String strVal() {
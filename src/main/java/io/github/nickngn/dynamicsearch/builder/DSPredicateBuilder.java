@@ -0,0 +1,307 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.metrics.DSMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics;
+import org.springframework.util.CollectionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Builder to convert {@link List} of {@link DSCriteria} into a {@link Predicate} filtering Java objects,
+ * eg: reference data kept in application caches, without a database round trip. <br>
+ * Properties are read by compiled {@link DSAccessor}s and values are converted once to the Java type
+ * of the property by {@link DSValueConverters}, LIKE patterns are compiled into matchers when building. <br>
+ * Criteria are combined from left to right as described by {@link DSCriteriaRun}. As in SQL, a null property
+ * matches no comparison, LIKE or IN operation, negated ones included. Null values of equality and LIKE operations
+ * match null properties, as {@code IS NULL} / {@code IS NOT NULL}. LIKE is case-sensitive with {@code %} and
+ * {@code _} wildcards.
+ * @param <T> filtered type
+ */
+public class DSPredicateBuilder<T> implements ConditionalBuilder<Predicate<T>> {
+
+    private final Class<T> type;
+
+    private final DSBuilderOptions options;
+
+    public DSPredicateBuilder(Class<T> type) {
+        this(type, DSBuilderOptions.defaults());
+    }
+
+    /**
+     * @param type filtered type
+     * @param options builder options, only criteria normalization, ordering and metrics apply to predicates
+     */
+    public DSPredicateBuilder(Class<T> type, DSBuilderOptions options) {
+        this.type = type;
+        this.options = options;
+    }
+
+    @Override
+    public Predicate<T> build(List<DSCriteria> dsCriteriaList) {
+        if (CollectionUtils.isEmpty(dsCriteriaList)) {
+            return target -> true;
+        }
+        DSSearchMetrics metrics = DSMetrics.resolve(options.getMetrics());
+        if (metrics == DSSearchMetrics.NOOP) {
+            return compile(dsCriteriaList);
+        }
+        return DSMetrics.timed(metrics, DSSearchMetrics.Stage.BUILD, type, DSMetrics.shape(metrics, dsCriteriaList),
+                () -> compile(dsCriteriaList));
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    private Predicate<T> compile(List<DSCriteria> dsCriteriaList) {
+        if (options.isNormalizeCriteria()) {
+            DSNormalizedCriteria normalized = DSCriteriaNormalizer.normalize(dsCriteriaList, type);
+            if (normalized.empty()) {
+                return target -> false;
+            }
+            dsCriteriaList = normalized.criteria();
+            if (dsCriteriaList.isEmpty()) {
+                return target -> true;
+            }
+        }
+        if (options.getSelectivityEstimator() != null) {
+            dsCriteriaList = DSCriteriaOrdering.reorder(dsCriteriaList, options.getSelectivityEstimator());
+        }
+        Predicate<T> result = null;
+        for (DSCriteriaRun run : DSCriteriaRun.of(dsCriteriaList)) {
+            List<Predicate<T>> operands = new ArrayList<>(run.size() + 1);
+            if (result != null) {
+                operands.add(result);
+            }
+            for (int idx = run.from(); idx < run.to(); idx++) {
+                operands.add(toPredicate(dsCriteriaList.get(idx)));
+            }
+            result = run.or() ? anyOf(operands) : allOf(operands);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T> allOf(List<Predicate<T>> operands) {
+        if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        Predicate<T>[] array = operands.toArray(Predicate[]::new);
+        return target -> {
+            for (Predicate<T> operand : array) {
+                if (!operand.test(target)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate<T> anyOf(List<Predicate<T>> operands) {
+        if (operands.size() == 1) {
+            return operands.get(0);
+        }
+        Predicate<T>[] array = operands.toArray(Predicate[]::new);
+        return target -> {
+            for (Predicate<T> operand : array) {
+                if (operand.test(target)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * @param dsCriteria criteria to compile
+     * @return predicate of a single condition on the filtered objects
+     */
+    protected Predicate<T> toPredicate(DSCriteria dsCriteria) {
+        DSAccessor accessor = DSAccessor.of(type, dsCriteria.key());
+        Predicate<Object> test = toTest(dsCriteria, accessor.getType());
+        if (accessor.isSingleValued()) {
+            return target -> test.test(accessor.get(target));
+        }
+        return target -> accessor.anyMatch(target, test);
+    }
+
+    /**
+     * @param dsCriteria criteria to compile
+     * @param propertyType Java type of the searched property
+     * @return test of a property value
+     */
+    protected Predicate<Object> toTest(DSCriteria dsCriteria, Class<?> propertyType) {
+        Object value = dsCriteria.value();
+        return switch (dsCriteria.operation()) {
+            case CONTAINS -> value == null ? Objects::isNull : like("%", value, "%");
+            case DOES_NOT_CONTAIN -> value == null ? Objects::nonNull : notLike("%", value, "%");
+            case BEGINS_WITH -> value == null ? Objects::isNull : like("", value, "%");
+            case DOES_NOT_BEGIN_WITH -> value == null ? Objects::nonNull : notLike("", value, "%");
+            case ENDS_WITH -> value == null ? Objects::isNull : like("%", value, "");
+            case DOES_NOT_END_WITH -> value == null ? Objects::nonNull : notLike("%", value, "");
+            case EQUAL -> value == null ? Objects::isNull : equalTo(typedVal(dsCriteria, propertyType));
+            case NOT_EQUAL -> value == null ? Objects::nonNull : equalTo(typedVal(dsCriteria, propertyType)).negate()
+                    .and(Objects::nonNull);
+            case NUL -> Objects::isNull;
+            case NOT_NULL -> Objects::nonNull;
+            case GREATER_THAN -> {
+                Comparable<Object> bound = comparableVal(dsCriteria, propertyType);
+                yield property -> property != null && bound.compareTo(property) < 0;
+            }
+            case GREATER_THAN_EQUAL -> {
+                Comparable<Object> bound = comparableVal(dsCriteria, propertyType);
+                yield property -> property != null && bound.compareTo(property) <= 0;
+            }
+            case LESS_THAN -> {
+                Comparable<Object> bound = comparableVal(dsCriteria, propertyType);
+                yield property -> property != null && bound.compareTo(property) > 0;
+            }
+            case LESS_THAN_EQUAL -> {
+                Comparable<Object> bound = comparableVal(dsCriteria, propertyType);
+                yield property -> property != null && bound.compareTo(property) >= 0;
+            }
+            case IN -> {
+                Set<Object> values = typedSetVal(dsCriteria, propertyType);
+                yield property -> property != null && values.contains(property);
+            }
+            case NOT_IN -> {
+                Set<Object> values = typedSetVal(dsCriteria, propertyType);
+                // NOT IN of a list holding null is never true in SQL, immutable lists reject contains(null)
+                boolean nullable = arrVal(dsCriteria).stream().anyMatch(Objects::isNull);
+                yield property -> !nullable && property != null && !values.contains(property);
+            }
+        };
+    }
+
+    private static Predicate<Object> equalTo(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            // compares numerically, regardless of the scale
+            return property -> property instanceof BigDecimal other && decimal.compareTo(other) == 0;
+        }
+        return value::equals;
+    }
+
+    private static Predicate<Object> like(String prefix, Object value, String suffix) {
+        Predicate<String> matcher = matcher(prefix, value.toString(), suffix);
+        return property -> property != null && matcher.test(property.toString());
+    }
+
+    private static Predicate<Object> notLike(String prefix, Object value, String suffix) {
+        Predicate<String> matcher = matcher(prefix, value.toString(), suffix);
+        return property -> property != null && !matcher.test(property.toString());
+    }
+
+    /**
+     * @return matcher of the LIKE pattern, by plain string search unless the value holds wildcards
+     */
+    private static Predicate<String> matcher(String prefix, String value, String suffix) {
+        if (value.indexOf('%') >= 0 || value.indexOf('_') >= 0) {
+            Pattern pattern = Pattern.compile(regex(prefix + value + suffix), Pattern.DOTALL);
+            return str -> pattern.matcher(str).matches();
+        }
+        if (!prefix.isEmpty() && !suffix.isEmpty()) {
+            return str -> str.contains(value);
+        }
+        if (!prefix.isEmpty()) {
+            return str -> str.endsWith(value);
+        }
+        if (!suffix.isEmpty()) {
+            return str -> str.startsWith(value);
+        }
+        return value::equals;
+    }
+
+    private static String regex(String like) {
+        StringBuilder regex = new StringBuilder(like.length() + 8);
+        StringBuilder literal = new StringBuilder();
+        for (int idx = 0; idx < like.length(); idx++) {
+            char current = like.charAt(idx);
+            if (current == '%' || current == '_') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(current == '%' ? ".*" : ".");
+            } else {
+                literal.append(current);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    private static Object typedVal(DSCriteria dsCriteria, Class<?> propertyType) {
+        return DSValueConverters.forType(propertyType).apply(dsCriteria.value());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparableVal(DSCriteria dsCriteria, Class<?> propertyType) {
+        if (dsCriteria.value() == null) {
+            throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", dsCriteria.operation()));
+        }
+        Object value = typedVal(dsCriteria, propertyType);
+        if (!(value instanceof Comparable<?>)) {
+            throw new InvalidCriteriaException(String.format("Value of operation '%s' isn't comparable", dsCriteria.operation()));
+        }
+        return (Comparable<Object>) value;
+    }
+
+    private static Set<Object> typedSetVal(DSCriteria dsCriteria, Class<?> propertyType) {
+        Function<Object, Object> converter = DSValueConverters.forType(propertyType);
+        List<?> values = arrVal(dsCriteria);
+        // BigDecimal values are compared numerically, regardless of the scale
+        Set<Object> result = propertyType == BigDecimal.class ? new TreeSet<>() : new HashSet<>(values.size() * 2);
+        for (Object value : values) {
+            if (value != null) {
+                result.add(converter.apply(value));
+            }
+        }
+        return result;
+    }
+
+    private static List<?> arrVal(DSCriteria dsCriteria) {
+        if (dsCriteria.value() instanceof List<?> val) {
+            return val;
+        }
+        return Collections.singletonList(dsCriteria.value());
+    }
+}
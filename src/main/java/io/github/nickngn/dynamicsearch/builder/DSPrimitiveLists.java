@@ -0,0 +1,205 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Read-only lists backed by primitive arrays, holding large IN/NOT_IN values without a boxed object per element. <br>
+ * Builders see them as any other {@link List}, elements are boxed on access. Equality and hash code follow
+ * {@link List}, so they equal lists of the same boxed values, eg: as keys of cached counts.
+ */
+@UtilityClass
+public final class DSPrimitiveLists {
+
+    /**
+     * @param values values of the list, not copied
+     * @return list backed by the values
+     */
+    public static Longs of(long[] values) {
+        return new Longs(values);
+    }
+
+    /**
+     * @param values values of the list, not copied
+     * @return list backed by the values
+     */
+    public static Ints of(int[] values) {
+        return new Ints(values);
+    }
+
+    /**
+     * @param values values of the list, not copied
+     * @return list backed by the values
+     */
+    public static Doubles of(double[] values) {
+        return new Doubles(values);
+    }
+
+    public static final class Longs extends AbstractList<Long> implements RandomAccess {
+
+        private final long[] values;
+
+        private Longs(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Long get(int index) {
+            return values[index];
+        }
+
+        public long getLong(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (o instanceof Long value) {
+                for (long element : values) {
+                    if (element == value) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return copy of the values
+         */
+        public long[] toLongArray() {
+            return values.clone();
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (long value : values) {
+                hash = 31 * hash + Long.hashCode(value);
+            }
+            return hash;
+        }
+    }
+
+    public static final class Ints extends AbstractList<Integer> implements RandomAccess {
+
+        private final int[] values;
+
+        private Ints(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return values[index];
+        }
+
+        public int getInt(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (o instanceof Integer value) {
+                for (int element : values) {
+                    if (element == value) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @return copy of the values
+         */
+        public int[] toIntArray() {
+            return values.clone();
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (int value : values) {
+                hash = 31 * hash + Integer.hashCode(value);
+            }
+            return hash;
+        }
+    }
+
+    public static final class Doubles extends AbstractList<Double> implements RandomAccess {
+
+        private final double[] values;
+
+        private Doubles(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Double get(int index) {
+            return values[index];
+        }
+
+        public double getDouble(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        /**
+         * @return copy of the values
+         */
+        public double[] toDoubleArray() {
+            return values.clone();
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            for (double value : values) {
+                hash = 31 * hash + Double.hashCode(value);
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Built-in {@link DSSelectivityEstimator}s. <br>
+ * Estimates follow the operation: equality and IN are selective, ranges and prefixes less,
+ * negations match most rows. {@code CONTAINS} and {@code ENDS_WITH} are weighted as expensive,
+ * since their leading wildcard can't use an index. Equality and IN use the cardinality of the key when known.
+ */
+@UtilityClass
+public final class DSSelectivityEstimators {
+
+    private static final double DEFAULT_EQUAL = 0.05;
+
+    private static final double RANGE = 0.3;
+
+    private static final double PREFIX = 0.1;
+
+    private static final double NULL = 0.1;
+
+    private static final double WILDCARD = 0.25;
+
+    private static final double WILDCARD_COST = 4;
+
+    private static final DSSelectivityEstimator HEURISTIC = of(Map.of());
+
+    /**
+     * @return estimator by the operations only
+     */
+    public static DSSelectivityEstimator heuristic() {
+        return HEURISTIC;
+    }
+
+    /**
+     * @param cardinalities number of distinct values per key, eg: collected from database statistics
+     * @return estimator by the operations and the cardinalities of the keys
+     */
+    public static DSSelectivityEstimator of(Map<String, Long> cardinalities) {
+        Map<String, Long> copy = Map.copyOf(cardinalities);
+        return dsCriteria -> estimate(dsCriteria, copy.get(dsCriteria.key()));
+    }
+
+    /**
+     * @param referenceClass reference class or entity with fields annotated by {@link DSCardinality}
+     * @return estimator by the operations and the declared cardinalities
+     */
+    public static DSSelectivityEstimator forClass(Class<?> referenceClass) {
+        Map<String, Long> cardinalities = new HashMap<>();
+        for (Class<?> klass = referenceClass; klass != null && klass != Object.class; klass = klass.getSuperclass()) {
+            for (Field field : klass.getDeclaredFields()) {
+                DSCardinality cardinality = field.getAnnotation(DSCardinality.class);
+                if (cardinality != null && cardinality.value() > 0) {
+                    cardinalities.putIfAbsent(field.getName(), cardinality.value());
+                }
+            }
+        }
+        return of(cardinalities);
+    }
+
+    private static double estimate(DSCriteria dsCriteria, Long cardinality) {
+        double equal = cardinality != null ? 1.0 / cardinality : DEFAULT_EQUAL;
+        return switch (dsCriteria.operation()) {
+            case EQUAL -> dsCriteria.value() == null ? NULL : equal;
+            case IN -> Math.min(1, equal * size(dsCriteria.value()));
+            case NOT_EQUAL -> 1 - equal;
+            case NOT_IN -> 1 - Math.min(1, equal * size(dsCriteria.value()));
+            case NUL -> NULL;
+            case NOT_NULL -> 1 - NULL;
+            case GREATER_THAN, GREATER_THAN_EQUAL, LESS_THAN, LESS_THAN_EQUAL -> RANGE;
+            case BEGINS_WITH -> PREFIX;
+            case DOES_NOT_BEGIN_WITH -> 1 - PREFIX;
+            case CONTAINS, ENDS_WITH -> WILDCARD * WILDCARD_COST;
+            case DOES_NOT_CONTAIN, DOES_NOT_END_WITH -> (1 - WILDCARD) * WILDCARD_COST;
+        };
+    }
+
+    private static int size(Object value) {
+        return value instanceof List<?> values ? values.size() : 1;
+    }
+}
@@ -25,35 +25,138 @@
 package io.github.nickngn.dynamicsearch.builder;
 
 import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.cache.DSCache;
+import io.github.nickngn.dynamicsearch.metrics.DSMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.CollectionUtils;
 
 import java.util.List;
 
 /**
- * Builder to convert {@link List} of {@link DSCriteria} into JPA {@link Specification}
+ * Builder to convert {@link List} of {@link DSCriteria} into JPA {@link Specification}. <br>
+ * Criteria are compiled into a {@link DSSpecPlan} per {@link DSCriteriaShape}. When a plan cache is enabled,
+ * plans are reused across criteria lists of the same shape and only values are bound per request. <br>
+ * Builds are measured as {@link DSSearchMetrics.Stage#BUILD} by the metrics of the options.
  * @param <T> searching entity
  */
 public class DSSpecBuilder<T> implements ConditionalBuilder<Specification<T>> {
 
+    private final Class<T> domainClass;
+
+    private final DSBuilderOptions options;
+
+    private final DSCache<DSCriteriaShape, DSSpecPlan<T>> planCache;
+
+    public DSSpecBuilder() {
+        this(DSBuilderOptions.defaults());
+    }
+
+    /**
+     * @param planCacheSize maximum number of cached plans, 0 to disable the plan cache
+     */
+    public DSSpecBuilder(int planCacheSize) {
+        this(DSBuilderOptions.builder().planCacheSize(planCacheSize).build());
+    }
+
+    public DSSpecBuilder(DSBuilderOptions options) {
+        this(null, options);
+    }
+
+    /**
+     * @param domainClass searching entity, resolving the attribute types compared by {@link DSCriteriaNormalizer},
+     *                    null if unknown
+     * @param options builder options
+     */
+    public DSSpecBuilder(Class<T> domainClass, DSBuilderOptions options) {
+        this.domainClass = domainClass;
+        this.options = options;
+        this.planCache = options.getPlanCacheSize() > 0 ? new DSCache<>(options.getPlanCacheSize()) : null;
+    }
+
     @Override
     public Specification<T> build(List<DSCriteria> dsCriteriaList) {
+        if (options.isNormalizeCriteria() && !CollectionUtils.isEmpty(dsCriteriaList)) {
+            return build(DSCriteriaNormalizer.normalize(dsCriteriaList, domainClass));
+        }
+        return compile(dsCriteriaList);
+    }
+
+    /**
+     * @param normalized criteria already normalized by {@link #normalize(List)}
+     * @return specification of the criteria, matching nothing if the criteria provably match nothing
+     */
+    public Specification<T> build(DSNormalizedCriteria normalized) {
+        if (normalized.empty()) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        return compile(normalized.criteria());
+    }
+
+    private Specification<T> compile(List<DSCriteria> dsCriteriaList) {
         if (CollectionUtils.isEmpty(dsCriteriaList)) {
             return Specification.anyOf();
         }
+        DSSearchMetrics metrics = DSMetrics.resolve(options.getMetrics());
+        if (metrics == DSSearchMetrics.NOOP) {
+            return plan(dsCriteriaList);
+        }
+        return DSMetrics.timed(metrics, DSSearchMetrics.Stage.BUILD, domainClass, DSMetrics.shape(metrics, dsCriteriaList),
+                () -> plan(dsCriteriaList));
+    }
+
+    private Specification<T> plan(List<DSCriteria> dsCriteriaList) {
+        if (options.getSelectivityEstimator() != null) {
+            dsCriteriaList = DSCriteriaOrdering.reorder(dsCriteriaList, options.getSelectivityEstimator());
+        }
+        DSCriteriaShape shape = DSCriteriaShape.of(dsCriteriaList, options.getInStrategy());
+        DSSpecPlan<T> plan = planCache != null
+                ? planCache.get(shape, key -> DSSpecPlan.compile(key, options))
+                : DSSpecPlan.compile(shape, options);
+        return plan.bind(dsCriteriaList);
+    }
+
+    /**
+     * Builds the specification of the criteria followed by the seek predicate of keyset pagination
+     * @param dsCriteriaList criteria to build
+     * @param sort requested sort, completed by the entity id as tie-breaker
+     * @param cursor cursor of the last row of the previous page, null or empty for the first page
+     * @return specification of the criteria seeking rows after the cursor
+     * @see DSKeyset
+     */
+    public Specification<T> build(List<DSCriteria> dsCriteriaList, Sort sort, String cursor) {
+        return build(dsCriteriaList).and(DSKeyset.seek(sort, cursor));
+    }
 
-        Specification<T> result = Specification.where(newSpec(dsCriteriaList.get(0)));
-        for (int idx = 1; idx < dsCriteriaList.size(); idx++) {
-            DSCriteria dsCriteria = dsCriteriaList.get(idx);
-            result = dsCriteria.isOr()
-                    ? Specification.where(result).or(newSpec(dsCriteria))
-                    : Specification.where(result).and(
-                    newSpec(dsCriteria));
+    /**
+     * @param dsCriteriaList criteria to normalize
+     * @return criteria normalized by {@link DSCriteriaNormalizer}, unchanged if normalization is disabled
+     */
+    public DSNormalizedCriteria normalize(List<DSCriteria> dsCriteriaList) {
+        return normalize(dsCriteriaList, domainClass);
+    }
+
+    /**
+     * @param dsCriteriaList criteria to normalize
+     * @param type searched entity resolving the attribute types, see {@link DSCriteriaNormalizer#normalize(List, Class)}
+     * @return criteria normalized by {@link DSCriteriaNormalizer}, unchanged if normalization is disabled
+     */
+    public DSNormalizedCriteria normalize(List<DSCriteria> dsCriteriaList, Class<?> type) {
+        if (!options.isNormalizeCriteria()) {
+            return DSNormalizedCriteria.of(dsCriteriaList != null ? dsCriteriaList : List.of());
         }
-        return result;
+        return DSCriteriaNormalizer.normalize(dsCriteriaList, type);
+    }
+
+    public DSBuilderOptions getOptions() {
+        return options;
     }
 
-    private DSSpecification<T> newSpec(DSCriteria dsCriteria) {
-        return new DSSpecification<>(dsCriteria);
+    /**
+     * @return cache of compiled plans, null if the plan cache is disabled
+     */
+    public DSCache<DSCriteriaShape, DSSpecPlan<T>> getPlanCache() {
+        return planCache;
     }
 }
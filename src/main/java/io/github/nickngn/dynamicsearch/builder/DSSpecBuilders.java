@@ -41,7 +41,7 @@ public final class DSSpecBuilders {
         if (BUILDER_MAP.containsKey(klass)) {
             return (DSSpecBuilder<T>) BUILDER_MAP.get(klass);
         }
-        DSSpecBuilder<T> specBuilder = new DSSpecBuilder<>();
+        DSSpecBuilder<T> specBuilder = new DSSpecBuilder<>(klass, DSBuilderOptions.defaults());
         BUILDER_MAP.put(klass, specBuilder);
         return specBuilder;
     }
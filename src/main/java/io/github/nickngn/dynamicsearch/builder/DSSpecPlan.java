@@ -0,0 +1,245 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Compiled plan of a {@link DSCriteriaShape} for JPA {@link Specification}. <br>
+ * The plan is immutable and reusable, binding criteria values produces a single
+ * {@link Specification} instead of a chain of composed specifications.
+ * Consecutive criteria with the same connector are combined into one n-ary
+ * {@code and}/{@code or} predicate per {@link DSCriteriaRun}, keeping the predicate tree shallow. <br>
+ * A predicate factory is compiled once per shape element, binding only converts the values
+ * and creates the predicates, with the same semantics as {@link DSSpecification}.
+ * @param <T> searching entity
+ */
+public final class DSSpecPlan<T> {
+
+    private final DSCriteriaShape shape;
+
+    private final DSCriteriaRun[] runs;
+
+    private final PredicateFactory<T>[] factories;
+
+    @SuppressWarnings("unchecked")
+    private DSSpecPlan(DSCriteriaShape shape, DSBuilderOptions options) {
+        this.shape = shape;
+        this.runs = DSCriteriaRun.of(shape).toArray(DSCriteriaRun[]::new);
+        this.factories = shape.getElements().stream()
+                .map(element -> factory(element, options))
+                .toArray(PredicateFactory[]::new);
+    }
+
+    public static <T> DSSpecPlan<T> compile(DSCriteriaShape shape) {
+        return compile(shape, DSBuilderOptions.defaults());
+    }
+
+    public static <T> DSSpecPlan<T> compile(DSCriteriaShape shape, DSInStrategy inStrategy) {
+        return compile(shape, DSBuilderOptions.builder().inStrategy(inStrategy).build());
+    }
+
+    public static <T> DSSpecPlan<T> compile(DSCriteriaShape shape, DSBuilderOptions options) {
+        return new DSSpecPlan<>(shape, options);
+    }
+
+    /**
+     * Binds values of the criteria into the plan
+     * @param dsCriteriaList criteria of the same shape as the plan
+     * @return specification of the criteria
+     */
+    public Specification<T> bind(List<DSCriteria> dsCriteriaList) {
+        if (runs.length == 0) {
+            return Specification.anyOf();
+        }
+        return (root, query, cb) -> {
+            Predicate result = null;
+            for (DSCriteriaRun run : runs) {
+                int offset = result == null ? 0 : 1;
+                Predicate[] predicates = new Predicate[run.size() + offset];
+                if (result != null) {
+                    predicates[0] = result;
+                }
+                for (int idx = run.from(); idx < run.to(); idx++) {
+                    predicates[idx - run.from() + offset] =
+                            factories[idx].create(root, query, cb, dsCriteriaList.get(idx).value());
+                }
+                if (predicates.length == 1) {
+                    result = predicates[0];
+                } else {
+                    result = run.or() ? cb.or(predicates) : cb.and(predicates);
+                }
+            }
+            return result;
+        };
+    }
+
+    public DSCriteriaShape getShape() {
+        return shape;
+    }
+
+    /**
+     * Creates the predicate of a shape element from the value of the bound criteria
+     * @param <T> searching entity
+     */
+    @FunctionalInterface
+    private interface PredicateFactory<T> {
+        Predicate create(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb, Object value);
+    }
+
+    private static <T> PredicateFactory<T> factory(DSCriteriaShape.Element element, DSBuilderOptions options) {
+        String key = element.key();
+        boolean fetch = options.isFetchJoins();
+        boolean nullValue = element.arity() < 0;
+        DSInStrategy inStrategy = options.getInStrategy();
+        Conversion conversion = new Conversion(key);
+        return switch (element.operation()) {
+            case CONTAINS -> nullValue
+                    ? (root, query, cb, value) -> cb.equal(DSPaths.resolve(root, query, key, fetch), null)
+                    : (root, query, cb, value) -> cb.like(DSPaths.resolve(root, query, key, fetch), "%" + value + "%");
+            case DOES_NOT_CONTAIN -> nullValue
+                    ? (root, query, cb, value) -> cb.notEqual(DSPaths.resolve(root, query, key, fetch), null)
+                    : (root, query, cb, value) -> cb.notLike(DSPaths.resolve(root, query, key, fetch), "%" + value + "%");
+            case BEGINS_WITH -> nullValue
+                    ? (root, query, cb, value) -> cb.equal(DSPaths.resolve(root, query, key, fetch), null)
+                    : (root, query, cb, value) -> cb.like(DSPaths.resolve(root, query, key, fetch), value + "%");
+            case DOES_NOT_BEGIN_WITH -> nullValue
+                    ? (root, query, cb, value) -> cb.notEqual(DSPaths.resolve(root, query, key, fetch), null)
+                    : (root, query, cb, value) -> cb.notLike(DSPaths.resolve(root, query, key, fetch), value + "%");
+            case ENDS_WITH -> nullValue
+                    ? (root, query, cb, value) -> cb.equal(DSPaths.resolve(root, query, key, fetch), null)
+                    : (root, query, cb, value) -> cb.like(DSPaths.resolve(root, query, key, fetch), "%" + value);
+            case DOES_NOT_END_WITH -> nullValue
+                    ? (root, query, cb, value) -> cb.notEqual(DSPaths.resolve(root, query, key, fetch), null)
+                    : (root, query, cb, value) -> cb.notLike(DSPaths.resolve(root, query, key, fetch), "%" + value);
+            case EQUAL -> (root, query, cb, value) -> {
+                Path<Object> path = DSPaths.resolve(root, query, key, fetch);
+                return cb.equal(path, conversion.apply(root, path, value));
+            };
+            case NOT_EQUAL -> (root, query, cb, value) -> {
+                Path<Object> path = DSPaths.resolve(root, query, key, fetch);
+                return cb.notEqual(path, conversion.apply(root, path, value));
+            };
+            case NUL -> (root, query, cb, value) -> cb.isNull(DSPaths.resolve(root, query, key, fetch));
+            case NOT_NULL -> (root, query, cb, value) -> cb.isNotNull(DSPaths.resolve(root, query, key, fetch));
+            case GREATER_THAN -> nullValue ? nullComparison(element) : (root, query, cb, value) -> {
+                Path<Comparable<Object>> path = DSPaths.resolve(root, query, key, fetch);
+                return cb.greaterThan(path, conversion.comparable(root, path, value));
+            };
+            case GREATER_THAN_EQUAL -> nullValue ? nullComparison(element) : (root, query, cb, value) -> {
+                Path<Comparable<Object>> path = DSPaths.resolve(root, query, key, fetch);
+                return cb.greaterThanOrEqualTo(path, conversion.comparable(root, path, value));
+            };
+            case LESS_THAN -> nullValue ? nullComparison(element) : (root, query, cb, value) -> {
+                Path<Comparable<Object>> path = DSPaths.resolve(root, query, key, fetch);
+                return cb.lessThan(path, conversion.comparable(root, path, value));
+            };
+            case LESS_THAN_EQUAL -> nullValue ? nullComparison(element) : (root, query, cb, value) -> {
+                Path<Comparable<Object>> path = DSPaths.resolve(root, query, key, fetch);
+                return cb.lessThanOrEqualTo(path, conversion.comparable(root, path, value));
+            };
+            case IN -> (root, query, cb, value) -> {
+                Path<Object> path = DSPaths.resolve(root, query, key, fetch);
+                List<List<?>> chunks = inStrategy.partition(conversion.applyAll(root, path, value));
+                if (chunks.size() == 1) {
+                    return path.in(chunks.get(0));
+                }
+                return cb.or(chunks.stream().map(path::in).toArray(Predicate[]::new));
+            };
+            case NOT_IN -> (root, query, cb, value) -> {
+                Path<Object> path = DSPaths.resolve(root, query, key, fetch);
+                List<List<?>> chunks = inStrategy.partition(conversion.applyAll(root, path, value));
+                if (chunks.size() == 1) {
+                    return cb.not(path.in(chunks.get(0)));
+                }
+                return cb.and(chunks.stream().map(chunk -> cb.not(path.in(chunk))).toArray(Predicate[]::new));
+            };
+        };
+    }
+
+    private static <T> PredicateFactory<T> nullComparison(DSCriteriaShape.Element element) {
+        return (root, query, cb, value) -> {
+            throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", element.operation()));
+        };
+    }
+
+    /**
+     * Converter of a shape element to the Java type of the searched attribute,
+     * looked up by {@link DSValueConverters} once per searching entity
+     */
+    private static final class Conversion {
+
+        private record Resolved(Class<?> entity, Function<Object, Object> converter) {
+        }
+
+        private final String key;
+
+        private volatile Resolved resolved;
+
+        private Conversion(String key) {
+            this.key = key;
+        }
+
+        private Object apply(Root<?> root, Path<?> path, Object value) {
+            return converter(root, path).apply(value);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Comparable<Object> comparable(Root<?> root, Path<?> path, Object value) {
+            return (Comparable<Object>) apply(root, path, value);
+        }
+
+        private List<?> applyAll(Root<?> root, Path<?> path, Object value) {
+            Function<Object, Object> converter = converter(root, path);
+            List<?> values = value instanceof List<?> list ? list : List.of(value);
+            List<Object> result = new ArrayList<>(values.size());
+            for (Object val : values) {
+                result.add(converter.apply(val));
+            }
+            return result;
+        }
+
+        private Function<Object, Object> converter(Root<?> root, Path<?> path) {
+            Resolved current = resolved;
+            if (current == null || current.entity() != root.getJavaType()) {
+                current = new Resolved(root.getJavaType(),
+                        DSValueConverters.forAttribute(root.getJavaType(), key, path.getJavaType()));
+                resolved = current;
+            }
+            return current.converter();
+        }
+    }
+}
@@ -27,15 +27,21 @@ package io.github.nickngn.dynamicsearch.builder;
 import io.github.nickngn.dynamicsearch.DSCriteria;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
- * Convert {@link DSCriteria} content to JPA {@link Specification}
+ * Convert {@link DSCriteria} content to JPA {@link Specification}. <br>
+ * Values of equality, range and IN operations are converted to the Java type of the searched attribute
+ * by {@link DSValueConverters}, so they are compared without casting on the database side. <br>
+ * Dotted keys search attributes of associations, eg: {@code address.city}.
  * @param <T> searching entity
  */
 @Slf4j
@@ -44,8 +50,24 @@ public class DSSpecification<T> implements Specification<T> {
 
     private final DSCriteria DSCriteria;
 
+    private final DSInStrategy inStrategy;
+
+    private final boolean fetchJoins;
+
     public DSSpecification(DSCriteria DSCriteria) {
+        this(DSCriteria, DSInStrategy.none());
+    }
+
+    public DSSpecification(DSCriteria DSCriteria, DSInStrategy inStrategy) {
+        this.DSCriteria = DSCriteria;
+        this.inStrategy = inStrategy;
+        this.fetchJoins = false;
+    }
+
+    public DSSpecification(DSCriteria DSCriteria, DSBuilderOptions options) {
         this.DSCriteria = DSCriteria;
+        this.inStrategy = options.getInStrategy();
+        this.fetchJoins = options.isFetchJoins();
     }
 
     @Override
@@ -73,105 +95,160 @@ public class DSSpecification<T> implements Specification<T> {
     protected Predicate onContains(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
         String strVal = strVal();
         if (strVal == null) {
-            return cb.equal(root.get(DSCriteria.key()), null);
+            return cb.equal(path(root, query), null);
         }
-        return cb.like(root.get(DSCriteria.key()), "%" + strVal + "%");
+        return cb.like(path(root, query), "%" + strVal + "%");
     }
 
     protected Predicate onDoesNotContains(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
         String strVal = strVal();
         if (strVal == null) {
-            return cb.notEqual(root.get(DSCriteria.key()), null);
+            return cb.notEqual(path(root, query), null);
         }
-        return cb.notLike(root.get(DSCriteria.key()), "%" + strVal + "%");
+        return cb.notLike(path(root, query), "%" + strVal + "%");
     }
 
     protected Predicate onEqual(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        return cb.equal(root.get(DSCriteria.key()), strVal());
+        Path<Object> path = path(root, query);
+        return cb.equal(path, typedVal(root, path));
     }
 
     protected Predicate onNotEqual(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        return cb.notEqual(root.get(DSCriteria.key()), strVal());
+        Path<Object> path = path(root, query);
+        return cb.notEqual(path, typedVal(root, path));
     }
 
     protected Predicate onBeginWith(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
         String strVal = strVal();
         if (strVal == null) {
-            return cb.equal(root.get(DSCriteria.key()), null);
+            return cb.equal(path(root, query), null);
         }
-        return cb.like(root.get(DSCriteria.key()), strVal + "%");
+        return cb.like(path(root, query), strVal + "%");
     }
 
     protected Predicate onNotBeginWith(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
         String strVal = strVal();
         if (strVal == null) {
-            return cb.notEqual(root.get(DSCriteria.key()), null);
+            return cb.notEqual(path(root, query), null);
         }
-        return cb.notLike(root.get(DSCriteria.key()), strVal + "%");
+        return cb.notLike(path(root, query), strVal + "%");
     }
 
     protected Predicate onEndWith(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
         String strVal = strVal();
         if (strVal == null) {
-            return cb.equal(root.get(DSCriteria.key()), null);
+            return cb.equal(path(root, query), null);
         }
-        return cb.like(root.get(DSCriteria.key()), "%" + strVal);
+        return cb.like(path(root, query), "%" + strVal);
     }
 
     protected Predicate onNotEndWith(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
         String strVal = strVal();
         if (strVal == null) {
-            return cb.notEqual(root.get(DSCriteria.key()), null);
+            return cb.notEqual(path(root, query), null);
         }
-        return cb.notLike(root.get(DSCriteria.key()), "%" + strVal);
+        return cb.notLike(path(root, query), "%" + strVal);
     }
 
     protected Predicate onNull(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        return cb.isNull(root.get(DSCriteria.key()));
+        return cb.isNull(path(root, query));
     }
 
     protected Predicate onNotNull(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        return cb.isNotNull(root.get(DSCriteria.key()));
+        return cb.isNotNull(path(root, query));
     }
 
     protected Predicate onGreaterThan(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        String strVal = strVal();
-        if (strVal == null) {
+        if (DSCriteria.value() == null) {
             throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", DSCriteria.operation()));
         }
-        return cb.greaterThan(root.get(DSCriteria.key()), strVal);
+        Path<Comparable<Object>> path = path(root, query);
+        return cb.greaterThan(path, comparableVal(root, path));
     }
 
     protected Predicate onGreaterThanEqual(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        String strVal = strVal();
-        if (strVal == null) {
+        if (DSCriteria.value() == null) {
             throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", DSCriteria.operation()));
         }
-        return cb.greaterThanOrEqualTo(root.get(DSCriteria.key()), strVal);
+        Path<Comparable<Object>> path = path(root, query);
+        return cb.greaterThanOrEqualTo(path, comparableVal(root, path));
     }
 
     protected Predicate onLessThan(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        String strVal = strVal();
-        if (strVal == null) {
+        if (DSCriteria.value() == null) {
             throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", DSCriteria.operation()));
         }
-        return cb.lessThan(root.get(DSCriteria.key()), strVal);
+        Path<Comparable<Object>> path = path(root, query);
+        return cb.lessThan(path, comparableVal(root, path));
     }
 
     protected Predicate onLessThanEqual(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        String strVal = strVal();
-        if (strVal == null) {
+        if (DSCriteria.value() == null) {
             throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", DSCriteria.operation()));
         }
-        return cb.lessThanOrEqualTo(root.get(DSCriteria.key()), strVal);
+        Path<Comparable<Object>> path = path(root, query);
+        return cb.lessThanOrEqualTo(path, comparableVal(root, path));
     }
 
     protected Predicate onIn(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        return root.get(DSCriteria.key()).in(arrVal());
+        Path<Object> path = path(root, query);
+        List<List<?>> chunks = inStrategy.partition(typedArrVal(root, path));
+        if (chunks.size() == 1) {
+            return path.in(chunks.get(0));
+        }
+        return cb.or(chunks.stream().map(path::in).toArray(Predicate[]::new));
     }
 
     protected Predicate onNotIn(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
-        return cb.not(root.get(DSCriteria.key()).in(arrVal()));
+        Path<Object> path = path(root, query);
+        List<List<?>> chunks = inStrategy.partition(typedArrVal(root, path));
+        if (chunks.size() == 1) {
+            return cb.not(path.in(chunks.get(0)));
+        }
+        return cb.and(chunks.stream().map(chunk -> cb.not(path.in(chunk))).toArray(Predicate[]::new));
+    }
+
+    /**
+     * @param root root of the searching entity
+     * @param query query of the searching entity
+     * @return path of the searched field, dotted keys are resolved by {@link DSPaths}
+     * @param <Y> type of the searched field
+     */
+    protected <Y> Path<Y> path(Root<T> root, CriteriaQuery<?> query) {
+        return DSPaths.resolve(root, query, DSCriteria.key(), fetchJoins);
+    }
+
+    /**
+     * @param root root of the searching entity
+     * @param path path of the searched field
+     * @return value converted to the Java type of the searched field
+     */
+    protected Object typedVal(Root<T> root, Path<?> path) {
+        return converter(root, path).apply(DSCriteria.value());
+    }
+
+    /**
+     * @param root root of the searching entity
+     * @param path path of the searched field
+     * @return list of values converted to the Java type of the searched field
+     */
+    protected List<?> typedArrVal(Root<T> root, Path<?> path) {
+        Function<Object, Object> converter = converter(root, path);
+        List<?> values = arrVal();
+        List<Object> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add(converter.apply(value));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparable<Object> comparableVal(Root<T> root, Path<?> path) {
+        return (Comparable<Object>) typedVal(root, path);
+    }
+
+    private Function<Object, Object> converter(Root<T> root, Path<?> path) {
+        return DSValueConverters.forAttribute(root.getJavaType(), DSCriteria.key(), path.getJavaType());
     }
 
     protected String strVal() {
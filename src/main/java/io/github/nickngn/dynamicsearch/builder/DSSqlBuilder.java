@@ -25,27 +25,68 @@
 package io.github.nickngn.dynamicsearch.builder;
 
 import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.metrics.DSMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics;
 import org.springframework.util.CollectionUtils;
 
 import java.util.List;
 
 /**
  * Builder to convert {@link List} of {@link DSCriteria} into SQL WHERE clause
- * with generated corresponding conditions
+ * with generated corresponding conditions. <br>
+ * Values are inlined into the clause, use {@link DSParameterizedSqlBuilder} to bind them as parameters instead.
  */
 public final class DSSqlBuilder implements ConditionalBuilder<String> {
 
+    private final boolean normalizeCriteria;
+
+    private final DSSelectivityEstimator selectivityEstimator;
+
+    private final DSSearchMetrics metrics;
+
+    public DSSqlBuilder() {
+        this(DSBuilderOptions.defaults());
+    }
+
+    /**
+     * @param options builder options, only criteria normalization, ordering and metrics apply to inlined SQL
+     */
+    public DSSqlBuilder(DSBuilderOptions options) {
+        this.normalizeCriteria = options.isNormalizeCriteria();
+        this.selectivityEstimator = options.getSelectivityEstimator();
+        this.metrics = options.getMetrics();
+    }
+
     @Override
     public String build(List<DSCriteria> dsCriteriaList) {
+        DSSearchMetrics metrics = DSMetrics.resolve(this.metrics);
+        if (metrics == DSSearchMetrics.NOOP || CollectionUtils.isEmpty(dsCriteriaList)) {
+            return render(dsCriteriaList);
+        }
+        return DSMetrics.timed(metrics, DSSearchMetrics.Stage.BUILD, null, DSMetrics.shape(metrics, dsCriteriaList),
+                () -> render(dsCriteriaList));
+    }
+
+    private String render(List<DSCriteria> dsCriteriaList) {
         if(CollectionUtils.isEmpty(dsCriteriaList)){
             return "WHERE 1=1";
         }
+        if (normalizeCriteria) {
+            DSNormalizedCriteria normalized = DSCriteriaNormalizer.normalizeSql(dsCriteriaList);
+            if (normalized.empty()) {
+                return "WHERE 1=0";
+            }
+            dsCriteriaList = normalized.criteria();
+        }
+        if (selectivityEstimator != null) {
+            dsCriteriaList = DSCriteriaOrdering.reorderSql(dsCriteriaList, selectivityEstimator);
+        }
 
-        StringBuilder result = new StringBuilder("WHERE 1=1 ");
+        StringBuilder result = new StringBuilder("WHERE 1=1");
         DSPlainSqlSpec expression;
         for (DSCriteria DSCriteria : dsCriteriaList) {
             expression = new DSPlainSqlSpec(DSCriteria);
-            result.append(expression.toCondition());
+            result.append(' ').append(expression.toCondition());
         }
         return result.toString();
     }
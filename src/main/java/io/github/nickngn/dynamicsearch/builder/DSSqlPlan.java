@@ -0,0 +1,134 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled plan of a {@link DSCriteriaShape} for parameterized SQL WHERE clause. <br>
+ * The SQL and a value binder per criteria are compiled once per shape,
+ * binding criteria values only appends them to the parameters without rendering any condition.
+ */
+public final class DSSqlPlan {
+
+    private final DSCriteriaShape shape;
+
+    private final String sql;
+
+    private final DSPlaceholderStyle style;
+
+    private final ValueBinder[] binders;
+
+    private final int parameterCount;
+
+    private DSSqlPlan(DSCriteriaShape shape, String sql, DSPlaceholderStyle style, ValueBinder[] binders,
+                      int parameterCount) {
+        this.shape = shape;
+        this.sql = sql;
+        this.style = style;
+        this.binders = binders;
+        this.parameterCount = parameterCount;
+    }
+
+    /**
+     * @param dsCriteriaList sample criteria of the shape to render the SQL
+     * @param style placeholder style
+     * @param inStrategy strategy rendering IN/NOT_IN lists
+     * @return compiled plan of the criteria shape
+     */
+    public static DSSqlPlan compile(List<DSCriteria> dsCriteriaList, DSPlaceholderStyle style, DSInStrategy inStrategy) {
+        StringBuilder result = new StringBuilder("WHERE 1=1");
+        List<Object> parameters = new ArrayList<>();
+        ValueBinder[] binders = new ValueBinder[dsCriteriaList.size()];
+        for (int idx = 0; idx < binders.length; idx++) {
+            DSCriteria dsCriteria = dsCriteriaList.get(idx);
+            result.append(' ').append(new DSParameterizedSqlSpec(dsCriteria, parameters, style, inStrategy).toCondition());
+            binders[idx] = binder(dsCriteria, inStrategy);
+        }
+        return new DSSqlPlan(DSCriteriaShape.of(dsCriteriaList, inStrategy), result.toString(), style, binders,
+                parameters.size());
+    }
+
+    /**
+     * Binds values of the criteria into the plan
+     * @param dsCriteriaList criteria of the same shape as the plan
+     * @return statement with the plan's SQL and the criteria's parameters
+     */
+    public DSSqlStatement bind(List<DSCriteria> dsCriteriaList) {
+        List<Object> parameters = new ArrayList<>(parameterCount);
+        for (int idx = 0; idx < binders.length; idx++) {
+            binders[idx].bind(dsCriteriaList.get(idx).value(), parameters);
+        }
+        return new DSSqlStatement(sql, parameters, style);
+    }
+
+    public DSCriteriaShape getShape() {
+        return shape;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Appends the parameters of a criteria in the order {@link DSParameterizedSqlSpec} renders their placeholders
+     */
+    @FunctionalInterface
+    private interface ValueBinder {
+        void bind(Object value, List<Object> parameters);
+    }
+
+    private static ValueBinder binder(DSCriteria dsCriteria, DSInStrategy inStrategy) {
+        boolean nullValue = dsCriteria.value() == null;
+        return switch (dsCriteria.operation()) {
+            case CONTAINS, DOES_NOT_CONTAIN -> nullValue ? DSSqlPlan::none : (value, parameters) -> parameters.add("%" + value + "%");
+            case BEGINS_WITH, DOES_NOT_BEGIN_WITH -> nullValue ? DSSqlPlan::none : (value, parameters) -> parameters.add(value + "%");
+            case ENDS_WITH, DOES_NOT_END_WITH -> nullValue ? DSSqlPlan::none : (value, parameters) -> parameters.add("%" + value);
+            case EQUAL, NOT_EQUAL, GREATER_THAN, GREATER_THAN_EQUAL, LESS_THAN, LESS_THAN_EQUAL -> (value, parameters) -> parameters.add(value);
+            case NUL, NOT_NULL -> DSSqlPlan::none;
+            case IN, NOT_IN -> inStrategy.arrayParameter()
+                    ? (value, parameters) -> parameters.add(inStrategy.toArray(values(value)))
+                    : (value, parameters) -> {
+                        for (List<?> chunk : inStrategy.partition(values(value))) {
+                            parameters.addAll(chunk);
+                        }
+                    };
+        };
+    }
+
+    private static void none(Object value, List<Object> parameters) {
+    }
+
+    private static List<?> values(Object value) {
+        if (value instanceof List<?> val) {
+            return val;
+        }
+        return List.of(value);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL WHERE clause with placeholders and its ordered bind parameters
+ * @param sql WHERE clause with placeholders instead of values
+ * @param parameters bind parameters in order of their placeholders
+ * @param style placeholder style used in {@code sql}
+ */
+public record DSSqlStatement(
+        String sql,
+        List<Object> parameters,
+        DSPlaceholderStyle style) {
+
+    /**
+     * Parameters keyed by their names, eg: for {@code NamedParameterJdbcTemplate}
+     * @return parameters keyed by name in order of their placeholders
+     */
+    public Map<String, Object> namedParameters() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int idx = 0; idx < parameters.size(); idx++) {
+            result.put(DSPlaceholderStyle.parameterName(idx), parameters.get(idx));
+        }
+        return result;
+    }
+}
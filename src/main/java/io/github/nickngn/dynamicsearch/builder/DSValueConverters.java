@@ -0,0 +1,234 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Converters of criteria values into Java types of the searched attributes, so the database
+ * compares values of the column's own type instead of casting strings. <br>
+ * Converters are resolved once and cached per entity attribute.
+ */
+@UtilityClass
+public final class DSValueConverters {
+
+    private record AttributeKey(Class<?> entity, String key) {
+    }
+
+    private static final ConcurrentHashMap<AttributeKey, Function<Object, Object>> ATTRIBUTE_CONVERTERS = new ConcurrentHashMap<>();
+
+    private static final ConcurrentHashMap<Class<?>, Function<Object, Object>> TYPE_CONVERTERS = new ConcurrentHashMap<>();
+
+    /**
+     * @param entity searched entity
+     * @param key searched field of the entity
+     * @param attributeType Java type of the searched field
+     * @return cached converter for the entity attribute
+     */
+    public static Function<Object, Object> forAttribute(Class<?> entity, String key, Class<?> attributeType) {
+        AttributeKey attributeKey = new AttributeKey(entity, key);
+        Function<Object, Object> converter = ATTRIBUTE_CONVERTERS.get(attributeKey);
+        if (converter == null) {
+            converter = ATTRIBUTE_CONVERTERS.computeIfAbsent(attributeKey, k -> forType(attributeType));
+        }
+        return converter;
+    }
+
+    /**
+     * @param type target type
+     * @return cached converter for the type, values of the type itself or null are returned as-is
+     */
+    public static Function<Object, Object> forType(Class<?> type) {
+        Function<Object, Object> converter = TYPE_CONVERTERS.get(type);
+        if (converter == null) {
+            converter = TYPE_CONVERTERS.computeIfAbsent(type, DSValueConverters::newConverter);
+        }
+        return converter;
+    }
+
+    /**
+     * @param value value to convert
+     * @param type target type
+     * @return the value converted into the type
+     */
+    public static Object convert(Object value, Class<?> type) {
+        return forType(type).apply(value);
+    }
+
+    private static Function<Object, Object> newConverter(Class<?> type) {
+        Class<?> target = wrap(type);
+        Function<Object, Object> conversion = conversion(target);
+        if (conversion == null) {
+            return Function.identity();
+        }
+        return value -> {
+            if (value == null || target.isInstance(value)) {
+                return value;
+            }
+            try {
+                return conversion.apply(value);
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeParseException ex) {
+                throw new InvalidCriteriaException(String.format("Value '%s' can't be converted to %s",
+                        value, target.getSimpleName()), ex);
+            }
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Object, Object> conversion(Class<?> target) {
+        if (target == String.class) {
+            return Object::toString;
+        }
+        if (target == Integer.class) {
+            return value -> decimal(value).intValueExact();
+        }
+        if (target == Long.class) {
+            return value -> decimal(value).longValueExact();
+        }
+        if (target == Short.class) {
+            return value -> decimal(value).shortValueExact();
+        }
+        if (target == Byte.class) {
+            return value -> decimal(value).byteValueExact();
+        }
+        if (target == Double.class) {
+            return value -> value instanceof Number number ? number.doubleValue() : Double.valueOf(value.toString());
+        }
+        if (target == Float.class) {
+            return value -> value instanceof Number number ? number.floatValue() : Float.valueOf(value.toString());
+        }
+        if (target == BigDecimal.class) {
+            return DSValueConverters::decimal;
+        }
+        if (target == BigInteger.class) {
+            return value -> decimal(value).toBigIntegerExact();
+        }
+        if (target == Boolean.class) {
+            return DSValueConverters::bool;
+        }
+        if (target == Character.class) {
+            return value -> {
+                String str = value.toString();
+                if (str.length() != 1) {
+                    throw new IllegalArgumentException("Not a single character");
+                }
+                return str.charAt(0);
+            };
+        }
+        if (target == UUID.class) {
+            return value -> UUID.fromString(value.toString());
+        }
+        if (target.isEnum()) {
+            return value -> Enum.valueOf((Class<? extends Enum>) target, value.toString());
+        }
+        if (target == LocalDate.class) {
+            return value -> LocalDate.parse(value.toString());
+        }
+        if (target == LocalDateTime.class) {
+            return value -> LocalDateTime.parse(value.toString());
+        }
+        if (target == LocalTime.class) {
+            return value -> LocalTime.parse(value.toString());
+        }
+        if (target == OffsetDateTime.class) {
+            return value -> OffsetDateTime.parse(value.toString());
+        }
+        if (target == ZonedDateTime.class) {
+            return value -> ZonedDateTime.parse(value.toString());
+        }
+        if (target == Instant.class) {
+            return DSValueConverters::instant;
+        }
+        if (target == Date.class) {
+            return value -> Date.from(instant(value));
+        }
+        if (target == Timestamp.class) {
+            return value -> Timestamp.from(instant(value));
+        }
+        return null;
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        return new BigDecimal(value.toString());
+    }
+
+    private static Boolean bool(Object value) {
+        String str = value.toString();
+        if ("true".equalsIgnoreCase(str)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(str)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean");
+    }
+
+    private static Instant instant(Object value) {
+        if (value instanceof Number number) {
+            return Instant.ofEpochMilli(number.longValue());
+        }
+        if (value instanceof Date date) {
+            return date.toInstant();
+        }
+        return Instant.parse(value.toString());
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) return Integer.class;
+        if (type == long.class) return Long.class;
+        if (type == double.class) return Double.class;
+        if (type == float.class) return Float.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        if (type == char.class) return Character.class;
+        return type;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.cache;
+
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry invalidating caches of search results when entities of their types are written,
+ * and notifying {@link Subscriber}s of the writes, eg: to refresh in-memory indexes. <br>
+ * Writes are published by {@link DSEntityListener}, which has to be registered on the entities,
+ * eg: by {@code @EntityListeners(DSEntityListener.class)} or as default entity listener of {@code orm.xml}.
+ * Bulk JPQL/SQL updates bypass entity listeners, caches have to be invalidated manually after them.
+ * Within a transaction with active synchronization, writes are published once it commits and discarded
+ * if it rolls back, so caches and subscribers never see uncommitted state. Otherwise they are published immediately.
+ * Each transaction collects its own writes, writes of a suspended transaction aren't mixed with those of
+ * a {@code REQUIRES_NEW} one. <br>
+ * A search running concurrently with the commit may still cache the previous state: only a time-to-live of the cache
+ * bounds such staleness, without it the stale result stays until the next write of the type. <br>
+ * A failing cache or subscriber is logged and doesn't prevent the others from being notified.
+ * Caches and subscribers are weakly referenced, so registering them doesn't keep them alive.
+ */
+@Slf4j
+@UtilityClass
+public final class DSEntityEvents {
+
+    /**
+     * Receiver of entity writes
+     */
+    @FunctionalInterface
+    public interface Subscriber {
+
+        /**
+         * @param entity persisted, updated or removed entity
+         * @param removed the entity is removed
+         */
+        void onChange(Object entity, boolean removed);
+    }
+
+    private record Registration(Class<?> entityType, WeakReference<?> target) {
+    }
+
+    private static final List<Registration> REGISTRATIONS = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param cache cache to invalidate
+     * @param entityTypes types of entities, including their subtypes, whose writes invalidate the cache
+     */
+    public static void register(DSCache<?, ?> cache, Class<?>... entityTypes) {
+        for (Class<?> entityType : entityTypes) {
+            REGISTRATIONS.add(new Registration(entityType, new WeakReference<>(cache)));
+        }
+    }
+
+    /**
+     * @param cache cache to not invalidate anymore
+     */
+    public static void unregister(DSCache<?, ?> cache) {
+        REGISTRATIONS.removeIf(registration -> registration.target().get() == cache);
+    }
+
+    /**
+     * @param subscriber subscriber to notify
+     * @param entityTypes types of entities, including their subtypes, whose writes are notified
+     */
+    public static void subscribe(Subscriber subscriber, Class<?>... entityTypes) {
+        for (Class<?> entityType : entityTypes) {
+            REGISTRATIONS.add(new Registration(entityType, new WeakReference<>(subscriber)));
+        }
+    }
+
+    /**
+     * @param subscriber subscriber to not notify anymore
+     */
+    public static void unsubscribe(Subscriber subscriber) {
+        REGISTRATIONS.removeIf(registration -> registration.target().get() == subscriber);
+    }
+
+    /**
+     * Invalidates caches and notifies subscribers registered for the type of the written entity
+     * @param entity persisted or updated entity
+     */
+    public static void changed(Object entity) {
+        publish(entity, false);
+    }
+
+    /**
+     * Invalidates caches and notifies subscribers registered for the type of the removed entity
+     * @param entity removed entity
+     */
+    public static void removed(Object entity) {
+        publish(entity, true);
+    }
+
+    private static void publish(Object entity, boolean removed) {
+        if (entity == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingWrites pending = (PendingWrites) TransactionSynchronizationManager.getResource(PendingWrites.class);
+            if (pending == null) {
+                pending = new PendingWrites();
+                TransactionSynchronizationManager.bindResource(PendingWrites.class, pending);
+                TransactionSynchronizationManager.registerSynchronization(pending);
+            }
+            if (pending.add(entity, removed)) {
+                return;
+            }
+        }
+        deliver(entity, removed);
+    }
+
+    private static void deliver(Object entity, boolean removed) {
+        boolean collected = false;
+        for (Registration registration : REGISTRATIONS) {
+            Object target = registration.target().get();
+            if (target == null) {
+                collected = true;
+            } else if (registration.entityType().isInstance(entity)) {
+                try {
+                    if (target instanceof DSCache<?, ?> cache) {
+                        cache.invalidateAll();
+                    } else {
+                        ((Subscriber) target).onChange(entity, removed);
+                    }
+                } catch (RuntimeException ex) {
+                    log.error("Failed to notify {} of a write of {}", target, registration.entityType().getName(), ex);
+                }
+            }
+        }
+        if (collected) {
+            REGISTRATIONS.removeIf(registration -> registration.target().get() == null);
+        }
+    }
+
+    /**
+     * Writes of the current transaction, published after it commits.
+     * An entity written several times is published once with its last write.
+     * Unbound while the transaction is suspended, so an inner transaction collects its writes separately
+     */
+    private static final class PendingWrites implements TransactionSynchronization {
+
+        private final Map<Object, Boolean> entities = new IdentityHashMap<>();
+
+        private boolean committed;
+
+        /**
+         * @return false if the transaction is already committed, so the write has to be published immediately
+         */
+        private boolean add(Object entity, boolean removed) {
+            if (committed) {
+                return false;
+            }
+            entities.put(entity, removed);
+            return true;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PendingWrites.class);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(PendingWrites.class, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            committed = true;
+            entities.forEach(DSEntityEvents::deliver);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            entities.clear();
+            TransactionSynchronizationManager.unbindResourceIfPossible(PendingWrites.class);
+        }
+    }
+}
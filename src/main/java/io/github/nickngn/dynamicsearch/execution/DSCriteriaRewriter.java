@@ -0,0 +1,46 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+
+import java.util.List;
+
+/**
+ * Rewrites criteria before {@link DSSearchExecutor} builds them, eg: to resolve text criteria
+ * by an external index into criteria on ids, or to scope searches to the current tenant. <br>
+ * It runs once per search, also for searches without criteria. Cached counts and results are keyed by
+ * the rewritten criteria, so a rewriter depending on the caller must add that context to the criteria.
+ */
+@FunctionalInterface
+public interface DSCriteriaRewriter {
+
+    /**
+     * @param dsCriteriaList criteria of the search
+     * @return criteria to search, the given list if nothing is rewritten
+     */
+    List<DSCriteria> rewrite(List<DSCriteria> dsCriteriaList);
+}
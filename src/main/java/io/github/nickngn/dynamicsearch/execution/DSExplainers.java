@@ -0,0 +1,150 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import jakarta.persistence.EntityManager;
+import lombok.experimental.UtilityClass;
+import org.hibernate.Session;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.function.UnaryOperator;
+
+/**
+ * Built-in {@link DSExplainer}s. <br>
+ * Captured SQL has JDBC placeholders instead of values, so the database must be able to plan statements
+ * with unbound parameters. <br>
+ * Explainers of a {@link DataSource} run the explain statement on a connection of their own, leaving the searching
+ * transaction untouched. Explainers of an {@link EntityManager} run it on the connection of the search, inside
+ * a savepoint rolled back if the statement fails, as failed statements abort the whole transaction on databases
+ * such as PostgreSQL.
+ */
+@UtilityClass
+public final class DSExplainers {
+
+    /**
+     * @param dataSource data source whose connections run the explain statement
+     * @return explainer by {@code EXPLAIN (GENERIC_PLAN)} of PostgreSQL 16 and later
+     */
+    public static DSExplainer postgresGenericPlan(DataSource dataSource) {
+        return jdbc(dataSource, DSExplainers::postgresGenericPlan);
+    }
+
+    /**
+     * @param entityManager entity manager whose connection runs the explain statement
+     * @return explainer by {@code EXPLAIN (GENERIC_PLAN)} of PostgreSQL 16 and later
+     */
+    public static DSExplainer postgresGenericPlan(EntityManager entityManager) {
+        return jdbc(entityManager, DSExplainers::postgresGenericPlan);
+    }
+
+    /**
+     * @param dataSource data source whose connections run the explain statement
+     * @param statement renders the explain statement of the captured SQL
+     * @return explainer returning the rows of the explain statement, one per line
+     */
+    public static DSExplainer jdbc(DataSource dataSource, UnaryOperator<String> statement) {
+        return sql -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return explain(connection, statement.apply(sql));
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to explain: " + sql, e);
+            }
+        };
+    }
+
+    /**
+     * @param entityManager entity manager whose connection runs the explain statement
+     * @param statement renders the explain statement of the captured SQL
+     * @return explainer returning the rows of the explain statement, one per line
+     */
+    public static DSExplainer jdbc(EntityManager entityManager, UnaryOperator<String> statement) {
+        return sql -> entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            if (connection.getAutoCommit()) {
+                return explain(connection, statement.apply(sql));
+            }
+            Savepoint savepoint = connection.setSavepoint();
+            String plan;
+            try {
+                plan = explain(connection, statement.apply(sql));
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            return plan;
+        });
+    }
+
+    private static String postgresGenericPlan(String sql) {
+        return "EXPLAIN (GENERIC_PLAN) " + numberPlaceholders(sql);
+    }
+
+    private static String explain(Connection connection, String explainStatement) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement explain = connection.createStatement();
+             ResultSet rows = explain.executeQuery(explainStatement)) {
+            int columns = rows.getMetaData().getColumnCount();
+            while (rows.next()) {
+                if (!plan.isEmpty()) {
+                    plan.append('\n');
+                }
+                for (int column = 1; column <= columns; column++) {
+                    if (column > 1) {
+                        plan.append(" | ");
+                    }
+                    plan.append(rows.getString(column));
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * @return the SQL with {@code ?} placeholders outside of literals replaced by {@code $1}, {@code $2}, ...
+     */
+    static String numberPlaceholders(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 8);
+        boolean quoted = false;
+        int parameter = 0;
+        for (int idx = 0; idx < sql.length(); idx++) {
+            char current = sql.charAt(idx);
+            if (current == '\'') {
+                quoted = !quoted;
+            }
+            if (current == '?' && !quoted) {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(current);
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import org.springframework.data.domain.Slice;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executes independent searches concurrently, eg: results, facets and related entities of a page,
+ * so the latency is the one of the slowest search instead of the sum. <br>
+ * Searches run on the given executor, eg: {@code Executors.newVirtualThreadPerTaskExecutor()} on Java 21
+ * or a bounded thread pool. Each search has a timeout, the first failure or timeout cancels the other searches:
+ * pending ones never start and running ones are interrupted. <br>
+ * Searches run outside of the caller's transaction. A multi-search is executed once.
+ */
+public class DSMultiSearch {
+
+    /**
+     * Typed reference to the result of a search in {@link DSMultiSearchResult}
+     * @param index position of the search
+     * @param name name of the search in failure messages
+     * @param <R> result type
+     */
+    @SuppressWarnings("unused")
+    public record Handle<R>(int index, String name) {
+    }
+
+    private final class Search<R> extends FutureTask<R> {
+
+        private final Handle<R> handle;
+
+        private final long timeoutNanos;
+
+        private Search(Handle<R> handle, Supplier<R> search, Duration timeout) {
+            super(search::get);
+            this.handle = handle;
+            this.timeoutNanos = timeout.toNanos();
+        }
+
+        @Override
+        public void run() {
+            // a thread freed by interrupting another search mustn't start a pending one
+            if (!aborted) {
+                super.run();
+            }
+        }
+
+        @Override
+        protected void done() {
+            completed.add(this);
+        }
+    }
+
+    private final Executor executor;
+
+    private final Duration defaultTimeout;
+
+    private final List<Search<?>> searches = new ArrayList<>();
+
+    private final BlockingQueue<Search<?>> completed = new LinkedBlockingQueue<>();
+
+    private boolean executed;
+
+    private volatile boolean aborted;
+
+    /**
+     * @param executor executor running the searches
+     * @param defaultTimeout timeout of searches added without one
+     */
+    public DSMultiSearch(Executor executor, Duration defaultTimeout) {
+        this.executor = executor;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * @param name name of the search in failure messages
+     * @param search search to run
+     * @return handle of the search result
+     * @param <R> result type
+     */
+    public <R> Handle<R> add(String name, Supplier<R> search) {
+        return add(name, search, defaultTimeout);
+    }
+
+    /**
+     * @param name name of the search in failure messages
+     * @param search search to run
+     * @param timeout time the search may take from {@link #execute()}
+     * @return handle of the search result
+     * @param <R> result type
+     */
+    public <R> Handle<R> add(String name, Supplier<R> search, Duration timeout) {
+        if (executed) {
+            throw new IllegalStateException("Multi-search is already executed");
+        }
+        Handle<R> handle = new Handle<>(searches.size(), name);
+        searches.add(new Search<>(handle, search, timeout));
+        return handle;
+    }
+
+    /**
+     * Adds a page search of the executor, see {@link DSSearchExecutor#search(DSTemplate)}
+     * @param name name of the search in failure messages
+     * @param searchExecutor executor of the searched entity
+     * @param template criteria and paging options
+     * @return handle of the search result
+     * @param <T> searching entity
+     */
+    public <T> Handle<Slice<T>> add(String name, DSSearchExecutor<T> searchExecutor, DSTemplate template) {
+        return add(name, () -> searchExecutor.search(template));
+    }
+
+    /**
+     * Runs the searches concurrently and waits for all of them
+     * @return results of the searches
+     * @throws DSMultiSearchException if a search fails or times out, the other searches are cancelled
+     */
+    public DSMultiSearchResult execute() {
+        if (executed) {
+            throw new IllegalStateException("Multi-search is already executed");
+        }
+        executed = true;
+        long start = System.nanoTime();
+        try {
+            for (Search<?> search : searches) {
+                executor.execute(search);
+            }
+            Object[] results = new Object[searches.size()];
+            for (int remaining = searches.size(); remaining > 0; remaining--) {
+                Search<?> search = nextCompleted(start);
+                try {
+                    results[search.handle.index()] = search.get();
+                } catch (ExecutionException e) {
+                    throw new DSMultiSearchException("Search '" + search.handle.name() + "' failed", e.getCause());
+                }
+            }
+            return new DSMultiSearchResult(results, Duration.ofNanos(System.nanoTime() - start));
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new DSMultiSearchException("Multi-search is interrupted", e);
+        } catch (RuntimeException e) {
+            cancelAll();
+            throw e;
+        }
+    }
+
+    /**
+     * @param start time the searches were submitted
+     * @return next completed search
+     * @throws DSMultiSearchException if a pending search exceeds its timeout before any other search completes
+     */
+    private Search<?> nextCompleted(long start) throws InterruptedException {
+        while (true) {
+            Search<?> earliest = null;
+            for (Search<?> search : searches) {
+                if (!search.isDone() && (earliest == null || search.timeoutNanos < earliest.timeoutNanos)) {
+                    earliest = search;
+                }
+            }
+            if (earliest == null) {
+                // every search is done, the last ones are being queued
+                return completed.take();
+            }
+            long waitNanos = start + earliest.timeoutNanos - System.nanoTime();
+            Search<?> search = completed.poll(Math.max(waitNanos, 0), TimeUnit.NANOSECONDS);
+            if (search != null) {
+                return search;
+            }
+            if (!earliest.isDone()) {
+                throw new DSMultiSearchException("Search '" + earliest.handle.name() + "' timed out after "
+                        + Duration.ofNanos(earliest.timeoutNanos).toMillis() + " ms");
+            }
+        }
+    }
+
+    private void cancelAll() {
+        aborted = true;
+        for (Search<?> search : searches) {
+            search.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import java.time.Duration;
+
+/**
+ * Combined results of the searches of a {@link DSMultiSearch}
+ */
+public final class DSMultiSearchResult {
+
+    private final Object[] results;
+
+    private final Duration elapsed;
+
+    DSMultiSearchResult(Object[] results, Duration elapsed) {
+        this.results = results;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * @param handle handle returned when the search was added
+     * @return result of the search
+     * @param <R> result type
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R get(DSMultiSearch.Handle<R> handle) {
+        return (R) results[handle.index()];
+    }
+
+    /**
+     * @return time from submitting the searches to the completion of the slowest one
+     */
+    public Duration getElapsed() {
+        return elapsed;
+    }
+}
@@ -0,0 +1,680 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import io.github.nickngn.dynamicsearch.DSCountMode;
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+import io.github.nickngn.dynamicsearch.builder.DSKeyset;
+import io.github.nickngn.dynamicsearch.builder.DSNormalizedCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSPaths;
+import io.github.nickngn.dynamicsearch.builder.DSPrimitiveLists;
+import io.github.nickngn.dynamicsearch.builder.DSSpecBuilder;
+import io.github.nickngn.dynamicsearch.builder.DSSpecBuilders;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import io.github.nickngn.dynamicsearch.cache.DSCache;
+import io.github.nickngn.dynamicsearch.cache.DSEntityEvents;
+import io.github.nickngn.dynamicsearch.metrics.DSMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics.Stage;
+import io.github.nickngn.dynamicsearch.stats.DSUsageRecorder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Executes searches described by {@link DSTemplate} with JPA, building the criteria by {@link DSSpecBuilder}. <br>
+ * Paging follows {@link DSTemplate#getCountMode()} and {@link DSTemplate#isKeyset()}:
+ * a {@link org.springframework.data.domain.Page} for counted searches, a {@link Slice} for count-free ones,
+ * a {@link DSAsyncCountSlice} for asynchronous count and a {@link DSKeysetSlice} for keyset pagination. <br>
+ * The {@link EntityManager} is expected to be the shared, thread-safe one injected by Spring. <br>
+ * Results can be cached by {@link #setResultCache(int, Duration, Class[])}, counts of
+ * {@link DSCountMode#CACHED} searches are always cached. Both caches are invalidated on writes
+ * of the searched entities published by {@link DSEntityEvents}. Cache keys are built from the criteria
+ * rewritten by {@link #setCriteriaRewriter(DSCriteriaRewriter)}, so searches only share results if
+ * their rewritten criteria are equal.
+ * @param <T> searching entity
+ */
+public class DSSearchExecutor<T> {
+
+    private record CountKey(List<DSCriteria> criteria) {
+    }
+
+    private record ResultKey(String kind, List<DSCriteria> criteria, Pageable pageable, DSCountMode countMode,
+                             boolean keyset, String cursor, List<String> fields, Class<?> rowType) {
+    }
+
+    /**
+     * Fetches rows of a search, all of them if the limit is negative
+     * @param <S> searching entity
+     * @param <R> row type
+     */
+    @FunctionalInterface
+    protected interface RowFetcher<S, R> {
+        List<R> fetch(Specification<S> spec, Sort sort, long offset, int limit);
+    }
+
+    // Hibernate query hints, ignored by other providers
+    private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+
+    private static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+
+    private final EntityManager entityManager;
+
+    private final Class<T> domainClass;
+
+    private final DSSpecBuilder<T> specBuilder;
+
+    private Executor countExecutor;
+
+    private DSCache<CountKey, Long> countCache;
+
+    private DSCache<ResultKey, Slice<?>> resultCache;
+
+    private DSUsageRecorder usageRecorder;
+
+    private DSSlowSearchLog slowSearchLog;
+
+    private DSCriteriaRewriter criteriaRewriter;
+
+    private DSSearchMetrics metrics;
+
+    public DSSearchExecutor(EntityManager entityManager, Class<T> domainClass) {
+        this(entityManager, domainClass, DSSpecBuilders.getInstance(domainClass));
+    }
+
+    public DSSearchExecutor(EntityManager entityManager, Class<T> domainClass, DSSpecBuilder<T> specBuilder) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+        this.specBuilder = specBuilder;
+        setCountCache(1_000, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Searches a page of entities matching the template
+     * @param template criteria and paging options
+     * @return page of matching entities, see {@link DSSearchExecutor} for the returned types
+     */
+    public Slice<T> search(DSTemplate template) {
+        return cached("search", template, null, dsCriteriaList -> {
+            if (template.isKeyset()) {
+                return searchKeyset(template, dsCriteriaList, template.getPageable());
+            }
+            return paged(template, dsCriteriaList, this::fetch);
+        });
+    }
+
+    /**
+     * Searches a page of rows matching the template, selecting only {@link DSTemplate#getFields()}
+     * instead of hydrating managed entities
+     * @param template criteria, paging options and selected fields
+     * @return page of rows keyed by the selected fields, in their order
+     */
+    public Slice<Map<String, Object>> project(DSTemplate template) {
+        List<String> fields = projection(template);
+        return cached("project", template, Map.class, dsCriteriaList -> paged(template, dsCriteriaList, (spec, sort, offset, limit) -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<T> root = where(query, spec);
+            query.multiselect(fields.stream().<Selection<?>>map(field -> DSPaths.resolve(root, query, field, false).alias(field)).toList());
+            List<Tuple> tuples = list(query, root, sort, offset, limit);
+            List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+            for (Tuple tuple : tuples) {
+                Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+                for (String field : fields) {
+                    row.put(field, tuple.get(field));
+                }
+                rows.add(row);
+            }
+            return rows;
+        }));
+    }
+
+    /**
+     * Searches a page of rows matching the template, selecting only {@link DSTemplate#getFields()}
+     * into DTOs
+     * @param template criteria, paging options and selected fields
+     * @param dtoClass DTO with a constructor taking the selected fields in their order
+     * @param <R> DTO type
+     * @return page of DTOs
+     */
+    public <R> Slice<R> project(DSTemplate template, Class<R> dtoClass) {
+        List<String> fields = projection(template);
+        return cached("project", template, dtoClass, dsCriteriaList -> paged(template, dsCriteriaList, (spec, sort, offset, limit) -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<R> query = cb.createQuery(dtoClass);
+            Root<T> root = where(query, spec);
+            query.select(cb.construct(dtoClass, fields.stream().<Selection<?>>map(field -> DSPaths.resolve(root, query, field, false)).toArray(Selection[]::new)));
+            return list(query, root, sort, offset, limit);
+        }));
+    }
+
+    /**
+     * Streams all entities matching the template with default {@link DSStreamOptions}.
+     * The stream must be closed, eg: by try-with-resources, and consumed within a transaction.
+     * @param template criteria and sort, the page of {@link DSTemplate#getPageable()} is ignored
+     * @return stream of matching entities backed by a forward-only cursor
+     */
+    public Stream<T> stream(DSTemplate template) {
+        return stream(template, DSStreamOptions.defaults());
+    }
+
+    /**
+     * Streams all entities matching the template.
+     * The stream must be closed, eg: by try-with-resources, and consumed within a transaction.
+     * When the persistence context is cleared, it's cleared before reading the row following every interval,
+     * so rows must be consumed one by one, eg: not collected or sorted, to use their lazy associations.
+     * @param template criteria and sort, the page of {@link DSTemplate#getPageable()} is ignored
+     * @param options fetch size, read-only and persistence context clearing options
+     * @return stream of matching entities backed by a forward-only cursor
+     */
+    public Stream<T> stream(DSTemplate template, DSStreamOptions options) {
+        DSCriteriaShape shape = DSMetrics.shape(getMetrics(), criteria(template));
+        Specification<T> spec = prepare(template, rewrite(criteria(template)), shape);
+        if (spec == null) {
+            return Stream.empty();
+        }
+        TypedQuery<T> query = query(spec, template.getPageable().getSort());
+        query.setHint(HINT_FETCH_SIZE, options.fetchSize());
+        query.setHint(HINT_READ_ONLY, options.readOnly());
+        Stream<T> stream = DSMetrics.timed(getMetrics(), Stage.EXECUTE, domainClass, shape, query::getResultStream);
+        if (options.clearInterval() == 0) {
+            return stream;
+        }
+        Iterator<T> rows = stream.iterator();
+        Spliterator<T> clearing = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+            private long count;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                // cleared before the next row is read, once the consumer is done with the previous ones
+                if (count > 0 && count % options.clearInterval() == 0) {
+                    entityManager.clear();
+                }
+                if (!rows.hasNext()) {
+                    return false;
+                }
+                count++;
+                action.accept(rows.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(clearing, false).onClose(stream::close);
+    }
+
+    /**
+     * Streams all entities matching the template into the consumer, closing the stream afterwards.
+     * @param template criteria and sort, the page of {@link DSTemplate#getPageable()} is ignored
+     * @param options fetch size, read-only and persistence context clearing options
+     * @param consumer consumer of every matching entity
+     */
+    public void forEach(DSTemplate template, DSStreamOptions options, Consumer<? super T> consumer) {
+        try (Stream<T> stream = stream(template, options)) {
+            stream.forEach(consumer);
+        }
+    }
+
+    /**
+     * @param template criteria to count
+     * @return number of entities matching the criteria
+     */
+    public long count(DSTemplate template) {
+        return observed(template, () -> countTemplate(template));
+    }
+
+    private long countTemplate(DSTemplate template) {
+        DSCriteriaShape shape = DSMetrics.shape(getMetrics(), criteria(template));
+        Specification<T> spec = prepare(template, rewrite(criteria(template)), shape);
+        if (spec == null) {
+            return 0;
+        }
+        return DSMetrics.timed(getMetrics(), Stage.COUNT, domainClass, shape, () -> count(spec));
+    }
+
+    /**
+     * @param template criteria to build
+     * @return specification of the template's criteria
+     */
+    public Specification<T> specification(DSTemplate template) {
+        return specBuilder.build(specBuilder.normalize(rewrite(criteria(template)), domainClass));
+    }
+
+    /**
+     * @param countExecutor executor running counts of {@link DSCountMode#ASYNC} searches, required by them.
+     *                      A dedicated pool is recommended as counts block on the database
+     */
+    public void setCountExecutor(Executor countExecutor) {
+        this.countExecutor = countExecutor;
+    }
+
+    /**
+     * Replaces the cache of {@link DSCountMode#CACHED} searches,
+     * by default up to 1000 counts for 10 seconds
+     * @param maximumSize maximum number of cached counts
+     * @param ttl time-to-live of cached counts
+     */
+    public void setCountCache(int maximumSize, Duration ttl) {
+        if (countCache != null) {
+            DSEntityEvents.unregister(countCache);
+        }
+        this.countCache = new DSCache<>(maximumSize, ttl);
+        DSEntityEvents.register(countCache, domainClass);
+    }
+
+    public DSCache<?, Long> getCountCache() {
+        return countCache;
+    }
+
+    /**
+     * Enables the cache of search and projection results, keyed by the criteria, paging options and selected fields.
+     * Cached entities are shared by the callers and detached from their persistence context,
+     * so they should be treated as read-only. Streams aren't cached.
+     * @param maximumSize maximum number of cached results, 0 to disable the cache
+     * @param ttl time-to-live of cached results
+     * @param dependentTypes types of entities reached by nested keys, whose writes also invalidate the cache
+     */
+    public void setResultCache(int maximumSize, Duration ttl, Class<?>... dependentTypes) {
+        if (resultCache != null) {
+            DSEntityEvents.unregister(resultCache);
+        }
+        if (maximumSize <= 0) {
+            this.resultCache = null;
+            return;
+        }
+        this.resultCache = new DSCache<>(maximumSize, ttl);
+        DSEntityEvents.register(resultCache, domainClass);
+        DSEntityEvents.register(resultCache, dependentTypes);
+    }
+
+    /**
+     * @return cache of search results, null if disabled
+     */
+    public DSCache<?, Slice<?>> getResultCache() {
+        return resultCache;
+    }
+
+    public Class<T> getDomainClass() {
+        return domainClass;
+    }
+
+    /**
+     * Searches served from the result cache are recorded without latency,
+     * criteria built directly by {@link DSSpecBuilder} aren't recorded
+     * @param usageRecorder recorder of the searched criteria and latencies of searches, projections and counts,
+     *                      null to disable recording
+     */
+    public void setUsageRecorder(DSUsageRecorder usageRecorder) {
+        this.usageRecorder = usageRecorder;
+    }
+
+    public DSUsageRecorder getUsageRecorder() {
+        return usageRecorder;
+    }
+
+    /**
+     * @param slowSearchLog log of searches, projections and counts slower than its threshold, null to disable it
+     */
+    public void setSlowSearchLog(DSSlowSearchLog slowSearchLog) {
+        this.slowSearchLog = slowSearchLog;
+    }
+
+    public DSSlowSearchLog getSlowSearchLog() {
+        return slowSearchLog;
+    }
+
+    /**
+     * @param criteriaRewriter rewriter of the criteria of every search before building them, null to disable it
+     */
+    public void setCriteriaRewriter(DSCriteriaRewriter criteriaRewriter) {
+        this.criteriaRewriter = criteriaRewriter;
+    }
+
+    public DSCriteriaRewriter getCriteriaRewriter() {
+        return criteriaRewriter;
+    }
+
+    /**
+     * Builds are measured by the spec builder, with the metrics of its options
+     * @param metrics metrics measuring normalization, execution and counts of searches,
+     *                null to use the metrics of the spec builder options, or else the default ones of {@link DSMetrics}
+     */
+    public void setMetrics(DSSearchMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return metrics measuring the searches
+     */
+    public DSSearchMetrics getMetrics() {
+        return DSMetrics.resolve(metrics != null ? metrics : specBuilder.getOptions().getMetrics());
+    }
+
+    /**
+     * Fetches a page of rows, following the count mode of the template
+     */
+    protected <R> Slice<R> paged(DSTemplate template, RowFetcher<T, R> rowFetcher) {
+        return paged(template, rewrite(criteria(template)), rowFetcher);
+    }
+
+    private <R> Slice<R> paged(DSTemplate template, List<DSCriteria> dsCriteriaList, RowFetcher<T, R> rowFetcher) {
+        Pageable pageable = template.getPageable();
+        DSCriteriaShape shape = DSMetrics.shape(getMetrics(), criteria(template));
+        Specification<T> spec = prepare(template, dsCriteriaList, shape);
+        if (spec == null) {
+            return empty(template);
+        }
+        RowFetcher<T, R> fetcher = getMetrics() != DSSearchMetrics.NOOP
+                ? (s, sort, offset, limit) -> DSMetrics.timed(getMetrics(), Stage.EXECUTE, domainClass, shape,
+                        () -> rowFetcher.fetch(s, sort, offset, limit))
+                : rowFetcher;
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(fetcher.fetch(spec, pageable.getSort(), 0, -1));
+        }
+        return switch (template.getCountMode()) {
+            case EXACT -> new PageImpl<>(content(spec, pageable, fetcher), pageable, count(spec, shape));
+            case LAZY -> PageableExecutionUtils.getPage(content(spec, pageable, fetcher), pageable, () -> count(spec, shape));
+            case NONE -> slice(spec, pageable, fetcher);
+            case ASYNC -> {
+                Executor executor = countExecutor;
+                if (executor == null) {
+                    throw new IllegalStateException("Count mode ASYNC requires a count executor, see setCountExecutor");
+                }
+                CompletableFuture<Long> total = CompletableFuture.supplyAsync(() -> count(spec, shape), executor);
+                Slice<R> slice = slice(spec, pageable, fetcher);
+                yield new DSAsyncCountSlice<>(slice.getContent(), pageable, slice.hasNext(), total);
+            }
+            case CACHED -> new PageImpl<>(content(spec, pageable, fetcher), pageable,
+                    countCache.get(new CountKey(canonical(dsCriteriaList)), key -> count(spec, shape)));
+        };
+    }
+
+    protected <R> List<R> content(Specification<T> spec, Pageable pageable, RowFetcher<T, R> fetcher) {
+        return fetcher.fetch(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+    }
+
+    protected <R> Slice<R> slice(Specification<T> spec, Pageable pageable, RowFetcher<T, R> fetcher) {
+        List<R> rows = fetcher.fetch(spec, pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    protected List<T> fetch(Specification<T> spec, Sort sort, long offset, int limit) {
+        return list(entityQuery(spec), sort, offset, limit);
+    }
+
+    protected TypedQuery<T> query(Specification<T> spec, Sort sort) {
+        return typed(entityQuery(spec), sort);
+    }
+
+    private CriteriaQuery<T> entityQuery(Specification<T> spec) {
+        CriteriaQuery<T> query = entityManager.getCriteriaBuilder().createQuery(domainClass);
+        query.select(where(query, spec));
+        return query;
+    }
+
+    private Root<T> where(CriteriaQuery<?> query, Specification<T> spec) {
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = spec.toPredicate(root, query, entityManager.getCriteriaBuilder());
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return root;
+    }
+
+    private <R> List<R> list(CriteriaQuery<R> query, Sort sort, long offset, int limit) {
+        return list(query, query.getRoots().iterator().next(), sort, offset, limit);
+    }
+
+    private <R> List<R> list(CriteriaQuery<R> query, Root<?> root, Sort sort, long offset, int limit) {
+        TypedQuery<R> typedQuery = typed(query, root, sort);
+        if (offset > 0) {
+            typedQuery.setFirstResult((int) offset);
+        }
+        if (limit >= 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    private <R> TypedQuery<R> typed(CriteriaQuery<R> query, Sort sort) {
+        return typed(query, query.getRoots().iterator().next(), sort);
+    }
+
+    private <R> TypedQuery<R> typed(CriteriaQuery<R> query, Root<?> root, Sort sort) {
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, entityManager.getCriteriaBuilder()));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    protected long count(Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        query.orderBy(Collections.emptyList());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private long count(Specification<T> spec, DSCriteriaShape shape) {
+        return DSMetrics.timed(getMetrics(), Stage.COUNT, domainClass, shape, () -> count(spec));
+    }
+
+    private Slice<T> searchKeyset(DSTemplate template, List<DSCriteria> dsCriteriaList, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            throw new InvalidCriteriaException("Keyset pagination requires a page size");
+        }
+        DSCriteriaShape shape = DSMetrics.shape(getMetrics(), criteria(template));
+        Specification<T> criteriaSpec = prepare(template, dsCriteriaList, shape);
+        if (criteriaSpec == null) {
+            return new DSKeysetSlice<>(Collections.emptyList(), pageable, false, null);
+        }
+        Sort sort = DSKeyset.sort(pageable.getSort(), entityManager.getMetamodel().entity(domainClass));
+        TypedQuery<T> query = query(criteriaSpec.and(DSKeyset.seek(sort, template.getCursor())), sort);
+        query.setMaxResults(pageable.getPageSize() + 1);
+        List<T> rows = DSMetrics.timed(getMetrics(), Stage.EXECUTE, domainClass, shape, query::getResultList);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<T> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        String nextCursor = hasNext ? DSKeyset.cursor(content.get(content.size() - 1), sort) : null;
+        return new DSKeysetSlice<>(content, PageRequest.of(0, pageable.getPageSize(), sort), hasNext, nextCursor);
+    }
+
+    /**
+     * Normalizes and builds the rewritten criteria of the template
+     * @param dsCriteriaList criteria of the template rewritten by {@link #rewrite(List)}
+     * @return specification of the criteria, null if they provably match nothing, so no query is needed,
+     * see {@link io.github.nickngn.dynamicsearch.builder.DSBuilderOptions#isNormalizeCriteria()}
+     */
+    private Specification<T> prepare(DSTemplate template, List<DSCriteria> dsCriteriaList, DSCriteriaShape shape) {
+        DSSearchMetrics metrics = getMetrics();
+        metrics.recordCriteria(domainClass, criteria(template));
+        DSNormalizedCriteria normalized = specBuilder.getOptions().isNormalizeCriteria()
+                ? DSMetrics.timed(metrics, Stage.NORMALIZE, domainClass, shape, () -> specBuilder.normalize(dsCriteriaList, domainClass))
+                : DSNormalizedCriteria.of(dsCriteriaList);
+        if (normalized.empty()) {
+            metrics.count(DSSearchMetrics.Event.MATCHING_NOTHING, domainClass);
+            return null;
+        }
+        return specBuilder.build(normalized);
+    }
+
+    private static <R> Slice<R> empty(DSTemplate template) {
+        Pageable pageable = template.getPageable();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(Collections.emptyList());
+        }
+        return switch (template.getCountMode()) {
+            case EXACT, LAZY, CACHED -> new PageImpl<>(Collections.emptyList(), pageable, 0);
+            case NONE -> new SliceImpl<>(Collections.emptyList(), pageable, false);
+            case ASYNC -> new DSAsyncCountSlice<>(Collections.emptyList(), pageable, false, CompletableFuture.completedFuture(0L));
+        };
+    }
+
+    /**
+     * Rewrites the criteria once and runs the search on them, cached by the rewritten criteria,
+     * so rewriters depending on the caller, eg: scoping to a tenant, don't share results across callers
+     */
+    @SuppressWarnings("unchecked")
+    private <R> Slice<R> cached(String kind, DSTemplate template, Class<?> rowType,
+                                Function<List<DSCriteria>, Slice<R>> search) {
+        List<DSCriteria> dsCriteriaList = rewrite(criteria(template));
+        DSCache<ResultKey, Slice<?>> cache = resultCache;
+        if (cache == null) {
+            return observed(template, () -> search.apply(dsCriteriaList));
+        }
+        ResultKey key = new ResultKey(kind, canonical(dsCriteriaList), template.getPageable(), template.getCountMode(),
+                template.isKeyset(), template.getCursor(), template.getFields(), rowType);
+        boolean[] loaded = new boolean[1];
+        Slice<R> result = (Slice<R>) cache.get(key, k -> {
+            loaded[0] = true;
+            return observed(template, () -> search.apply(dsCriteriaList));
+        });
+        DSUsageRecorder recorder = usageRecorder;
+        if (!loaded[0] && recorder != null) {
+            recorder.recordCached(domainClass, criteria(template));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the search, recording its usage and logging it if slow
+     */
+    private <R> R observed(DSTemplate template, Supplier<R> search) {
+        DSUsageRecorder recorder = usageRecorder;
+        DSSlowSearchLog slowLog = slowSearchLog;
+        if (recorder == null && slowLog == null) {
+            return search.get();
+        }
+        List<String> previousCapture = slowLog != null ? DSStatementCapture.start() : null;
+        long start = System.nanoTime();
+        R result = null;
+        try {
+            result = search.get();
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            if (recorder != null) {
+                recorder.record(domainClass, criteria(template), nanos);
+            }
+            if (slowLog != null) {
+                List<String> sql = DSStatementCapture.stop(previousCapture);
+                if (slowLog.isSlow(nanos)) {
+                    slowLog.report(domainClass, criteria(template), nanos, result, sql);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return copy of the criteria with the connectors as evaluated, the connector of the first criteria is ignored.
+     * List values are copied as well, so cache keys don't change with the caller's lists
+     */
+    private static List<DSCriteria> canonical(List<DSCriteria> dsCriteriaList) {
+        List<DSCriteria> result = new ArrayList<>(dsCriteriaList.size());
+        for (int idx = 0; idx < dsCriteriaList.size(); idx++) {
+            DSCriteria dsCriteria = dsCriteriaList.get(idx);
+            boolean or = idx > 0 && Boolean.TRUE.equals(dsCriteria.isOr());
+            result.add(new DSCriteria(dsCriteria.key(), dsCriteria.operation(), snapshot(dsCriteria.value()), or));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static Object snapshot(Object value) {
+        if (value instanceof DSPrimitiveLists.Longs longs) {
+            return DSPrimitiveLists.of(longs.toLongArray());
+        }
+        if (value instanceof DSPrimitiveLists.Ints ints) {
+            return DSPrimitiveLists.of(ints.toIntArray());
+        }
+        if (value instanceof DSPrimitiveLists.Doubles doubles) {
+            return DSPrimitiveLists.of(doubles.toDoubleArray());
+        }
+        if (value instanceof List<?> list) {
+            return Collections.unmodifiableList(new ArrayList<>(list));
+        }
+        return value;
+    }
+
+    private static List<String> projection(DSTemplate template) {
+        if (template.getFields() == null || template.getFields().isEmpty()) {
+            throw new InvalidCriteriaException("Projection requires at least one field");
+        }
+        if (template.isKeyset()) {
+            throw new InvalidCriteriaException("Keyset pagination isn't supported by projections");
+        }
+        return template.getFields();
+    }
+
+    /**
+     * Rewrites the criteria of every search, also of searches without criteria, eg: to scope them
+     */
+    private List<DSCriteria> rewrite(List<DSCriteria> dsCriteriaList) {
+        DSCriteriaRewriter rewriter = criteriaRewriter;
+        List<DSCriteria> rewritten = rewriter != null ? rewriter.rewrite(dsCriteriaList) : null;
+        return rewritten != null ? rewritten : dsCriteriaList;
+    }
+
+    private static List<DSCriteria> criteria(DSTemplate template) {
+        return template.getCriteria() != null ? template.getCriteria() : Collections.emptyList();
+    }
+}
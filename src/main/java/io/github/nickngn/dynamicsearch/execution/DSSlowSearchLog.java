@@ -0,0 +1,135 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs searches of {@link DSSearchExecutor} slower than a threshold at WARN level, with the criteria shape,
+ * the bound values (masked by default), the row count and the SQL captured by {@link DSStatementCapture}. <br>
+ * A sample of slow searches can be explained by a {@link DSExplainer}, the plan is logged with the search.
+ */
+@Slf4j
+@Getter
+@Builder(toBuilder = true)
+public final class DSSlowSearchLog {
+
+    /**
+     * Searches taking at least this duration are logged
+     */
+    @Builder.Default
+    private final Duration threshold = Duration.ofSeconds(1);
+
+    /**
+     * Log the types of the values instead of the values
+     */
+    @Builder.Default
+    private final boolean maskValues = true;
+
+    /**
+     * Explainer of the captured SQL, null to not explain
+     */
+    @Builder.Default
+    private final DSExplainer explainer = null;
+
+    /**
+     * Fraction of slow searches explained, from 0 to 1
+     */
+    @Builder.Default
+    private final double explainSampleRate = 0;
+
+    public boolean isSlow(long nanos) {
+        return nanos >= threshold.toNanos();
+    }
+
+    /**
+     * @param entityType searched entity
+     * @param dsCriteriaList searched criteria
+     * @param nanos duration of the search
+     * @param result result of the search
+     * @param sql SQL captured during the search
+     */
+    public void report(Class<?> entityType, List<DSCriteria> dsCriteriaList, long nanos, Object result, List<String> sql) {
+        String plan = null;
+        if (explainer != null && !sql.isEmpty() && ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+            try {
+                plan = explainer.explain(sql.get(0));
+            } catch (RuntimeException e) {
+                plan = "not available: " + e.getMessage();
+            }
+        }
+        log.warn("Slow dynamic search of {} took {} ms, {} rows: shape [{}], values {}, sql {}{}",
+                entityType.getSimpleName(), TimeUnit.NANOSECONDS.toMillis(nanos), rows(result),
+                DSCriteriaShape.of(dsCriteriaList), values(dsCriteriaList), sql.isEmpty() ? "not captured" : sql,
+                plan != null ? "\nplan:\n" + plan : "");
+    }
+
+    private List<String> values(List<DSCriteria> dsCriteriaList) {
+        List<String> result = new ArrayList<>(dsCriteriaList.size());
+        for (DSCriteria dsCriteria : dsCriteriaList) {
+            result.add(maskValues ? mask(dsCriteria.value()) : String.valueOf(dsCriteria.value()));
+        }
+        return result;
+    }
+
+    private static String mask(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof List<?> values) {
+            return "List(" + values.size() + ")";
+        }
+        if (value instanceof CharSequence text) {
+            return "String(" + text.length() + ")";
+        }
+        return value.getClass().getSimpleName();
+    }
+
+    private static String rows(Object result) {
+        if (result instanceof Page<?> page) {
+            return page.getNumberOfElements() + " of " + page.getTotalElements();
+        }
+        if (result instanceof Slice<?> slice) {
+            return String.valueOf(slice.getNumberOfElements());
+        }
+        if (result instanceof Number count) {
+            return "counted " + count;
+        }
+        return "?";
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hibernate {@link StatementInspector} capturing the SQL executed by the current thread while a capture is active,
+ * used by {@link DSSlowSearchLog}. <br>
+ * Registered by the {@code hibernate.session_factory.statement_inspector} property, eg: by
+ * {@code dynamic-search.slow-search.capture-sql=true}. The SQL is returned unchanged.
+ */
+public class DSStatementCapture implements StatementInspector {
+
+    private static final int MAXIMUM_STATEMENTS = 8;
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null && captured.size() < MAXIMUM_STATEMENTS) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Starts capturing the SQL of the current thread
+     * @return the previous capture to restore by {@link #stop(List)}, null if none
+     */
+    public static List<String> start() {
+        List<String> previous = CAPTURED.get();
+        CAPTURED.set(new ArrayList<>(2));
+        return previous;
+    }
+
+    /**
+     * Stops capturing the SQL of the current thread
+     * @param previous capture returned by {@link #start()}
+     * @return the captured SQL, empty if the inspector isn't registered
+     */
+    public static List<String> stop(List<String> previous) {
+        List<String> captured = CAPTURED.get();
+        if (previous != null) {
+            CAPTURED.set(previous);
+        } else {
+            CAPTURED.remove();
+        }
+        return captured != null ? captured : Collections.emptyList();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.execution;
+
+/**
+ * Options of streaming searches, eg: for large exports
+ * @param fetchSize number of rows fetched by the JDBC driver per round trip
+ * @param readOnly load entities as read-only, so they aren't snapshotted for dirty checking
+ * @param clearInterval clear the persistence context every given number of rows to keep memory flat,
+ *                      0 to disable. Clearing discards unflushed changes, so stream in a dedicated
+ *                      read-only transaction when enabled
+ */
+public record DSStreamOptions(int fetchSize, boolean readOnly, int clearInterval) {
+
+    private static final DSStreamOptions DEFAULTS = new DSStreamOptions(500, true, 1_000);
+
+    public DSStreamOptions {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("Fetch size must be positive");
+        }
+        if (clearInterval < 0) {
+            throw new IllegalArgumentException("Clear interval can't be negative");
+        }
+    }
+
+    /**
+     * @return fetch 500 rows per round trip, read-only, clearing every 1000 rows
+     */
+    public static DSStreamOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public DSStreamOptions withFetchSize(int fetchSize) {
+        return new DSStreamOptions(fetchSize, readOnly, clearInterval);
+    }
+
+    public DSStreamOptions withReadOnly(boolean readOnly) {
+        return new DSStreamOptions(fetchSize, readOnly, clearInterval);
+    }
+
+    public DSStreamOptions withClearInterval(int clearInterval) {
+        return new DSStreamOptions(fetchSize, readOnly, clearInterval);
+    }
+}
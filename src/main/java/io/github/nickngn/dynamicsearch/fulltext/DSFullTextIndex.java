@@ -0,0 +1,381 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.fulltext;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSAccessor;
+import io.github.nickngn.dynamicsearch.builder.DSValueConverters;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import io.github.nickngn.dynamicsearch.cache.DSEntityEvents;
+import io.github.nickngn.dynamicsearch.execution.DSCriteriaRewriter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.store.Directory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Embedded Lucene index of the text fields annotated by {@link DSFullText} on the reference class,
+ * resolving positive text criteria into criteria on ids: CONTAINS, BEGINS_WITH and ENDS_WITH criteria on indexed
+ * fields are rewritten into IN criteria on the matching ids, combined with the other criteria as usual. <br>
+ * Values are indexed as character trigrams between start and end markers, so matches are exact, also for long texts.
+ * Matches are case-sensitive, as {@code LIKE} on a binary or case-sensitive collation. For columns of a case-insensitive
+ * collation, eg: the defaults of MySQL and SQL Server, the index has to ignore case, folding characters to lower case.
+ * Other rules of collations, eg: ignoring accents or trailing spaces, aren't reproduced, such columns must not be
+ * indexed. Criteria are kept when their value is empty or holds {@code %} or {@code _} wildcards, or when more ids
+ * than the limit match, so the database evaluates them. <br>
+ * The index lives in the given {@link Directory}, eg: {@code ByteBuffersDirectory} in memory or {@code MMapDirectory}
+ * on a local directory. It is loaded by {@link #load(Collection)} and refreshed by writes published to
+ * {@link DSEntityEvents}, it subscribes to them when created, so writes of a transaction are applied once it commits.
+ * Applied writes are searchable right away, they are committed to the directory by {@link #commit()}, eg: on a schedule,
+ * and on {@link #close()}. A write failing to be applied is logged and marks the index stale: criteria aren't rewritten
+ * anymore, so the database evaluates them, until the index is reloaded.
+ * @param <T> indexed entity
+ */
+@Slf4j
+public class DSFullTextIndex<T> implements DSCriteriaRewriter, DSEntityEvents.Subscriber, Closeable {
+
+    private static final int GRAM = 3;
+
+    private static final String ID_FIELD = "_id";
+
+    private static final String START = "\u0002";
+
+    private static final String END = "\u0003";
+
+    private final Class<T> entityType;
+
+    private final String idKey;
+
+    private final DSAccessor idAccessor;
+
+    private final Function<Object, Object> idConverter;
+
+    private final List<String> keys;
+
+    private final List<DSAccessor> accessors;
+
+    private final int maxIds;
+
+    private final boolean ignoreCase;
+
+    private final IndexWriter writer;
+
+    private final SearcherManager searcherManager;
+
+    private volatile boolean stale;
+
+    /**
+     * Creates a case-sensitive index
+     * @see #DSFullTextIndex(Class, Class, String, Directory, int, boolean)
+     */
+    public DSFullTextIndex(Class<T> entityType, Class<?> referenceClass, String idKey, Directory directory, int maxIds) {
+        this(entityType, referenceClass, idKey, directory, maxIds, false);
+    }
+
+    /**
+     * @param entityType indexed entity
+     * @param referenceClass reference class declaring the {@link DSFullText} fields, read from the entity by name
+     * @param idKey property identifying entities
+     * @param directory directory of the index
+     * @param maxIds maximum number of ids rewriting a criteria, more matches keep the criteria
+     * @param ignoreCase matches ignore case, as {@code LIKE} on columns of a case-insensitive collation
+     */
+    public DSFullTextIndex(Class<T> entityType, Class<?> referenceClass, String idKey, Directory directory, int maxIds,
+                           boolean ignoreCase) {
+        this.entityType = entityType;
+        this.idKey = idKey;
+        this.idAccessor = DSAccessor.of(entityType, idKey);
+        this.idConverter = DSValueConverters.forType(idAccessor.getType());
+        this.maxIds = maxIds;
+        this.ignoreCase = ignoreCase;
+        this.keys = new ArrayList<>();
+        this.accessors = new ArrayList<>();
+        for (Class<?> klass = referenceClass; klass != null && klass != Object.class; klass = klass.getSuperclass()) {
+            for (Field field : klass.getDeclaredFields()) {
+                if (field.isAnnotationPresent(DSFullText.class)) {
+                    DSAccessor accessor = DSAccessor.of(entityType, field.getName());
+                    if (!accessor.isSingleValued()) {
+                        throw new InvalidCriteriaException(String.format("Field '%s' is multi-valued and can't be indexed", field.getName()));
+                    }
+                    keys.add(field.getName());
+                    accessors.add(accessor);
+                }
+            }
+        }
+        try {
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(new TrigramAnalyzer(ignoreCase)));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        DSEntityEvents.subscribe(this, entityType);
+    }
+
+    /**
+     * Replaces the content of the index
+     * @param entities entities to index
+     */
+    public void load(Collection<? extends T> entities) {
+        try {
+            writer.deleteAll();
+            for (T entity : entities) {
+                Object id = idAccessor.get(entity);
+                if (id != null) {
+                    writer.addDocument(document(id, entity));
+                }
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            stale = false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<DSCriteria> rewrite(List<DSCriteria> dsCriteriaList) {
+        if (stale) {
+            return dsCriteriaList;
+        }
+        List<DSCriteria> result = null;
+        for (int idx = 0; idx < dsCriteriaList.size(); idx++) {
+            DSCriteria dsCriteria = dsCriteriaList.get(idx);
+            Query query = query(dsCriteria);
+            List<Object> ids = query != null ? ids(query) : null;
+            if (ids != null) {
+                if (result == null) {
+                    result = new ArrayList<>(dsCriteriaList);
+                }
+                result.set(idx, new DSCriteria(idKey, DSOperation.IN, ids, dsCriteria.isOr()));
+            }
+        }
+        return result != null ? result : dsCriteriaList;
+    }
+
+    /**
+     * Applies the write without committing it, it runs after the transaction commits, so failures are logged
+     * and mark the index stale instead of being thrown
+     */
+    @Override
+    public void onChange(Object entity, boolean removed) {
+        if (!entityType.isInstance(entity)) {
+            return;
+        }
+        Object id = idAccessor.get(entity);
+        if (id == null) {
+            return;
+        }
+        try {
+            Term term = new Term(ID_FIELD, id.toString());
+            if (removed) {
+                writer.deleteDocuments(term);
+            } else {
+                writer.updateDocument(term, document(id, entityType.cast(entity)));
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException | RuntimeException e) {
+            stale = true;
+            log.error("Failed to index a write of {} '{}', the index is stale until reloaded", entityType.getName(), id, e);
+        }
+    }
+
+    /**
+     * Commits writes applied by {@link #onChange(Object, boolean)} to the directory
+     */
+    public void commit() {
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        DSEntityEvents.unsubscribe(this);
+        searcherManager.close();
+        writer.close();
+    }
+
+    /**
+     * @return a write failed to be applied since the last {@link #load(Collection)}, so criteria aren't rewritten
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    public List<String> getKeys() {
+        return List.copyOf(keys);
+    }
+
+    private Document document(Object id, T entity) {
+        Document document = new Document();
+        document.add(new StringField(ID_FIELD, id.toString(), Store.YES));
+        for (int idx = 0; idx < keys.size(); idx++) {
+            Object value = accessors.get(idx).get(entity);
+            if (value != null) {
+                // the end marker is doubled, so every character starts a full trigram
+                document.add(new TextField(keys.get(idx), START + value + END + END, Store.NO));
+            }
+        }
+        return document;
+    }
+
+    /**
+     * @return query of the criteria, null if the criteria isn't resolved by the index
+     */
+    private Query query(DSCriteria dsCriteria) {
+        if (!keys.contains(dsCriteria.key()) || dsCriteria.value() == null) {
+            return null;
+        }
+        String value = ignoreCase ? lowerCase(dsCriteria.value().toString()) : dsCriteria.value().toString();
+        if (value.isEmpty() || value.indexOf('%') >= 0 || value.indexOf('_') >= 0
+                || value.contains(START) || value.contains(END)) {
+            return null;
+        }
+        return switch (dsCriteria.operation()) {
+            case CONTAINS -> substring(dsCriteria.key(), value);
+            case BEGINS_WITH -> substring(dsCriteria.key(), START + value);
+            case ENDS_WITH -> substring(dsCriteria.key(), value + END);
+            default -> null;
+        };
+    }
+
+    /**
+     * @return query of the values holding the text: consecutive trigrams of the text,
+     * or trigrams starting by the text if it's shorter than a trigram
+     */
+    private static Query substring(String key, String text) {
+        int[] codePoints = text.codePoints().toArray();
+        if (codePoints.length < GRAM) {
+            return new PrefixQuery(new Term(key, text));
+        }
+        PhraseQuery.Builder phrase = new PhraseQuery.Builder();
+        for (int idx = 0; idx + GRAM <= codePoints.length; idx++) {
+            phrase.add(new Term(key, new String(codePoints, idx, GRAM)), idx);
+        }
+        return phrase.build();
+    }
+
+    /**
+     * @return the text with every character folded to lower case, as {@link LowerCaseFilter} folds indexed trigrams
+     */
+    private static String lowerCase(String text) {
+        return text.codePoints().map(Character::toLowerCase)
+                .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append).toString();
+    }
+
+    /**
+     * @return ids of the entities matching the query, null if more than the limit match
+     */
+    private List<Object> ids(Query query) {
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                List<Object> ids = new ArrayList<>();
+                searcher.search(query, new SimpleCollector() {
+
+                    private StoredFields storedFields;
+
+                    @Override
+                    protected void doSetNextReader(LeafReaderContext context) throws IOException {
+                        if (ids.size() > maxIds) {
+                            // skips the remaining segments
+                            throw new CollectionTerminatedException();
+                        }
+                        storedFields = context.reader().storedFields();
+                    }
+
+                    @Override
+                    public void collect(int doc) throws IOException {
+                        ids.add(idConverter.apply(storedFields.document(doc).get(ID_FIELD)));
+                        if (ids.size() > maxIds) {
+                            throw new CollectionTerminatedException();
+                        }
+                    }
+
+                    @Override
+                    public ScoreMode scoreMode() {
+                        return ScoreMode.COMPLETE_NO_SCORES;
+                    }
+                });
+                return ids.size() > maxIds ? null : ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Splits values into character trigrams, folded to lower case if the index ignores case
+     */
+    private static final class TrigramAnalyzer extends Analyzer {
+
+        private final boolean ignoreCase;
+
+        private TrigramAnalyzer(boolean ignoreCase) {
+            this.ignoreCase = ignoreCase;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            NGramTokenizer tokenizer = new NGramTokenizer(GRAM, GRAM);
+            return ignoreCase
+                    ? new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer))
+                    : new TokenStreamComponents(tokenizer);
+        }
+    }
+}
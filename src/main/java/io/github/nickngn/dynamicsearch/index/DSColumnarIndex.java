@@ -0,0 +1,344 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.index;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.builder.DSAccessor;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaRun;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import io.github.nickngn.dynamicsearch.cache.DSEntityEvents;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Columnar in-memory index of read-mostly entities, eg: catalogs and lookups, searched without the database. <br>
+ * Every indexed key is stored in a column: integral properties as primitive longs, other properties
+ * dictionary-encoded. Each criteria is evaluated by its column into a bitmap of matching rows and the bitmaps
+ * are combined from left to right as described by {@link DSCriteriaRun}, ANDed criteria only evaluate the rows
+ * matched so far and ORed ones the rows not matched yet. Operations share the semantics of
+ * {@link io.github.nickngn.dynamicsearch.builder.DSPredicateBuilder}. <br>
+ * The index is refreshed incrementally by writes published to {@link DSEntityEvents}, it subscribes to them
+ * when created, so writes of a transaction are applied once it commits. Rows are snapshots of the loaded and
+ * written entities taken by the given function: the index keeps the indexed values and a copy of each entity,
+ * modifying an entity doesn't change the index until its write is published. Searches run concurrently, writes are exclusive.
+ * @param <T> indexed entity
+ */
+public class DSColumnarIndex<T> implements DSEntityEvents.Subscriber {
+
+    private final Class<T> type;
+
+    private final UnaryOperator<T> snapshot;
+
+    private final DSAccessor idAccessor;
+
+    private final List<String> keys;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, DSIndexColumn> columns;
+
+    private final Map<Object, Integer> slots = new HashMap<>();
+
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+
+    private Object[] rows;
+
+    private int slotCount;
+
+    /**
+     * @param type indexed entity
+     * @param snapshot copies an entity into the row returned by searches, independent of later modifications,
+     *                 eg: a copy constructor, or {@link UnaryOperator#identity()} for immutable entities.
+     *                 It must not load lazy associations of managed entities
+     * @param idKey property identifying entities, to apply writes
+     * @param keys searchable properties, nested properties must not be collections
+     */
+    public DSColumnarIndex(Class<T> type, UnaryOperator<T> snapshot, String idKey, String... keys) {
+        this.type = type;
+        this.snapshot = snapshot;
+        this.idAccessor = accessor(type, idKey);
+        this.keys = List.of(keys);
+        for (String key : keys) {
+            accessor(type, key);
+        }
+        reset();
+        DSEntityEvents.subscribe(this, type);
+    }
+
+    /**
+     * Replaces the content of the index
+     * @param entities entities to index
+     */
+    public void load(Collection<? extends T> entities) {
+        lock.writeLock().lock();
+        try {
+            reset();
+            for (T entity : entities) {
+                put(entity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches a page of entities matching the template
+     * @param template criteria and paging options, unsorted results are in loading order
+     * @return page of matching entities with their total number
+     */
+    public Page<T> search(DSTemplate template) {
+        if (template.isKeyset()) {
+            throw new InvalidCriteriaException("Keyset pagination isn't supported by columnar indexes");
+        }
+        Pageable pageable = template.getPageable();
+        lock.readLock().lock();
+        try {
+            BitSet matched = match(template.getCriteria());
+            int total = matched.cardinality();
+            List<T> content = pageable.getSort().isSorted()
+                    ? sortedPage(matched, pageable)
+                    : page(matched, pageable);
+            return new PageImpl<>(content, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param template criteria, paging options are ignored
+     * @return number of entities matching the criteria
+     */
+    public long count(DSTemplate template) {
+        lock.readLock().lock();
+        try {
+            return match(template.getCriteria()).cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of indexed entities
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    @Override
+    public void onChange(Object entity, boolean removed) {
+        if (!type.isInstance(entity)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (removed) {
+                remove(type.cast(entity));
+            } else {
+                put(type.cast(entity));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reset() {
+        Map<String, DSIndexColumn> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            result.put(key, DSIndexColumn.of(DSAccessor.of(type, key)));
+        }
+        columns = result;
+        slots.clear();
+        freeSlots.clear();
+        live.clear();
+        rows = new Object[16];
+        slotCount = 0;
+    }
+
+    private void put(T entity) {
+        Object id = idAccessor.get(entity);
+        if (id == null) {
+            return;
+        }
+        Integer slot = slots.get(id);
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+            if (slot >= rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+            }
+            slots.put(id, slot);
+            live.set(slot);
+        }
+        rows[slot] = snapshot.apply(entity);
+        for (DSIndexColumn column : columns.values()) {
+            column.put(slot, entity);
+        }
+    }
+
+    private void remove(T entity) {
+        Integer slot = slots.remove(idAccessor.get(entity));
+        if (slot == null) {
+            return;
+        }
+        live.clear(slot);
+        rows[slot] = null;
+        for (DSIndexColumn column : columns.values()) {
+            column.clear(slot);
+        }
+        freeSlots.push(slot);
+    }
+
+    private BitSet match(List<DSCriteria> dsCriteriaList) {
+        if (CollectionUtils.isEmpty(dsCriteriaList)) {
+            return (BitSet) live.clone();
+        }
+        BitSet result = null;
+        for (DSCriteriaRun run : DSCriteriaRun.of(dsCriteriaList)) {
+            for (int idx = run.from(); idx < run.to(); idx++) {
+                DSCriteria dsCriteria = dsCriteriaList.get(idx);
+                if (result == null) {
+                    result = match(dsCriteria, live);
+                } else if (run.or()) {
+                    // only rows not matched yet can be added
+                    BitSet unmatched = (BitSet) live.clone();
+                    unmatched.andNot(result);
+                    result.or(match(dsCriteria, unmatched));
+                } else {
+                    // only rows matched so far can remain
+                    result = match(dsCriteria, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param scope rows to evaluate, a subset of the live rows
+     * @return rows of the scope matching the criteria
+     */
+    private BitSet match(DSCriteria dsCriteria, BitSet scope) {
+        DSIndexColumn column = columns.get(dsCriteria.key());
+        if (column == null) {
+            throw new InvalidCriteriaException(String.format("Key '%s' isn't indexed", dsCriteria.key()));
+        }
+        return column.match(dsCriteria, scope);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> page(BitSet matched, Pageable pageable) {
+        long skip = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        List<T> result = new ArrayList<>(Math.min(limit, matched.cardinality()));
+        for (int slot = matched.nextSetBit(0); slot >= 0 && result.size() < limit; slot = matched.nextSetBit(slot + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                result.add((T) rows[slot]);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> sortedPage(BitSet matched, Pageable pageable) {
+        List<Integer> slots = new ArrayList<>(matched.cardinality());
+        for (int slot = matched.nextSetBit(0); slot >= 0; slot = matched.nextSetBit(slot + 1)) {
+            slots.add(slot);
+        }
+        slots.sort(comparator(pageable.getSort()));
+        int from = pageable.isUnpaged() ? 0 : (int) Math.min(pageable.getOffset(), slots.size());
+        int to = pageable.isUnpaged() ? slots.size() : Math.min(from + pageable.getPageSize(), slots.size());
+        List<T> result = new ArrayList<>(to - from);
+        for (int slot : slots.subList(from, to)) {
+            result.add((T) rows[slot]);
+        }
+        return result;
+    }
+
+    /**
+     * @return comparator of slots by the sort, nulls sort first ascending unless the order specifies otherwise.
+     * Indexed properties are compared by the values of their columns, others by the values of the rows
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<Integer> comparator(Sort sort) {
+        Comparator<Integer> result = null;
+        for (Sort.Order order : sort) {
+            DSIndexColumn column = columns.get(order.getProperty());
+            DSAccessor accessor = column == null ? accessor(type, order.getProperty()) : null;
+            Comparator<Comparable> values = Comparator.naturalOrder();
+            boolean nullsFirst = switch (order.getNullHandling()) {
+                case NULLS_FIRST -> true;
+                case NULLS_LAST -> false;
+                case NATIVE -> order.isAscending();
+            };
+            if (order.isDescending()) {
+                values = values.reversed();
+            }
+            values = nullsFirst ? Comparator.nullsFirst(values) : Comparator.nullsLast(values);
+            Comparator<Integer> comparator = Comparator.comparing(
+                    slot -> (Comparable) (column != null ? column.get(slot) : accessor.get(rows[slot])), values);
+            result = result == null ? comparator : result.thenComparing(comparator);
+        }
+        return result;
+    }
+
+    private static DSAccessor accessor(Class<?> type, String key) {
+        DSAccessor accessor = DSAccessor.of(type, key);
+        if (!accessor.isSingleValued()) {
+            throw new InvalidCriteriaException(String.format("Key '%s' is multi-valued and can't be indexed", key));
+        }
+        return accessor;
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.index;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSAccessor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Column of dictionary-encoded values: each distinct value gets a code and slots hold codes. <br>
+ * While the column has few distinct values, a bitmap of slots is kept per code, so equality and IN are
+ * evaluated by bitmap operations only. Other operations test each distinct value once and collect its slots.
+ */
+final class DSDictionaryColumn extends DSIndexColumn {
+
+    /**
+     * Maximum number of distinct values keeping bitmaps per code, more distinct values scan the codes of slots
+     */
+    private static final int BITMAP_CARDINALITY = 1_024;
+
+    private final Map<Object, Integer> codes = new HashMap<>();
+
+    private final List<Object> dictionary = new ArrayList<>();
+
+    private List<BitSet> bitmaps = new ArrayList<>();
+
+    private int[] slotCodes = new int[0];
+
+    private final BitSet nulls = new BitSet();
+
+    DSDictionaryColumn(DSAccessor accessor) {
+        super(accessor);
+    }
+
+    @Override
+    void set(int slot, Object value) {
+        if (slot >= slotCodes.length) {
+            int length = slotCodes.length;
+            slotCodes = Arrays.copyOf(slotCodes, Math.max(length * 2, Math.max(slot + 1, 16)));
+            Arrays.fill(slotCodes, length, slotCodes.length, -1);
+        }
+        clear(slot);
+        if (value == null) {
+            nulls.set(slot);
+            return;
+        }
+        int code = encode(value);
+        slotCodes[slot] = code;
+        if (bitmaps != null) {
+            bitmaps.get(code).set(slot);
+        }
+    }
+
+    @Override
+    void clear(int slot) {
+        if (slot >= slotCodes.length) {
+            return;
+        }
+        int code = slotCodes[slot];
+        if (code >= 0 && bitmaps != null) {
+            bitmaps.get(code).clear(slot);
+        }
+        slotCodes[slot] = -1;
+        nulls.clear(slot);
+    }
+
+    @Override
+    Object get(int slot) {
+        int code = slot < slotCodes.length ? slotCodes[slot] : -1;
+        return code < 0 ? null : dictionary.get(code);
+    }
+
+    @Override
+    BitSet match(DSCriteria dsCriteria, BitSet live) {
+        boolean nullValue = dsCriteria.value() == null;
+        return switch (dsCriteria.operation()) {
+            case NUL -> and(live, nulls);
+            case NOT_NULL -> andNot(live, nulls);
+            case EQUAL -> nullValue ? and(live, nulls) : slots(codes(List.of(dsCriteria.value())), live);
+            case NOT_EQUAL -> nullValue
+                    ? andNot(live, nulls)
+                    : andNot(andNot(live, nulls), slots(codes(List.of(dsCriteria.value())), live));
+            case IN -> slots(codes(arrVal(dsCriteria)), live);
+            case NOT_IN -> {
+                List<?> list = arrVal(dsCriteria);
+                if (list.stream().anyMatch(Objects::isNull)) {
+                    // NOT IN of a list holding null is never true in SQL
+                    yield new BitSet();
+                }
+                yield andNot(andNot(live, nulls), slots(codes(list), live));
+            }
+            default -> {
+                Predicate<Object> test = test(dsCriteria);
+                BitSet matching = new BitSet();
+                for (int code = 0; code < dictionary.size(); code++) {
+                    if (test.test(dictionary.get(code))) {
+                        matching.set(code);
+                    }
+                }
+                BitSet result = slots(matching, live);
+                if (test.test(null)) {
+                    result.or(and(live, nulls));
+                }
+                yield result;
+            }
+        };
+    }
+
+    /**
+     * @return codes of the values, values missing from the dictionary have no code
+     */
+    private BitSet codes(List<?> values) {
+        BitSet result = new BitSet();
+        for (Object value : values) {
+            if (value != null) {
+                Integer code = codes.get(key(converter.apply(value)));
+                if (code != null) {
+                    result.set(code);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return live slots holding any of the codes
+     */
+    private BitSet slots(BitSet matching, BitSet live) {
+        if (bitmaps != null) {
+            BitSet result = new BitSet();
+            for (int code = matching.nextSetBit(0); code >= 0; code = matching.nextSetBit(code + 1)) {
+                result.or(bitmaps.get(code));
+            }
+            result.and(live);
+            return result;
+        }
+        int[] slotCodes = this.slotCodes;
+        return scan(live, slot -> slotCodes[slot] >= 0 && matching.get(slotCodes[slot]));
+    }
+
+    private int encode(Object value) {
+        Object key = key(value);
+        Integer code = codes.get(key);
+        if (code != null) {
+            return code;
+        }
+        code = dictionary.size();
+        codes.put(key, code);
+        dictionary.add(value);
+        if (bitmaps != null) {
+            if (dictionary.size() > BITMAP_CARDINALITY) {
+                bitmaps = null;
+            } else {
+                bitmaps.add(new BitSet());
+            }
+        }
+        return code;
+    }
+
+    /**
+     * @return dictionary key of the value, decimals are keyed regardless of their scale
+     */
+    private static Object key(Object value) {
+        return value instanceof BigDecimal decimal ? decimal.stripTrailingZeros() : value;
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.index;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSAccessor;
+import io.github.nickngn.dynamicsearch.builder.DSPredicateBuilder;
+import io.github.nickngn.dynamicsearch.builder.DSValueConverters;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Column of a {@link DSColumnarIndex} holding the values of a property per row slot
+ * and evaluating criteria on the property into bitmaps of matching slots. <br>
+ * Returned bitmaps are owned by the caller. Operations without a specialized evaluation are evaluated
+ * by the tests of {@link DSPredicateBuilder}, so they share its semantics.
+ */
+abstract class DSIndexColumn {
+
+    private static final Tests TESTS = new Tests();
+
+    protected final DSAccessor accessor;
+
+    protected final Function<Object, Object> converter;
+
+    protected DSIndexColumn(DSAccessor accessor) {
+        this.accessor = accessor;
+        this.converter = DSValueConverters.forType(accessor.getType());
+    }
+
+    /**
+     * @param accessor accessor of the indexed property
+     * @return column specialized for the type of the property
+     */
+    static DSIndexColumn of(DSAccessor accessor) {
+        Class<?> type = accessor.getType();
+        if (type == long.class || type == Long.class || type == int.class || type == Integer.class
+                || type == short.class || type == Short.class || type == byte.class || type == Byte.class) {
+            return new DSLongColumn(accessor);
+        }
+        return new DSDictionaryColumn(accessor);
+    }
+
+    /**
+     * Reads the property of the row into the slot, replacing the previous value
+     */
+    final void put(int slot, Object row) {
+        set(slot, accessor.get(row));
+    }
+
+    abstract void set(int slot, Object value);
+
+    /**
+     * Releases the value of a removed slot
+     */
+    abstract void clear(int slot);
+
+    /**
+     * @return value of the slot, as read from the row
+     */
+    abstract Object get(int slot);
+
+    /**
+     * @param dsCriteria criteria on the property
+     * @param live slots to evaluate, all of them holding rows
+     * @return slots of {@code live} matching the criteria
+     */
+    abstract BitSet match(DSCriteria dsCriteria, BitSet live);
+
+    /**
+     * @return slots matching the criteria, by testing the value of every row
+     */
+    protected BitSet matchAll(DSCriteria dsCriteria, BitSet live) {
+        Predicate<Object> test = TESTS.of(dsCriteria, accessor.getType());
+        return scan(live, slot -> test.test(get(slot)));
+    }
+
+    /**
+     * @return test of {@link DSPredicateBuilder} of the criteria
+     */
+    protected Predicate<Object> test(DSCriteria dsCriteria) {
+        return TESTS.of(dsCriteria, accessor.getType());
+    }
+
+    protected Object typedVal(DSCriteria dsCriteria) {
+        if (dsCriteria.value() == null) {
+            throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", dsCriteria.operation()));
+        }
+        return converter.apply(dsCriteria.value());
+    }
+
+    protected static List<?> arrVal(DSCriteria dsCriteria) {
+        if (dsCriteria.value() instanceof List<?> val) {
+            return val;
+        }
+        return Collections.singletonList(dsCriteria.value());
+    }
+
+    /**
+     * @return slots passing the test, evaluated word by word of the bitmap
+     */
+    protected static BitSet scan(BitSet slots, IntPredicate test) {
+        long[] words = slots.toLongArray();
+        for (int idx = 0; idx < words.length; idx++) {
+            long word = words[idx];
+            long matched = 0;
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                if (test.test((idx << 6) + bit)) {
+                    matched |= 1L << bit;
+                }
+                word &= word - 1;
+            }
+            words[idx] = matched;
+        }
+        return BitSet.valueOf(words);
+    }
+
+    protected static BitSet and(BitSet left, BitSet right) {
+        BitSet result = (BitSet) left.clone();
+        result.and(right);
+        return result;
+    }
+
+    protected static BitSet andNot(BitSet left, BitSet right) {
+        BitSet result = (BitSet) left.clone();
+        result.andNot(right);
+        return result;
+    }
+
+    /**
+     * Exposes the property tests of {@link DSPredicateBuilder} to the columns
+     */
+    private static final class Tests extends DSPredicateBuilder<Object> {
+
+        private Tests() {
+            super(Object.class);
+        }
+
+        private Predicate<Object> of(DSCriteria dsCriteria, Class<?> propertyType) {
+            return toTest(dsCriteria, propertyType);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.index;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSAccessor;
+import io.github.nickngn.dynamicsearch.builder.DSPrimitiveLists;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Column of integral values stored as primitive longs, evaluated by scanning the values of live slots
+ */
+final class DSLongColumn extends DSIndexColumn {
+
+    private long[] values = new long[16];
+
+    private final BitSet nulls = new BitSet();
+
+    DSLongColumn(DSAccessor accessor) {
+        super(accessor);
+    }
+
+    @Override
+    void set(int slot, Object value) {
+        if (slot >= values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, slot + 1));
+        }
+        if (value == null) {
+            nulls.set(slot);
+        } else {
+            nulls.clear(slot);
+            values[slot] = ((Number) value).longValue();
+        }
+    }
+
+    @Override
+    void clear(int slot) {
+        nulls.clear(slot);
+    }
+
+    @Override
+    Object get(int slot) {
+        return nulls.get(slot) ? null : converter.apply(values[slot]);
+    }
+
+    @Override
+    BitSet match(DSCriteria dsCriteria, BitSet live) {
+        boolean nullValue = dsCriteria.value() == null;
+        BitSet present = andNot(live, nulls);
+        long[] values = this.values;
+        return switch (dsCriteria.operation()) {
+            case NUL -> and(live, nulls);
+            case NOT_NULL -> present;
+            case EQUAL -> {
+                if (nullValue) {
+                    yield and(live, nulls);
+                }
+                long value = longVal(dsCriteria);
+                yield scan(present, slot -> values[slot] == value);
+            }
+            case NOT_EQUAL -> {
+                if (nullValue) {
+                    yield present;
+                }
+                long value = longVal(dsCriteria);
+                yield scan(present, slot -> values[slot] != value);
+            }
+            case GREATER_THAN -> {
+                long value = longVal(dsCriteria);
+                yield scan(present, slot -> values[slot] > value);
+            }
+            case GREATER_THAN_EQUAL -> {
+                long value = longVal(dsCriteria);
+                yield scan(present, slot -> values[slot] >= value);
+            }
+            case LESS_THAN -> {
+                long value = longVal(dsCriteria);
+                yield scan(present, slot -> values[slot] < value);
+            }
+            case LESS_THAN_EQUAL -> {
+                long value = longVal(dsCriteria);
+                yield scan(present, slot -> values[slot] <= value);
+            }
+            case IN -> {
+                long[] sorted = sortedVal(arrVal(dsCriteria));
+                yield scan(present, slot -> Arrays.binarySearch(sorted, values[slot]) >= 0);
+            }
+            case NOT_IN -> {
+                List<?> list = arrVal(dsCriteria);
+                if (list.stream().anyMatch(Objects::isNull)) {
+                    // NOT IN of a list holding null is never true in SQL
+                    yield new BitSet();
+                }
+                long[] sorted = sortedVal(list);
+                yield scan(present, slot -> Arrays.binarySearch(sorted, values[slot]) < 0);
+            }
+            default -> matchAll(dsCriteria, live);
+        };
+    }
+
+    private long longVal(DSCriteria dsCriteria) {
+        return ((Number) typedVal(dsCriteria)).longValue();
+    }
+
+    private long[] sortedVal(List<?> list) {
+        Class<?> type = accessor.getType();
+        boolean wide = type == long.class || type == Long.class;
+        // primitive values of the same or a narrower type need no conversion
+        if (list instanceof DSPrimitiveLists.Longs longs && wide) {
+            long[] result = longs.toLongArray();
+            Arrays.sort(result);
+            return result;
+        }
+        if (list instanceof DSPrimitiveLists.Ints ints && (wide || type == int.class || type == Integer.class)) {
+            long[] result = new long[ints.size()];
+            for (int idx = 0; idx < result.length; idx++) {
+                result[idx] = ints.getInt(idx);
+            }
+            Arrays.sort(result);
+            return result;
+        }
+        long[] result = new long[list.size()];
+        int size = 0;
+        for (Object value : list) {
+            if (value != null) {
+                result[size++] = ((Number) converter.apply(value)).longValue();
+            }
+        }
+        result = Arrays.copyOf(result, size);
+        Arrays.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.json;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Limits enforced by {@link DSTemplateDeserializer} while reading criteria
+ */
+@Getter
+@Builder(toBuilder = true)
+public final class DSJsonOptions {
+
+    private static final DSJsonOptions DEFAULTS = DSJsonOptions.builder().build();
+
+    /**
+     * Maximum number of criteria of a template
+     */
+    @Builder.Default
+    private final int maxCriteria = 100;
+
+    /**
+     * Maximum number of values of an IN/NOT_IN criteria
+     */
+    @Builder.Default
+    private final int maxValues = 10_000;
+
+    /**
+     * Maximum length of a key or a text value
+     */
+    @Builder.Default
+    private final int maxTextLength = 4096;
+
+    public static DSJsonOptions defaults() {
+        return DEFAULTS;
+    }
+}
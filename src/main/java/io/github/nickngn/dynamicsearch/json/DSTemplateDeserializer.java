@@ -0,0 +1,364 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBase;
+import com.fasterxml.jackson.databind.deser.std.DelegatingDeserializer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.builder.DSPrimitiveLists;
+import io.github.nickngn.dynamicsearch.builder.DSValueConverters;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import io.github.nickngn.dynamicsearch.validation.CriteriaValidator;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Deserializer of {@link DSTemplate} subclasses reading criteria token by token, so invalid or oversized payloads
+ * are rejected while parsing instead of after being materialized. <br>
+ * Keys are checked against {@link DSTemplate#getReferenceClass()} as soon as they are read, and the number of criteria,
+ * the number of IN/NOT_IN values and the length of texts are bounded by {@link DSJsonOptions}.
+ * IN/NOT_IN values of {@code long}, {@code int} and {@code double} fields are read into {@link DSPrimitiveLists}
+ * without boxing, other values are read as by default. Operations are read by name or by short code. <br>
+ * Other properties of the template are deserialized by the default bean deserializer.
+ * Constraints of the reference class are still checked by {@link CriteriaValidator}.
+ */
+public class DSTemplateDeserializer extends DelegatingDeserializer {
+
+    private static final String CRITERIA = "criteria";
+
+    private final DSJsonOptions options;
+
+    public DSTemplateDeserializer(JsonDeserializer<?> delegatee, DSJsonOptions options) {
+        super(delegatee);
+        this.options = options;
+    }
+
+    @Override
+    protected JsonDeserializer<?> newDelegatingInstance(JsonDeserializer<?> newDelegatee) {
+        return new DSTemplateDeserializer(newDelegatee, options);
+    }
+
+    @Override
+    public Object deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (!p.isExpectedStartObjectToken() || !(_delegatee instanceof BeanDeserializerBase bean)
+                || !bean.getValueInstantiator().canCreateUsingDefault()) {
+            return super.deserialize(p, ctxt);
+        }
+        return deserialize(p, ctxt, bean.getValueInstantiator().createUsingDefault(ctxt));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object deserialize(JsonParser p, DeserializationContext ctxt, Object intoValue) throws IOException {
+        DSTemplate template = (DSTemplate) intoValue;
+        TokenBuffer others = ctxt.bufferForInputBuffering(p);
+        others.writeStartObject();
+        boolean hasCriteria = false;
+        List<DSCriteria> criteria = null;
+        String name = p.isExpectedStartObjectToken() ? p.nextFieldName() : p.currentName();
+        for (; name != null; name = p.nextFieldName()) {
+            p.nextToken();
+            if (CRITERIA.equals(name)) {
+                criteria = readCriteriaList(p, ctxt, template.getReferenceClass());
+                hasCriteria = true;
+            } else {
+                others.writeFieldName(name);
+                others.copyCurrentStructure(p);
+            }
+        }
+        others.writeEndObject();
+
+        JsonParser rest = others.asParser(p);
+        rest.nextToken();
+        ((JsonDeserializer<Object>) _delegatee).deserialize(rest, ctxt, template);
+        if (hasCriteria) {
+            template.setCriteria(criteria);
+        }
+        return template;
+    }
+
+    private List<DSCriteria> readCriteriaList(JsonParser p, DeserializationContext ctxt, Class<?> refClass)
+            throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!p.isExpectedStartArrayToken()) {
+            ctxt.reportWrongTokenException(DSCriteria.class, JsonToken.START_ARRAY, "Criteria must be an array");
+        }
+        List<DSCriteria> result = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (result.size() == options.getMaxCriteria()) {
+                ctxt.reportInputMismatch(DSCriteria.class, "Template has more than %d criteria", options.getMaxCriteria());
+            }
+            result.add(readCriteria(p, ctxt, refClass));
+        }
+        return result;
+    }
+
+    private DSCriteria readCriteria(JsonParser p, DeserializationContext ctxt, Class<?> refClass) throws IOException {
+        if (!p.isExpectedStartObjectToken()) {
+            ctxt.reportWrongTokenException(DSCriteria.class, JsonToken.START_OBJECT, "Criteria must be an object");
+        }
+        String key = null;
+        Class<?> type = null;
+        DSOperation operation = null;
+        Object value = null;
+        boolean typed = false;
+        Boolean isOr = null;
+        for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+            JsonToken token = p.nextToken();
+            switch (name) {
+                case "key" -> {
+                    key = text(p, ctxt);
+                    type = refClass != null ? searchableType(ctxt, refClass, key) : null;
+                }
+                case "operation" -> operation = operation(p, ctxt);
+                case "value" -> {
+                    // the value is read into the type of the field when the key and operation come first
+                    typed = key != null && operation != null;
+                    value = typed && isList(operation) && token == JsonToken.START_ARRAY
+                            ? readValues(p, ctxt, type)
+                            : readValue(p, ctxt, true);
+                }
+                case "isOr" -> {
+                    if (token != JsonToken.VALUE_NULL && !token.isBoolean()) {
+                        ctxt.reportInputMismatch(DSCriteria.class, "Connector of criteria must be a boolean");
+                    }
+                    isOr = token == JsonToken.VALUE_NULL ? null : p.getBooleanValue();
+                }
+                default -> ctxt.handleUnknownProperty(p, null, DSCriteria.class, name);
+            }
+        }
+        if (key == null) {
+            ctxt.reportInputMismatch(DSCriteria.class, "Missing key of criteria");
+        }
+        if (operation == null) {
+            ctxt.reportInputMismatch(DSCriteria.class, "Missing operation of criteria '%s'", key);
+        }
+        if (!typed && isList(operation) && value instanceof List<?> values) {
+            value = toPrimitives(ctxt, values, type);
+        }
+        return new DSCriteria(key, operation, value, isOr);
+    }
+
+    private static Class<?> searchableType(DeserializationContext ctxt, Class<?> refClass, String key)
+            throws IOException {
+        Class<?> type = CriteriaValidator.searchableType(refClass, key);
+        if (type == null) {
+            ctxt.reportInputMismatch(DSCriteria.class, "Field '%s' isn't allowed searchable key", key);
+        }
+        return type;
+    }
+
+    private DSOperation operation(JsonParser p, DeserializationContext ctxt) throws IOException {
+        String text = text(p, ctxt);
+        try {
+            return DSOperation.valueOf(text);
+        } catch (IllegalArgumentException ex) {
+            DSOperation operation = DSOperation.getSimpleOperation(text);
+            if (operation == null) {
+                ctxt.reportInputMismatch(DSCriteria.class, "Unknown operation '%s'", text);
+            }
+            return operation;
+        }
+    }
+
+    /**
+     * Reads IN/NOT_IN values of a primitive field into a primitive array, falls back to boxed values on null
+     */
+    private Object readValues(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        Class<?> target = type != null ? ClassUtils.resolvePrimitiveIfNecessary(type) : null;
+        boolean integral = target == Long.class || target == Integer.class;
+        if (!integral && target != Double.class) {
+            return readValue(p, ctxt, true);
+        }
+        long[] longs = integral ? new long[16] : null;
+        double[] doubles = integral ? null : new double[16];
+        int size = 0;
+        for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            checkSize(ctxt, size);
+            if (token == JsonToken.VALUE_NULL) {
+                List<Object> values = new ArrayList<>(size + 16);
+                for (int idx = 0; idx < size; idx++) {
+                    values.add(integral ? DSValueConverters.convert(longs[idx], target) : doubles[idx]);
+                }
+                values.add(null);
+                return readRemaining(p, ctxt, values);
+            }
+            if (integral) {
+                if (size == longs.length) {
+                    longs = Arrays.copyOf(longs, size * 2);
+                }
+                longs[size++] = longValue(p, ctxt, token, target);
+            } else {
+                if (size == doubles.length) {
+                    doubles = Arrays.copyOf(doubles, size * 2);
+                }
+                doubles[size++] = token.isNumeric() ? p.getDoubleValue() : ((Number) convert(p, ctxt, token, target)).doubleValue();
+            }
+        }
+        if (target == Long.class) {
+            return DSPrimitiveLists.of(Arrays.copyOf(longs, size));
+        }
+        if (target == Integer.class) {
+            int[] ints = new int[size];
+            for (int idx = 0; idx < size; idx++) {
+                ints[idx] = (int) longs[idx];
+            }
+            return DSPrimitiveLists.of(ints);
+        }
+        return DSPrimitiveLists.of(Arrays.copyOf(doubles, size));
+    }
+
+    private long longValue(JsonParser p, DeserializationContext ctxt, JsonToken token, Class<?> target) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            JsonParser.NumberType numberType = p.getNumberType();
+            if (numberType == JsonParser.NumberType.INT || numberType == JsonParser.NumberType.LONG && target == Long.class) {
+                return p.getLongValue();
+            }
+        }
+        return ((Number) convert(p, ctxt, token, target)).longValue();
+    }
+
+    private Object convert(JsonParser p, DeserializationContext ctxt, JsonToken token, Class<?> target) throws IOException {
+        Object value;
+        if (token == JsonToken.VALUE_STRING) {
+            value = text(p, ctxt);
+        } else if (token.isNumeric()) {
+            value = token == JsonToken.VALUE_NUMBER_INT ? p.getNumberValue() : p.getDecimalValue();
+        } else {
+            return ctxt.reportInputMismatch(DSCriteria.class, "Value of criteria must be a number");
+        }
+        try {
+            return DSValueConverters.convert(value, target);
+        } catch (InvalidCriteriaException ex) {
+            return ctxt.reportInputMismatch(DSCriteria.class, ex.getMessage());
+        }
+    }
+
+    /**
+     * Converts IN/NOT_IN values read before the key or the operation
+     */
+    private Object toPrimitives(DeserializationContext ctxt, List<?> values, Class<?> type) throws IOException {
+        Class<?> target = type != null ? ClassUtils.resolvePrimitiveIfNecessary(type) : null;
+        if (target != Long.class && target != Integer.class && target != Double.class || values.contains(null)) {
+            return values;
+        }
+        try {
+            if (target == Long.class) {
+                long[] result = new long[values.size()];
+                for (int idx = 0; idx < result.length; idx++) {
+                    result[idx] = (Long) DSValueConverters.convert(values.get(idx), target);
+                }
+                return DSPrimitiveLists.of(result);
+            }
+            if (target == Integer.class) {
+                int[] result = new int[values.size()];
+                for (int idx = 0; idx < result.length; idx++) {
+                    result[idx] = (Integer) DSValueConverters.convert(values.get(idx), target);
+                }
+                return DSPrimitiveLists.of(result);
+            }
+            double[] result = new double[values.size()];
+            for (int idx = 0; idx < result.length; idx++) {
+                result[idx] = (Double) DSValueConverters.convert(values.get(idx), target);
+            }
+            return DSPrimitiveLists.of(result);
+        } catch (InvalidCriteriaException ex) {
+            return ctxt.reportInputMismatch(DSCriteria.class, ex.getMessage());
+        }
+    }
+
+    /**
+     * Reads a scalar or, on top level, an array of scalars as the default untyped deserializer does
+     */
+    private Object readValue(JsonParser p, DeserializationContext ctxt, boolean topLevel) throws IOException {
+        JsonToken token = p.currentToken();
+        switch (token) {
+            case VALUE_STRING:
+                return text(p, ctxt);
+            case VALUE_NUMBER_INT:
+                return p.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                return ctxt.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                        ? p.getDecimalValue()
+                        : Double.valueOf(p.getDoubleValue());
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return p.getBooleanValue();
+            case VALUE_NULL:
+                return null;
+            case START_ARRAY:
+                if (topLevel) {
+                    return readRemaining(p, ctxt, new ArrayList<>());
+                }
+                break;
+            default:
+                break;
+        }
+        return ctxt.reportInputMismatch(DSCriteria.class, "Value of criteria must be a scalar or an array of scalars");
+    }
+
+    private List<Object> readRemaining(JsonParser p, DeserializationContext ctxt, List<Object> values) throws IOException {
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            checkSize(ctxt, values.size());
+            values.add(readValue(p, ctxt, false));
+        }
+        return values;
+    }
+
+    private void checkSize(DeserializationContext ctxt, int size) throws IOException {
+        if (size == options.getMaxValues()) {
+            ctxt.reportInputMismatch(DSCriteria.class, "Criteria has more than %d values", options.getMaxValues());
+        }
+    }
+
+    private String text(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            ctxt.reportWrongTokenException(DSCriteria.class, JsonToken.VALUE_STRING, "Expected a text of criteria");
+        }
+        if (p.getTextLength() > options.getMaxTextLength()) {
+            ctxt.reportInputMismatch(DSCriteria.class, "Text of criteria is longer than %d characters",
+                    options.getMaxTextLength());
+        }
+        return p.getText();
+    }
+
+    private static boolean isList(DSOperation operation) {
+        return operation == DSOperation.IN || operation == DSOperation.NOT_IN;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.metrics;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+import io.github.nickngn.dynamicsearch.builder.DSInStrategy;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Default {@link DSSearchMetrics} of validation, builders and search execution, and helpers measuring stages. <br>
+ * Builders and executors use the metrics injected into them, eg: by
+ * {@link io.github.nickngn.dynamicsearch.builder.DSBuilderOptions#getMetrics()}, and fall back to the default ones.
+ * Several metrics can be installed as default, eg: by several application contexts. The last installed one is used,
+ * uninstalling it restores the previous one. <br>
+ * Metrics are disabled by default, disabled metrics cost a single volatile read per measured stage.
+ */
+@UtilityClass
+public final class DSMetrics {
+
+    // IN lists are rendered as a single parameter, so their sizes don't multiply the shapes
+    private static final DSInStrategy SHAPE_IN_STRATEGY = DSInStrategy.none().withArrayParameter(true);
+
+    private static final List<DSSearchMetrics> INSTALLED = new ArrayList<>();
+
+    private static volatile DSSearchMetrics metrics = DSSearchMetrics.NOOP;
+
+    /**
+     * @return default metrics, {@link DSSearchMetrics#NOOP} if none is installed
+     */
+    public static DSSearchMetrics get() {
+        return metrics;
+    }
+
+    /**
+     * @param searchMetrics metrics to use by default until they are uninstalled
+     */
+    public static void install(DSSearchMetrics searchMetrics) {
+        synchronized (INSTALLED) {
+            INSTALLED.add(searchMetrics);
+            metrics = searchMetrics;
+        }
+    }
+
+    /**
+     * @param searchMetrics installed metrics, the previously installed ones are used by default again
+     */
+    public static void uninstall(DSSearchMetrics searchMetrics) {
+        synchronized (INSTALLED) {
+            INSTALLED.remove(searchMetrics);
+            metrics = INSTALLED.isEmpty() ? DSSearchMetrics.NOOP : INSTALLED.get(INSTALLED.size() - 1);
+        }
+    }
+
+    /**
+     * @param searchMetrics injected metrics, null to use the default ones
+     * @return the injected metrics, or the default ones
+     */
+    public static DSSearchMetrics resolve(DSSearchMetrics searchMetrics) {
+        return searchMetrics != null ? searchMetrics : metrics;
+    }
+
+    public static boolean isEnabled() {
+        return metrics != DSSearchMetrics.NOOP;
+    }
+
+    /**
+     * @param dsCriteriaList searched criteria
+     * @return shape to tag measurements of the default metrics with, null if they are disabled
+     */
+    public static DSCriteriaShape shape(List<DSCriteria> dsCriteriaList) {
+        return shape(metrics, dsCriteriaList);
+    }
+
+    /**
+     * @param searchMetrics metrics receiving the measurements
+     * @param dsCriteriaList searched criteria
+     * @return shape to tag measurements with, null if the metrics are disabled
+     */
+    public static DSCriteriaShape shape(DSSearchMetrics searchMetrics, List<DSCriteria> dsCriteriaList) {
+        return searchMetrics != DSSearchMetrics.NOOP ? DSCriteriaShape.of(dsCriteriaList, SHAPE_IN_STRATEGY) : null;
+    }
+
+    /**
+     * Runs and measures a stage by the default metrics
+     * @see #timed(DSSearchMetrics, DSSearchMetrics.Stage, Class, DSCriteriaShape, Supplier)
+     */
+    public static <R> R timed(DSSearchMetrics.Stage stage, Class<?> entityType, DSCriteriaShape shape, Supplier<R> action) {
+        return timed(metrics, stage, entityType, shape, action);
+    }
+
+    /**
+     * Runs and measures a stage
+     * @param searchMetrics metrics receiving the measurement
+     * @param stage measured stage
+     * @param entityType searched entity or reference class, null if unknown
+     * @param shape shape of the searched criteria, null if unknown
+     * @param action stage to run
+     * @param <R> result type
+     * @return result of the stage
+     */
+    public static <R> R timed(DSSearchMetrics searchMetrics, DSSearchMetrics.Stage stage, Class<?> entityType,
+                              DSCriteriaShape shape, Supplier<R> action) {
+        if (searchMetrics == DSSearchMetrics.NOOP) {
+            return action.get();
+        }
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            searchMetrics.record(stage, entityType, shape, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.metrics;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DSSearchMetrics} publishing to Micrometer:
+ * <ul>
+ *     <li>{@code dynamic.search.stage}: timer per stage, entity and shape</li>
+ *     <li>{@code dynamic.search.events}: counter per event and entity</li>
+ *     <li>{@code dynamic.search.criteria.size}: histogram of the number of criteria per search</li>
+ *     <li>{@code dynamic.search.in.size}: histogram of the number of values per IN/NOT_IN list</li>
+ * </ul>
+ * Shapes are tagged by their hash. Only the first shapes up to the configured maximum get their own tag,
+ * further ones are tagged {@code other}, so the cardinality of the timers stays bounded.
+ */
+public class DSMicrometerMetrics implements DSSearchMetrics, AutoCloseable {
+
+    private static final String NONE = "none";
+
+    private static final String OTHER = "other";
+
+    private record TimerKey(Stage stage, Class<?> entityType, String shape) {
+    }
+
+    private record EventKey(Event event, Class<?> entityType) {
+    }
+
+    private final MeterRegistry registry;
+
+    private final int maximumShapeTags;
+
+    private final Map<DSCriteriaShape, String> shapeTags = new ConcurrentHashMap<>();
+
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<EventKey, Counter> counters = new ConcurrentHashMap<>();
+
+    private final Map<Class<?>, DistributionSummary[]> summaries = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry registry of the meters
+     * @param maximumShapeTags maximum number of distinct shape tags
+     */
+    public DSMicrometerMetrics(MeterRegistry registry, int maximumShapeTags) {
+        this.registry = registry;
+        this.maximumShapeTags = maximumShapeTags;
+    }
+
+    @Override
+    public void record(Stage stage, Class<?> entityType, DSCriteriaShape shape, long nanos) {
+        TimerKey key = new TimerKey(stage, entityType, shapeTag(shape));
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> Timer.builder("dynamic.search.stage")
+                    .description("Duration of a stage of dynamic searches")
+                    .tag("stage", k.stage().name().toLowerCase())
+                    .tag("entity", entityTag(k.entityType()))
+                    .tag("shape", k.shape())
+                    .register(registry));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordCriteria(Class<?> entityType, List<DSCriteria> dsCriteriaList) {
+        DistributionSummary[] entitySummaries = summaries.get(entityType);
+        if (entitySummaries == null) {
+            entitySummaries = summaries.computeIfAbsent(entityType, type -> new DistributionSummary[]{
+                    DistributionSummary.builder("dynamic.search.criteria.size")
+                            .description("Number of criteria per dynamic search")
+                            .tag("entity", entityTag(type))
+                            .publishPercentileHistogram()
+                            .register(registry),
+                    DistributionSummary.builder("dynamic.search.in.size")
+                            .description("Number of values per IN/NOT_IN list of dynamic searches")
+                            .tag("entity", entityTag(type))
+                            .publishPercentileHistogram()
+                            .register(registry)});
+        }
+        entitySummaries[0].record(dsCriteriaList.size());
+        for (DSCriteria dsCriteria : dsCriteriaList) {
+            if (dsCriteria.operation() == DSOperation.IN || dsCriteria.operation() == DSOperation.NOT_IN) {
+                entitySummaries[1].record(dsCriteria.value() instanceof List<?> values ? values.size() : 1);
+            }
+        }
+    }
+
+    @Override
+    public void count(Event event, Class<?> entityType) {
+        EventKey key = new EventKey(event, entityType);
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(key, k -> Counter.builder("dynamic.search.events")
+                    .description("Outcomes of dynamic searches")
+                    .tag("event", k.event().name().toLowerCase())
+                    .tag("entity", entityTag(k.entityType()))
+                    .register(registry));
+        }
+        counter.increment();
+    }
+
+    /**
+     * Uninstalls the metrics from the defaults of {@link DSMetrics}, if installed
+     */
+    @Override
+    public void close() {
+        DSMetrics.uninstall(this);
+    }
+
+    private String shapeTag(DSCriteriaShape shape) {
+        if (shape == null) {
+            return NONE;
+        }
+        String tag = shapeTags.get(shape);
+        if (tag != null) {
+            return tag;
+        }
+        if (shapeTags.size() >= maximumShapeTags) {
+            return OTHER;
+        }
+        return shapeTags.computeIfAbsent(shape, key -> Integer.toHexString(key.hashCode()));
+    }
+
+    private static String entityTag(Class<?> entityType) {
+        return entityType != null ? entityType.getSimpleName() : NONE;
+    }
+}
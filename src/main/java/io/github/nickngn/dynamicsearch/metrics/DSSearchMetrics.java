@@ -0,0 +1,93 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.metrics;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+
+import java.util.List;
+
+/**
+ * Receives measurements of the search pipeline, see {@link DSMetrics}
+ */
+public interface DSSearchMetrics {
+
+    /**
+     * Measured stages of a search
+     */
+    enum Stage {
+        VALIDATE, NORMALIZE, BUILD, EXECUTE, COUNT
+    }
+
+    /**
+     * Counted outcomes of a search
+     */
+    enum Event {
+        /**
+         * criteria rejected by validation
+         */
+        INVALID,
+        /**
+         * criteria provably matching nothing, so no query was executed
+         */
+        MATCHING_NOTHING
+    }
+
+    DSSearchMetrics NOOP = new DSSearchMetrics() {
+        @Override
+        public void record(Stage stage, Class<?> entityType, DSCriteriaShape shape, long nanos) {
+        }
+
+        @Override
+        public void recordCriteria(Class<?> entityType, List<DSCriteria> dsCriteriaList) {
+        }
+
+        @Override
+        public void count(Event event, Class<?> entityType) {
+        }
+    };
+
+    /**
+     * @param stage measured stage
+     * @param entityType searched entity or reference class, null if unknown
+     * @param shape shape of the searched criteria, null if unknown
+     * @param nanos duration of the stage
+     */
+    void record(Stage stage, Class<?> entityType, DSCriteriaShape shape, long nanos);
+
+    /**
+     * Records the size of the criteria list and of its IN lists
+     * @param entityType searched entity
+     * @param dsCriteriaList searched criteria
+     */
+    void recordCriteria(Class<?> entityType, List<DSCriteria> dsCriteriaList);
+
+    /**
+     * @param event counted event
+     * @param entityType searched entity or reference class, null if unknown
+     */
+    void count(Event event, Class<?> entityType);
+}
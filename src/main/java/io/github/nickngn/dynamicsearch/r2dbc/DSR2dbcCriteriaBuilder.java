@@ -0,0 +1,251 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.r2dbc;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.builder.ConditionalBuilder;
+import io.github.nickngn.dynamicsearch.builder.DSBuilderOptions;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaNormalizer;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaOrdering;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaRun;
+import io.github.nickngn.dynamicsearch.builder.DSNormalizedCriteria;
+import io.github.nickngn.dynamicsearch.builder.DSValueConverters;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import io.github.nickngn.dynamicsearch.metrics.DSMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Builder to convert {@link List} of {@link DSCriteria} into Spring Data R2DBC {@link Criteria}
+ * with the operation semantics of {@link io.github.nickngn.dynamicsearch.builder.DSSpecification}. <br>
+ * Criteria are combined from left to right as described by {@link DSCriteriaRun}, each run after the first one
+ * takes the previous runs as a parenthesized group. Values are converted to the Java type of the searched
+ * property by {@link DSValueConverters}. <br>
+ * R2DBC queries don't join, so dotted keys are rejected.
+ * @param <T> searching entity
+ */
+public class DSR2dbcCriteriaBuilder<T> implements ConditionalBuilder<Criteria> {
+
+    private final Class<T> domainClass;
+
+    private final DSBuilderOptions options;
+
+    private final MappingContext<? extends RelationalPersistentEntity<?>, ? extends RelationalPersistentProperty> mappingContext;
+
+    private volatile String idProperty;
+
+    public DSR2dbcCriteriaBuilder(Class<T> domainClass) {
+        this(domainClass, DSBuilderOptions.defaults());
+    }
+
+    /**
+     * @param domainClass searching entity
+     * @param options builder options, plan caching and fetch joins don't apply to R2DBC criteria
+     */
+    public DSR2dbcCriteriaBuilder(Class<T> domainClass, DSBuilderOptions options) {
+        this(domainClass, options, new R2dbcMappingContext());
+    }
+
+    /**
+     * @param domainClass searching entity
+     * @param options builder options, plan caching and fetch joins don't apply to R2DBC criteria
+     * @param mappingContext mapping context of the entity, eg: of {@link R2dbcConverter#getMappingContext()}
+     */
+    public DSR2dbcCriteriaBuilder(Class<T> domainClass, DSBuilderOptions options,
+                                  MappingContext<? extends RelationalPersistentEntity<?>, ? extends RelationalPersistentProperty> mappingContext) {
+        this.domainClass = domainClass;
+        this.options = options;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public Criteria build(List<DSCriteria> dsCriteriaList) {
+        if (CollectionUtils.isEmpty(dsCriteriaList)) {
+            return Criteria.empty();
+        }
+        return build(normalize(dsCriteriaList));
+    }
+
+    /**
+     * @param normalized criteria already normalized by {@link #normalize(List)}
+     * @return criteria of the list, matching nothing if the criteria provably match nothing
+     */
+    public Criteria build(DSNormalizedCriteria normalized) {
+        if (normalized.empty()) {
+            return matchingNothing();
+        }
+        List<DSCriteria> dsCriteriaList = normalized.criteria();
+        if (CollectionUtils.isEmpty(dsCriteriaList)) {
+            return Criteria.empty();
+        }
+        DSSearchMetrics metrics = DSMetrics.resolve(options.getMetrics());
+        if (metrics == DSSearchMetrics.NOOP) {
+            return combine(dsCriteriaList);
+        }
+        return DSMetrics.timed(metrics, DSSearchMetrics.Stage.BUILD, domainClass, DSMetrics.shape(metrics, dsCriteriaList),
+                () -> combine(dsCriteriaList));
+    }
+
+    /**
+     * @param dsCriteriaList criteria to normalize
+     * @return criteria normalized by {@link DSCriteriaNormalizer}, unchanged if normalization is disabled
+     */
+    public DSNormalizedCriteria normalize(List<DSCriteria> dsCriteriaList) {
+        if (!options.isNormalizeCriteria()) {
+            return DSNormalizedCriteria.of(dsCriteriaList != null ? dsCriteriaList : List.of());
+        }
+        return DSCriteriaNormalizer.normalize(dsCriteriaList, domainClass);
+    }
+
+    public Class<T> getDomainClass() {
+        return domainClass;
+    }
+
+    /**
+     * @return criteria matching no row: IS NULL AND IS NOT NULL of the id property is false in every dialect
+     */
+    private Criteria matchingNothing() {
+        String id = idProperty;
+        if (id == null) {
+            RelationalPersistentProperty property = mappingContext.getRequiredPersistentEntity(domainClass).getIdProperty();
+            if (property == null) {
+                throw new InvalidCriteriaException(String.format("%s has no id property", domainClass.getSimpleName()));
+            }
+            idProperty = id = property.getName();
+        }
+        return Criteria.where(id).isNull().and(id).isNotNull();
+    }
+
+    private Criteria combine(List<DSCriteria> dsCriteriaList) {
+        if (options.getSelectivityEstimator() != null) {
+            dsCriteriaList = DSCriteriaOrdering.reorder(dsCriteriaList, options.getSelectivityEstimator());
+        }
+        Criteria result = null;
+        for (DSCriteriaRun run : DSCriteriaRun.of(dsCriteriaList)) {
+            int from = run.from();
+            if (result == null) {
+                result = toCriteria(dsCriteriaList.get(from++));
+            } else {
+                result = Criteria.empty().and(result);
+            }
+            for (int idx = from; idx < run.to(); idx++) {
+                Criteria criteria = toCriteria(dsCriteriaList.get(idx));
+                result = run.or() ? result.or(criteria) : result.and(criteria);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param dsCriteria criteria to convert
+     * @return R2DBC criteria of a single condition
+     */
+    protected Criteria toCriteria(DSCriteria dsCriteria) {
+        String key = dsCriteria.key();
+        if (key.indexOf('.') >= 0) {
+            throw new InvalidCriteriaException(String.format("Nested key '%s' isn't supported by R2DBC criteria", key));
+        }
+        Object value = dsCriteria.value();
+        Criteria.CriteriaStep step = Criteria.where(key);
+        return switch (dsCriteria.operation()) {
+            case CONTAINS -> value == null ? step.isNull() : step.like("%" + value + "%");
+            case DOES_NOT_CONTAIN -> value == null ? step.isNotNull() : step.notLike("%" + value + "%");
+            case EQUAL -> value == null ? step.isNull() : step.is(typedVal(dsCriteria));
+            case NOT_EQUAL -> value == null ? step.isNotNull() : step.not(typedVal(dsCriteria));
+            case BEGINS_WITH -> value == null ? step.isNull() : step.like(value + "%");
+            case DOES_NOT_BEGIN_WITH -> value == null ? step.isNotNull() : step.notLike(value + "%");
+            case ENDS_WITH -> value == null ? step.isNull() : step.like("%" + value);
+            case DOES_NOT_END_WITH -> value == null ? step.isNotNull() : step.notLike("%" + value);
+            case NUL -> step.isNull();
+            case NOT_NULL -> step.isNotNull();
+            case GREATER_THAN -> step.greaterThan(comparableVal(dsCriteria));
+            case GREATER_THAN_EQUAL -> step.greaterThanOrEquals(comparableVal(dsCriteria));
+            case LESS_THAN -> step.lessThan(comparableVal(dsCriteria));
+            case LESS_THAN_EQUAL -> step.lessThanOrEquals(comparableVal(dsCriteria));
+            case IN -> onIn(dsCriteria);
+            case NOT_IN -> onNotIn(dsCriteria);
+        };
+    }
+
+    protected Criteria onIn(DSCriteria dsCriteria) {
+        List<List<?>> chunks = options.getInStrategy().partition(typedArrVal(dsCriteria));
+        Criteria result = Criteria.where(dsCriteria.key()).in(chunks.get(0));
+        for (int idx = 1; idx < chunks.size(); idx++) {
+            result = result.or(Criteria.where(dsCriteria.key()).in(chunks.get(idx)));
+        }
+        return chunks.size() == 1 ? result : Criteria.empty().and(result);
+    }
+
+    protected Criteria onNotIn(DSCriteria dsCriteria) {
+        List<List<?>> chunks = options.getInStrategy().partition(typedArrVal(dsCriteria));
+        Criteria result = Criteria.where(dsCriteria.key()).notIn(chunks.get(0));
+        for (int idx = 1; idx < chunks.size(); idx++) {
+            result = result.and(Criteria.where(dsCriteria.key()).notIn(chunks.get(idx)));
+        }
+        return chunks.size() == 1 ? result : Criteria.empty().and(result);
+    }
+
+    private Object typedVal(DSCriteria dsCriteria) {
+        return converter(dsCriteria.key()).apply(dsCriteria.value());
+    }
+
+    private Object comparableVal(DSCriteria dsCriteria) {
+        if (dsCriteria.value() == null) {
+            throw new InvalidCriteriaException(String.format("Value of operation '%s' can't be null", dsCriteria.operation()));
+        }
+        return typedVal(dsCriteria);
+    }
+
+    private List<?> typedArrVal(DSCriteria dsCriteria) {
+        Function<Object, Object> converter = converter(dsCriteria.key());
+        List<?> values = dsCriteria.value() instanceof List<?> list ? list : List.of(dsCriteria.value());
+        List<Object> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add(converter.apply(value));
+        }
+        return result;
+    }
+
+    private Function<Object, Object> converter(String key) {
+        Field field = ReflectionUtils.findField(domainClass, key);
+        if (field == null) {
+            throw new InvalidCriteriaException(String.format("Field '%s' isn't a property of %s", key, domainClass.getSimpleName()));
+        }
+        return DSValueConverters.forAttribute(domainClass, key, field.getType());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.r2dbc;
+
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.builder.DSBuilderOptions;
+import io.github.nickngn.dynamicsearch.builder.DSNormalizedCriteria;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Executes searches described by {@link DSTemplate} with Spring Data R2DBC, building the criteria
+ * by {@link DSR2dbcCriteriaBuilder}. <br>
+ * Nothing blocks: rows are emitted as the subscriber requests them and R2DBC drivers fetch them on demand,
+ * so a slow subscriber doesn't buffer the whole result. Criteria provably matching nothing complete
+ * without querying. <br>
+ * Only offset paging of {@link DSTemplate#getPageable()} applies, keyset pagination isn't supported.
+ * @param <T> searching entity
+ */
+public class DSR2dbcSearchExecutor<T> {
+
+    private final R2dbcEntityOperations operations;
+
+    private final DSR2dbcCriteriaBuilder<T> criteriaBuilder;
+
+    public DSR2dbcSearchExecutor(R2dbcEntityOperations operations, Class<T> domainClass) {
+        this(operations, new DSR2dbcCriteriaBuilder<>(domainClass, DSBuilderOptions.defaults(),
+                operations.getConverter().getMappingContext()));
+    }
+
+    public DSR2dbcSearchExecutor(R2dbcEntityOperations operations, DSR2dbcCriteriaBuilder<T> criteriaBuilder) {
+        this.operations = operations;
+        this.criteriaBuilder = criteriaBuilder;
+    }
+
+    /**
+     * Searches entities matching the template
+     * @param template criteria and paging options
+     * @return matching entities of the requested page, in the requested order
+     */
+    public Flux<T> search(DSTemplate template) {
+        if (template.isKeyset()) {
+            return Flux.error(new InvalidCriteriaException("Keyset pagination isn't supported by R2DBC searches"));
+        }
+        DSNormalizedCriteria normalized = criteriaBuilder.normalize(template.getCriteria());
+        if (normalized.empty()) {
+            return Flux.empty();
+        }
+        Query query = Query.query(criteriaBuilder.build(normalized)).with(template.getPageable());
+        return operations.select(query, criteriaBuilder.getDomainClass());
+    }
+
+    /**
+     * @param template criteria, paging options are ignored
+     * @return number of entities matching the criteria
+     */
+    public Mono<Long> count(DSTemplate template) {
+        DSNormalizedCriteria normalized = criteriaBuilder.normalize(template.getCriteria());
+        if (normalized.empty()) {
+            return Mono.just(0L);
+        }
+        return operations.count(Query.query(criteriaBuilder.build(normalized)), criteriaBuilder.getDomainClass());
+    }
+
+    public Class<T> getDomainClass() {
+        return criteriaBuilder.getDomainClass();
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.stats;
+
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Suggests composite indexes for the recorded criteria shapes with the highest total latency. <br>
+ * Only shapes combining their criteria by AND are considered, ORed criteria need an index per alternative.
+ * Columns of a suggestion are the equality keys ({@code EQUAL}, {@code IN}, {@code NUL}) followed by a single range key
+ * ({@code GREATER_THAN}, {@code LESS_THAN}, ... and {@code BEGINS_WITH}), keys are kept only if they are basic
+ * attributes of the entity in the JPA metamodel. Operations which can't use an index, eg: {@code CONTAINS}
+ * or negations, are ignored. A suggestion being a prefix of another one is merged into the longer one.
+ */
+@UtilityClass
+public final class DSIndexAdvisor {
+
+    private record IndexKey(Class<?> entityType, List<String> attributes) {
+    }
+
+    /**
+     * @param recorder recorded usage
+     * @param metamodel JPA metamodel of the searched entities
+     * @param limit maximum number of suggestions
+     * @return suggested indexes, the ones serving the highest total latency first
+     */
+    public static List<DSIndexSuggestion> advise(DSUsageRecorder recorder, Metamodel metamodel, int limit) {
+        Map<IndexKey, long[]> indexes = new LinkedHashMap<>();
+        for (DSShapeUsage usage : recorder.getShapeUsages()) {
+            List<String> attributes = attributes(usage.shape(), entity(metamodel, usage.entityType()));
+            if (attributes.isEmpty()) {
+                continue;
+            }
+            long[] totals = indexes.computeIfAbsent(new IndexKey(usage.entityType(), attributes), key -> new long[2]);
+            // searches served from a cache don't reach the index
+            totals[0] += usage.executions();
+            totals[1] += usage.totalNanos();
+        }
+
+        List<DSIndexSuggestion> result = new ArrayList<>();
+        for (Map.Entry<IndexKey, long[]> index : indexes.entrySet()) {
+            IndexKey key = index.getKey();
+            IndexKey covering = covering(indexes.keySet(), key);
+            if (covering != key) {
+                long[] totals = indexes.get(covering);
+                totals[0] += index.getValue()[0];
+                totals[1] += index.getValue()[1];
+                index.getValue()[0] = -1;
+            }
+        }
+        indexes.forEach((key, totals) -> {
+            if (totals[0] >= 0) {
+                result.add(new DSIndexSuggestion(key.entityType(), key.attributes(), totals[0], totals[1]));
+            }
+        });
+        result.sort(Comparator.comparingLong(DSIndexSuggestion::totalNanos).reversed());
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    private static List<String> attributes(DSCriteriaShape shape, EntityType<?> entity) {
+        if (entity == null) {
+            return List.of();
+        }
+        Set<String> equalities = new LinkedHashSet<>();
+        String range = null;
+        List<DSCriteriaShape.Element> elements = shape.getElements();
+        for (int idx = 0; idx < elements.size(); idx++) {
+            DSCriteriaShape.Element element = elements.get(idx);
+            // the connector of the first criteria is ignored
+            if (idx > 0 && element.or()) {
+                return List.of();
+            }
+            if (!isBasic(entity, element.key())) {
+                continue;
+            }
+            switch (element.operation()) {
+                case EQUAL, IN, NUL -> equalities.add(element.key());
+                case GREATER_THAN, GREATER_THAN_EQUAL, LESS_THAN, LESS_THAN_EQUAL, BEGINS_WITH -> {
+                    if (range == null) {
+                        range = element.key();
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        List<String> result = new ArrayList<>(equalities);
+        if (range != null && !equalities.contains(range)) {
+            result.add(range);
+        }
+        if (result.size() == 1 && isId(entity, result.get(0))) {
+            return List.of();
+        }
+        return result;
+    }
+
+    private static IndexKey covering(Set<IndexKey> keys, IndexKey key) {
+        IndexKey result = key;
+        for (IndexKey candidate : keys) {
+            if (candidate.entityType() == key.entityType()
+                    && candidate.attributes().size() > result.attributes().size()
+                    && candidate.attributes().subList(0, key.attributes().size()).equals(key.attributes())) {
+                result = candidate;
+            }
+        }
+        return result;
+    }
+
+    private static EntityType<?> entity(Metamodel metamodel, Class<?> entityType) {
+        try {
+            return metamodel.entity(entityType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isBasic(EntityType<?> entity, String key) {
+        if (key.indexOf('.') >= 0) {
+            return false;
+        }
+        try {
+            return entity.getAttribute(key).getPersistentAttributeType() == Attribute.PersistentAttributeType.BASIC;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean isId(EntityType<?> entity, String key) {
+        return entity.getAttribute(key) instanceof SingularAttribute<?, ?> attribute && attribute.isId();
+    }
+}
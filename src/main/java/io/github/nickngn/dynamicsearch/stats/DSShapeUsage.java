@@ -0,0 +1,45 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.stats;
+
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+
+/**
+ * Recorded usage of a criteria shape
+ * @param entityType searched entity
+ * @param shape shape of the searched criteria, IN lists of any size share a shape
+ * @param count number of searches, including the ones served from a cache
+ * @param executions number of searches querying the database
+ * @param totalNanos total latency of the searches querying the database
+ * @param maxNanos maximum latency of a search querying the database
+ */
+public record DSShapeUsage(Class<?> entityType, DSCriteriaShape shape, long count, long executions, long totalNanos,
+                           long maxNanos) {
+
+    public long averageNanos() {
+        return executions > 0 ? totalNanos / executions : 0;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.stats;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+import io.github.nickngn.dynamicsearch.builder.DSInStrategy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how often keys, operations and criteria shapes are searched per entity, and the latency of the searches. <br>
+ * Searches served from a cache count for the frequency of their keys and shape, not for the latency. <br>
+ * Counters are striped {@link LongAdder}s, so recording doesn't contend between threads.
+ * The number of recorded shapes per entity is bounded, searches of further shapes are only counted by
+ * {@link #getDroppedCount()}.
+ * @see DSIndexAdvisor
+ */
+public class DSUsageRecorder {
+
+    private record KeyOperation(String key, DSOperation operation) {
+    }
+
+    private static final class ShapeCounters {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder executions = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+
+    private static final class EntityCounters {
+
+        private final Map<KeyOperation, LongAdder> keys = new ConcurrentHashMap<>();
+
+        private final Map<DSCriteriaShape, ShapeCounters> shapes = new ConcurrentHashMap<>();
+    }
+
+    // IN lists are rendered as a single parameter, so their sizes don't multiply the shapes
+    private static final DSInStrategy SHAPE_IN_STRATEGY = DSInStrategy.none().withArrayParameter(true);
+
+    private final int maximumShapes;
+
+    private final Map<Class<?>, EntityCounters> entities = new ConcurrentHashMap<>();
+
+    private final LongAdder dropped = new LongAdder();
+
+    public DSUsageRecorder() {
+        this(1_000);
+    }
+
+    /**
+     * @param maximumShapes maximum number of recorded shapes per entity
+     */
+    public DSUsageRecorder(int maximumShapes) {
+        this.maximumShapes = maximumShapes;
+    }
+
+    /**
+     * Records a search querying the database
+     * @param entityType searched entity
+     * @param dsCriteriaList searched criteria
+     * @param nanos latency of the search
+     */
+    public void record(Class<?> entityType, List<DSCriteria> dsCriteriaList, long nanos) {
+        record(entityType, dsCriteriaList, nanos, true);
+    }
+
+    /**
+     * Records a search served from a cache, only its frequency
+     * @param entityType searched entity
+     * @param dsCriteriaList searched criteria
+     */
+    public void recordCached(Class<?> entityType, List<DSCriteria> dsCriteriaList) {
+        record(entityType, dsCriteriaList, 0, false);
+    }
+
+    private void record(Class<?> entityType, List<DSCriteria> dsCriteriaList, long nanos, boolean executed) {
+        EntityCounters counters = entities.get(entityType);
+        if (counters == null) {
+            counters = entities.computeIfAbsent(entityType, type -> new EntityCounters());
+        }
+        for (DSCriteria dsCriteria : dsCriteriaList) {
+            KeyOperation keyOperation = new KeyOperation(dsCriteria.key(), dsCriteria.operation());
+            LongAdder count = counters.keys.get(keyOperation);
+            if (count == null) {
+                count = counters.keys.computeIfAbsent(keyOperation, key -> new LongAdder());
+            }
+            count.increment();
+        }
+
+        DSCriteriaShape shape = DSCriteriaShape.of(dsCriteriaList, SHAPE_IN_STRATEGY);
+        ShapeCounters shapeCounters = counters.shapes.get(shape);
+        if (shapeCounters == null) {
+            if (counters.shapes.size() >= maximumShapes) {
+                dropped.increment();
+                return;
+            }
+            shapeCounters = counters.shapes.computeIfAbsent(shape, key -> new ShapeCounters());
+        }
+        shapeCounters.count.increment();
+        if (executed) {
+            shapeCounters.executions.increment();
+            shapeCounters.totalNanos.add(nanos);
+            shapeCounters.maxNanos.accumulate(nanos);
+        }
+    }
+
+    /**
+     * @return recorded shapes, the ones with the highest total latency first
+     */
+    public List<DSShapeUsage> getShapeUsages() {
+        List<DSShapeUsage> result = new ArrayList<>();
+        entities.forEach((entityType, counters) -> counters.shapes.forEach((shape, shapeCounters) ->
+                result.add(new DSShapeUsage(entityType, shape, shapeCounters.count.sum(),
+                        shapeCounters.executions.sum(), shapeCounters.totalNanos.sum(), shapeCounters.maxNanos.get()))));
+        result.sort(Comparator.comparingLong(DSShapeUsage::totalNanos).reversed());
+        return result;
+    }
+
+    /**
+     * @return recorded keys and operations, the most frequent first
+     */
+    public List<DSKeyUsage> getKeyUsages() {
+        List<DSKeyUsage> result = new ArrayList<>();
+        entities.forEach((entityType, counters) -> counters.keys.forEach((keyOperation, count) ->
+                result.add(new DSKeyUsage(entityType, keyOperation.key(), keyOperation.operation(), count.sum()))));
+        result.sort(Comparator.comparingLong(DSKeyUsage::count).reversed());
+        return result;
+    }
+
+    /**
+     * @return number of searches not recorded as their entity already had the maximum number of shapes
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public void reset() {
+        entities.clear();
+        dropped.reset();
+    }
+}
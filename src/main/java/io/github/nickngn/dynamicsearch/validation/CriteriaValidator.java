@@ -26,13 +26,14 @@ package io.github.nickngn.dynamicsearch.validation;
 
 import io.github.nickngn.dynamicsearch.DSCriteria;
 import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.metrics.DSMetrics;
+import io.github.nickngn.dynamicsearch.metrics.DSSearchMetrics;
 import jakarta.validation.*;
 
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Processor for validating syntax configured by {@link DSTemplate#getReferenceClass()}
@@ -42,6 +43,8 @@ public class CriteriaValidator implements ConstraintValidator<ValidatedCriteria,
 
     private static final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
+    private static final ConcurrentHashMap<Class<?>, ReferenceClassDescriptor> DESCRIPTORS = new ConcurrentHashMap<>();
+
     /**
      * Validates the given template against custom validation rules and syntax validation rules.
      *
@@ -51,12 +54,16 @@ public class CriteriaValidator implements ConstraintValidator<ValidatedCriteria,
      */
     @Override
     public boolean isValid(DSTemplate template, ConstraintValidatorContext context) {
-        List<String> errMsgs = new ArrayList<>();
-
-        errMsgs.addAll(customValidate(template));
-        errMsgs.addAll(validateSyntax(template));
+        List<String> errMsgs = DSMetrics.timed(DSSearchMetrics.Stage.VALIDATE, template.getReferenceClass(),
+                DSMetrics.shape(template.getCriteria() != null ? template.getCriteria() : List.of()), () -> {
+                    List<String> msgs = new ArrayList<>();
+                    msgs.addAll(customValidate(template));
+                    msgs.addAll(validateSyntax(template));
+                    return msgs;
+                });
 
         if (!errMsgs.isEmpty()) {
+            DSMetrics.get().count(DSSearchMetrics.Event.INVALID, template.getReferenceClass());
             context.disableDefaultConstraintViolation();
             context.buildConstraintViolationWithTemplate(String.join("; ", errMsgs))
                     .addConstraintViolation();
@@ -96,20 +103,96 @@ public class CriteriaValidator implements ConstraintValidator<ValidatedCriteria,
         Class<?> refClass = template.getReferenceClass();
         if (refClass == null) return Collections.emptyList();
 
-        List<String> fields = Stream.of(refClass.getDeclaredFields()).map(Field::getName).toList();
+        ReferenceClassDescriptor root = describe(refClass);
         List<String> errMsgs = new ArrayList<>();
         for (DSCriteria DSCriteria : template.getCriteria()) {
-            if (!fields.contains(DSCriteria.key())) {
+            ReferenceClassDescriptor descriptor = owner(root, DSCriteria.key());
+            String property = property(DSCriteria.key());
+            if (descriptor == null || !descriptor.isSearchable(property)) {
                 errMsgs.add(String.format("Field '%s' isn't allowed searchable key", DSCriteria.key()));
                 continue;
             }
-            var violations = validator.validateValue(refClass, DSCriteria.key(), DSCriteria.value());
+            if (descriptor.getConstraints(property) == null) {
+                continue;
+            }
+            var violations = validator.validateValue(descriptor.getReferenceClass(), property, DSCriteria.value());
             if (!violations.isEmpty()) {
                 List<String> msgs = violations.stream().map(ConstraintViolation::getMessage).toList();
                 errMsgs.addAll(msgs);
             }
         }
+        if (template.getFields() != null) {
+            for (String field : template.getFields()) {
+                ReferenceClassDescriptor descriptor = owner(root, field);
+                if (descriptor == null || !descriptor.isSearchable(property(field))) {
+                    errMsgs.add(String.format("Field '%s' isn't allowed projection field", field));
+                }
+            }
+        }
 
         return errMsgs;
     }
+
+    /**
+     * Resolves the type of a searchable key, navigating dotted keys like criteria validation does.
+     *
+     * @param refClass The reference class configured by {@link DSTemplate#getReferenceClass()}.
+     * @param key The searched key.
+     * @return The declared type of the last property of the key, null if the key isn't searchable.
+     */
+    public static Class<?> searchableType(Class<?> refClass, String key) {
+        ReferenceClassDescriptor descriptor = owner(describe(refClass), key);
+        return descriptor != null ? descriptor.getFieldType(property(key)) : null;
+    }
+
+    /**
+     * Resolves the descriptor declaring the last property of a dotted key, eg: {@code address.city}.
+     *
+     * @param root The descriptor of the reference class.
+     * @param key The searched key.
+     * @return The descriptor of the nested reference class owning the property, null if a segment can't be navigated.
+     */
+    private static ReferenceClassDescriptor owner(ReferenceClassDescriptor root, String key) {
+        ReferenceClassDescriptor descriptor = root;
+        int start = 0;
+        for (int dot = key.indexOf('.'); dot >= 0; dot = key.indexOf('.', start)) {
+            Class<?> nestedClass = descriptor.getNestedClass(key.substring(start, dot));
+            if (nestedClass == null) {
+                return null;
+            }
+            descriptor = describe(nestedClass);
+            start = dot + 1;
+        }
+        return descriptor;
+    }
+
+    private static String property(String key) {
+        return key.substring(key.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Returns the cached descriptor of the reference class, building it on first use.
+     *
+     * @param refClass The reference class configured by {@link DSTemplate#getReferenceClass()}.
+     * @return The descriptor of the reference class.
+     */
+    public static ReferenceClassDescriptor describe(Class<?> refClass) {
+        ReferenceClassDescriptor descriptor = DESCRIPTORS.get(refClass);
+        if (descriptor == null) {
+            descriptor = DESCRIPTORS.computeIfAbsent(refClass, klass -> ReferenceClassDescriptor.of(klass, validator));
+        }
+        return descriptor;
+    }
+
+    /**
+     * Eagerly builds descriptors of the reference classes, eg: at application startup,
+     * so the first requests don't pay for reflection and constraint lookups.
+     *
+     * @param refClasses The reference classes to describe.
+     */
+    public static void warmUp(Class<?>... refClasses) {
+        for (Class<?> refClass : refClasses) {
+            describe(refClass);
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+
+package io.github.nickngn.dynamicsearch.validation;
+
+import jakarta.validation.Validator;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable metadata of a reference class used for validating criteria: searchable keys
+ * (declared and inherited fields), types of nested reference classes and pre-resolved constraint descriptors per property. <br>
+ * Declared types of searchable keys are kept, so values can be read into the type of the field. <br>
+ * A field typed by a non JDK class, directly or as element of a collection or array, can be navigated by dotted keys,
+ * eg: {@code address.city} is searchable when {@code city} is a searchable key of the type of {@code address}. <br>
+ * Descriptors are built once per class by {@link CriteriaValidator} and reused for every validation.
+ */
+public final class ReferenceClassDescriptor {
+
+    private final Class<?> referenceClass;
+
+    private final Set<String> searchableKeys;
+
+    private final Map<String, Class<?>> fieldTypes;
+
+    private final Map<String, Class<?>> nestedClasses;
+
+    private final Map<String, PropertyDescriptor> constrainedProperties;
+
+    private ReferenceClassDescriptor(Class<?> referenceClass, Set<String> searchableKeys,
+                                     Map<String, Class<?>> fieldTypes,
+                                     Map<String, Class<?>> nestedClasses,
+                                     Map<String, PropertyDescriptor> constrainedProperties) {
+        this.referenceClass = referenceClass;
+        this.searchableKeys = searchableKeys;
+        this.fieldTypes = fieldTypes;
+        this.nestedClasses = nestedClasses;
+        this.constrainedProperties = constrainedProperties;
+    }
+
+    /**
+     * @param referenceClass class to describe
+     * @param validator validator to resolve constraint metadata
+     * @return descriptor of the reference class
+     */
+    static ReferenceClassDescriptor of(Class<?> referenceClass, Validator validator) {
+        Set<String> keys = new HashSet<>();
+        Map<String, Class<?>> types = new HashMap<>();
+        Map<String, Class<?>> nested = new HashMap<>();
+        for (Class<?> klass = referenceClass; klass != null && klass != Object.class; klass = klass.getSuperclass()) {
+            for (Field field : klass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    keys.add(field.getName());
+                    types.putIfAbsent(field.getName(), field.getType());
+                    Class<?> nestedClass = nestedClass(field);
+                    if (nestedClass != null) {
+                        nested.putIfAbsent(field.getName(), nestedClass);
+                    }
+                }
+            }
+        }
+
+        Map<String, PropertyDescriptor> constrained = new HashMap<>();
+        BeanDescriptor beanDescriptor = validator.getConstraintsForClass(referenceClass);
+        for (PropertyDescriptor property : beanDescriptor.getConstrainedProperties()) {
+            constrained.put(property.getPropertyName(), property);
+        }
+        return new ReferenceClassDescriptor(referenceClass, Set.copyOf(keys), Map.copyOf(types), Map.copyOf(nested), Map.copyOf(constrained));
+    }
+
+    private static Class<?> nestedClass(Field field) {
+        Class<?> type = field.getType();
+        if (type.isArray()) {
+            type = type.getComponentType();
+        } else if (Collection.class.isAssignableFrom(type)) {
+            Type generic = field.getGenericType();
+            if (!(generic instanceof ParameterizedType parameterized)
+                    || !(parameterized.getActualTypeArguments()[0] instanceof Class<?> element)) {
+                return null;
+            }
+            type = element;
+        }
+        boolean navigable = !type.isPrimitive() && !type.isEnum() && !type.isArray()
+                && !type.getName().startsWith("java.") && !type.getName().startsWith("javax.");
+        return navigable ? type : null;
+    }
+
+    public Class<?> getReferenceClass() {
+        return referenceClass;
+    }
+
+    public Set<String> getSearchableKeys() {
+        return searchableKeys;
+    }
+
+    public boolean isSearchable(String key) {
+        return searchableKeys.contains(key);
+    }
+
+    /**
+     * @param key searchable field of the reference class
+     * @return declared type of the field, the one of the subclass if a superclass declares the same name,
+     * null if the key isn't searchable
+     */
+    public Class<?> getFieldType(String key) {
+        return fieldTypes.get(key);
+    }
+
+    /**
+     * @param key field of the reference class
+     * @return type of the nested reference class of the field, element type for collections and arrays,
+     * null if the field can't be navigated
+     */
+    public Class<?> getNestedClass(String key) {
+        return nestedClasses.get(key);
+    }
+
+    /**
+     * @param key searched field
+     * @return constraint descriptor of the field, null if the field has no constraints
+     */
+    public PropertyDescriptor getConstraints(String key) {
+        return constrainedProperties.get(key);
+    }
+}
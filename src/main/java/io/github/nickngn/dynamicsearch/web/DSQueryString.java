@@ -0,0 +1,360 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.web;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaRun;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import lombok.experimental.UtilityClass;
+
+import java.lang.reflect.Array;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact query string format of criteria, so searches can be sent as GET requests and cached by HTTP caches. <br>
+ * Every criteria is a parameter {@code key.op=value} where {@code op} is the short code of {@link DSOperation},
+ * eg: {@code name.cn=foo&age.ge=18&id.in=1,2,3}. A parameter prefixed by {@value #OR_MARKER} is ORed with
+ * the previous criteria, eg: {@code age.ge=18&~vip.eq=true}. <br>
+ * Values of {@link DSOperation#IN} and {@link DSOperation#NOT_IN} are separated by commas, literal commas are
+ * percent-encoded. Values of {@link DSOperation#NUL} and {@link DSOperation#NOT_NULL} are ignored, a parameter
+ * without {@code =} has a null value. Parameters without a dot are not criteria and are left to the caller.
+ */
+@UtilityClass
+public final class DSQueryString {
+
+    /**
+     * Prefix of parameters ORed with the previous criteria, unreserved in URLs so it is never percent-encoded
+     */
+    public static final char OR_MARKER = '~';
+
+    private static final DSOperation[] OPERATIONS = new DSOperation[26 * 26];
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final Comparator<String> TEXT_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    static {
+        for (DSOperation operation : DSOperation.values()) {
+            OPERATIONS[index(operation.getValue().charAt(0), operation.getValue().charAt(1))] = operation;
+        }
+    }
+
+    /**
+     * @param query raw query string
+     * @return criteria in the order of the parameters
+     * @see #parse(String, int)
+     */
+    public static List<DSCriteria> parse(String query) {
+        return parse(query, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Parses criteria by scanning the query string in place, only keys and values are copied
+     * and only percent-encoded parts are decoded
+     * @param query raw query string, still percent-encoded and without the leading {@code ?}, may be null
+     * @param maxCriteria maximum number of criteria
+     * @return criteria in the order of the parameters
+     * @throws InvalidCriteriaException if a parameter has an unknown operation or a malformed encoding,
+     * or there are more than {@code maxCriteria} criteria
+     */
+    public static List<DSCriteria> parse(String query, int maxCriteria) {
+        List<DSCriteria> result = new ArrayList<>();
+        if (query == null) {
+            return result;
+        }
+        int start = 0;
+        while (start < query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) {
+                end = query.length();
+            }
+            DSCriteria dsCriteria = end > start ? parameter(query, start, end) : null;
+            if (dsCriteria != null) {
+                if (result.size() == maxCriteria) {
+                    throw new InvalidCriteriaException(String.format("Query string has more than %d criteria", maxCriteria));
+                }
+                result.add(dsCriteria);
+            }
+            start = end + 1;
+        }
+        return result;
+    }
+
+    /**
+     * Formats criteria in canonical order, so equivalent criteria give the same query string
+     * @param dsCriteriaList criteria to format
+     * @return query string without the leading {@code ?}
+     * @see #canonicalize(List)
+     */
+    public static String format(List<DSCriteria> dsCriteriaList) {
+        StringBuilder sb = new StringBuilder();
+        for (DSCriteria dsCriteria : canonicalize(dsCriteriaList)) {
+            if (!sb.isEmpty()) {
+                sb.append('&');
+            }
+            if (Boolean.TRUE.equals(dsCriteria.isOr())) {
+                sb.append(OR_MARKER);
+            }
+            encode(dsCriteria.key(), sb);
+            sb.append('.').append(dsCriteria.operation().getValue());
+            if (dsCriteria.value() == null) {
+                continue;
+            }
+            sb.append('=');
+            if (dsCriteria.value() instanceof Collection<?> values) {
+                boolean first = true;
+                for (Object value : values) {
+                    if (!first) {
+                        sb.append(',');
+                    }
+                    encode(text(value), sb);
+                    first = false;
+                }
+            } else {
+                encode(text(dsCriteria.value()), sb);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param query raw query string, may be null
+     * @return canonical query string of the criteria in the query, other parameters are dropped
+     */
+    public static String canonical(String query) {
+        return format(parse(query));
+    }
+
+    /**
+     * Puts criteria in canonical order without changing their result. <br>
+     * Criteria of a run of the same connector (see {@link DSCriteriaRun}) are sorted by key, operation and value,
+     * values of {@link DSOperation#IN} and {@link DSOperation#NOT_IN} are sorted and deduplicated, values of
+     * {@link DSOperation#NUL} and {@link DSOperation#NOT_NULL} are dropped and the ignored connector
+     * of the first criteria is cleared.
+     * @param dsCriteriaList criteria to reorder
+     * @return criteria in canonical order
+     */
+    public static List<DSCriteria> canonicalize(List<DSCriteria> dsCriteriaList) {
+        if (dsCriteriaList == null || dsCriteriaList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<DSCriteria> result = new ArrayList<>(dsCriteriaList.size());
+        for (DSCriteriaRun run : DSCriteriaRun.of(dsCriteriaList)) {
+            List<Object> values = new ArrayList<>(run.size());
+            List<String> texts = new ArrayList<>(run.size());
+            List<Integer> order = new ArrayList<>(run.size());
+            for (int idx = run.from(); idx < run.to(); idx++) {
+                DSCriteria dsCriteria = dsCriteriaList.get(idx);
+                Object value = canonicalValue(dsCriteria.operation(), dsCriteria.value());
+                values.add(value);
+                texts.add(value == null ? null : value instanceof Collection<?> elements ? join(elements) : text(value));
+                order.add(idx);
+            }
+            order.sort(Comparator.<Integer, String>comparing(idx -> dsCriteriaList.get(idx).key(), TEXT_ORDER)
+                    .thenComparing(idx -> dsCriteriaList.get(idx).operation().getValue())
+                    .thenComparing(idx -> texts.get(idx - run.from()), TEXT_ORDER));
+            for (int idx : order) {
+                DSCriteria dsCriteria = dsCriteriaList.get(idx);
+                Boolean or = Boolean.valueOf(!result.isEmpty() && run.or());
+                result.add(new DSCriteria(dsCriteria.key(), dsCriteria.operation(), values.get(idx - run.from()), or));
+            }
+        }
+        return result;
+    }
+
+    private static DSCriteria parameter(String query, int from, int to) {
+        int eq = query.indexOf('=', from);
+        if (eq < 0 || eq > to) {
+            eq = to;
+        }
+        CharSequence name = query;
+        int nameFrom = from;
+        int nameTo = eq;
+        if (isEncoded(query, from, eq)) {
+            name = decode(query, from, eq);
+            nameFrom = 0;
+            nameTo = name.length();
+        }
+        if (nameFrom == nameTo) {
+            return null;
+        }
+        boolean or = name.charAt(nameFrom) == OR_MARKER;
+        if (or) {
+            nameFrom++;
+        }
+        int dot = lastIndexOf(name, '.', nameFrom, nameTo);
+        if (dot < 0) {
+            return null;
+        }
+        DSOperation operation = nameTo - dot == 3 ? operation(name.charAt(dot + 1), name.charAt(dot + 2)) : null;
+        if (operation == null) {
+            throw new InvalidCriteriaException(String.format("Unknown operation of query parameter '%s'",
+                    name.subSequence(nameFrom, nameTo)));
+        }
+        if (dot == nameFrom) {
+            throw new InvalidCriteriaException(String.format("Missing key of query parameter '%s'",
+                    name.subSequence(nameFrom, nameTo)));
+        }
+        String key = name.subSequence(nameFrom, dot).toString();
+        Object value = null;
+        if (eq < to && operation != DSOperation.NUL && operation != DSOperation.NOT_NULL) {
+            value = operation == DSOperation.IN || operation == DSOperation.NOT_IN
+                    ? split(query, eq + 1, to)
+                    : decode(query, eq + 1, to);
+        }
+        return new DSCriteria(key, operation, value, or);
+    }
+
+    private static List<String> split(String query, int from, int to) {
+        List<String> values = new ArrayList<>();
+        if (from == to) {
+            return values;
+        }
+        int start = from;
+        while (true) {
+            int end = query.indexOf(',', start);
+            if (end < 0 || end > to) {
+                end = to;
+            }
+            values.add(decode(query, start, end));
+            if (end == to) {
+                return values;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static String decode(String query, int from, int to) {
+        String part = query.substring(from, to);
+        if (!isEncoded(query, from, to)) {
+            return part;
+        }
+        try {
+            return URLDecoder.decode(part, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCriteriaException(String.format("Malformed query parameter '%s'", part), ex);
+        }
+    }
+
+    private static boolean isEncoded(String query, int from, int to) {
+        for (int idx = from; idx < to; idx++) {
+            char c = query.charAt(idx);
+            if (c == '%' || c == '+') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int lastIndexOf(CharSequence s, char c, int from, int to) {
+        for (int idx = to - 1; idx >= from; idx--) {
+            if (s.charAt(idx) == c) {
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    private static DSOperation operation(char first, char second) {
+        if (first < 'a' || first > 'z' || second < 'a' || second > 'z') {
+            return null;
+        }
+        return OPERATIONS[index(first, second)];
+    }
+
+    private static int index(char first, char second) {
+        return (first - 'a') * 26 + second - 'a';
+    }
+
+    private static Object canonicalValue(DSOperation operation, Object value) {
+        if (operation == DSOperation.NUL || operation == DSOperation.NOT_NULL) {
+            return null;
+        }
+        if (operation != DSOperation.IN && operation != DSOperation.NOT_IN || value == null) {
+            return value;
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        if (value instanceof Collection<?> collection) {
+            collection.forEach(element -> values.putIfAbsent(text(element), element));
+        } else if (value.getClass().isArray()) {
+            for (int idx = 0; idx < Array.getLength(value); idx++) {
+                Object element = Array.get(value, idx);
+                values.putIfAbsent(text(element), element);
+            }
+        } else {
+            values.put(text(value), value);
+        }
+        List<String> texts = new ArrayList<>(values.keySet());
+        texts.sort(Comparator.naturalOrder());
+        List<Object> result = new ArrayList<>(texts.size());
+        texts.forEach(text -> result.add(values.get(text)));
+        return result;
+    }
+
+    private static String join(Collection<?> values) {
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            sb.append(text(value)).append(',');
+        }
+        return sb.toString();
+    }
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * Percent-encodes everything but the unreserved characters of RFC 3986
+     */
+    private static void encode(String text, StringBuilder sb) {
+        for (int idx = 0; idx < text.length(); idx++) {
+            if (isUnreserved(text.charAt(idx))) {
+                sb.append(text.charAt(idx));
+                continue;
+            }
+            int end = idx + 1;
+            while (end < text.length() && !isUnreserved(text.charAt(end))) {
+                end++;
+            }
+            for (byte b : text.substring(idx, end).getBytes(StandardCharsets.UTF_8)) {
+                sb.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+            }
+            idx = end - 1;
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.web;
+
+import io.github.nickngn.dynamicsearch.DSCountMode;
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.Conventions;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.annotation.ValidationAnnotationUtils;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resolves {@link DSTemplate} arguments of handler methods annotated with {@link DSQuery} from the query string
+ * format of {@link DSQueryString}, eg: {@code GET /users?name.cn=foo&age.ge=18&page=0&size=20&sort=name,desc}. <br>
+ * Criteria are put in canonical order, paging and sorting are resolved by a {@link PageableHandlerMethodArgumentResolver},
+ * other options are read from the parameters {@code count}, {@code fields}, {@code keyset} and {@code cursor}. <br>
+ * As for model attributes, arguments annotated with {@code @Valid} or {@code @Validated} are validated by the data
+ * binder, eg: by {@link io.github.nickngn.dynamicsearch.validation.CriteriaValidator}, and invalid ones are rejected
+ * by a {@link MethodArgumentNotValidException} unless the next parameter receives the {@link Errors}.
+ */
+public class DSQueryStringArgumentResolver implements HandlerMethodArgumentResolver {
+
+    public static final int DEFAULT_MAX_CRITERIA = 100;
+
+    private final PageableHandlerMethodArgumentResolver pageableResolver;
+
+    private final int maxCriteria;
+
+    public DSQueryStringArgumentResolver() {
+        this(defaultPageableResolver(), DEFAULT_MAX_CRITERIA);
+    }
+
+    /**
+     * @param pageableResolver resolver of paging and sorting parameters
+     * @param maxCriteria maximum number of criteria of a query string
+     */
+    public DSQueryStringArgumentResolver(PageableHandlerMethodArgumentResolver pageableResolver, int maxCriteria) {
+        this.pageableResolver = pageableResolver;
+        this.maxCriteria = maxCriteria;
+    }
+
+    /**
+     * @return resolver of paging and sorting parameters returning an unpaged request when there are none,
+     * like {@link DSTemplate#getPageable()}
+     */
+    public static PageableHandlerMethodArgumentResolver defaultPageableResolver() {
+        PageableHandlerMethodArgumentResolver resolver = new PageableHandlerMethodArgumentResolver();
+        resolver.setFallbackPageable(Pageable.unpaged());
+        return resolver;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(DSQuery.class)
+                && DSTemplate.class.isAssignableFrom(parameter.getParameterType());
+    }
+
+    @Override
+    public DSTemplate resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                      NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+        DSTemplate template = read(parameter, mavContainer, webRequest, binderFactory);
+        if (binderFactory != null) {
+            String name = Conventions.getVariableNameForParameter(parameter);
+            WebDataBinder binder = binderFactory.createBinder(webRequest, template, name);
+            validateIfApplicable(binder, parameter);
+            BindingResult bindingResult = binder.getBindingResult();
+            if (bindingResult.hasErrors() && isBindExceptionRequired(parameter)) {
+                throw new MethodArgumentNotValidException(parameter, bindingResult);
+            }
+            if (mavContainer != null) {
+                mavContainer.removeAttributes(bindingResult.getModel());
+                mavContainer.addAllAttributes(bindingResult.getModel());
+            }
+        }
+        return template;
+    }
+
+    private DSTemplate read(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        DSTemplate template = (DSTemplate) BeanUtils.instantiateClass(parameter.getParameterType());
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        String query = request != null ? request.getQueryString() : null;
+        template.setCriteria(DSQueryString.canonicalize(DSQueryString.parse(query, maxCriteria)));
+        template.setPageable(pageableResolver.resolveArgument(parameter, mavContainer, webRequest, binderFactory));
+
+        String countMode = webRequest.getParameter("count");
+        if (countMode != null) {
+            try {
+                template.setCountMode(DSCountMode.valueOf(countMode.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidCriteriaException(String.format("Unknown count mode '%s'", countMode), ex);
+            }
+        }
+        String[] fields = webRequest.getParameterValues("fields");
+        if (fields != null) {
+            List<String> fieldList = new ArrayList<>();
+            for (String field : fields) {
+                for (String name : field.split(",")) {
+                    if (!name.isBlank()) {
+                        fieldList.add(name.trim());
+                    }
+                }
+            }
+            template.setFields(fieldList);
+        }
+        template.setKeyset(Boolean.parseBoolean(webRequest.getParameter("keyset")));
+        template.setCursor(webRequest.getParameter("cursor"));
+        return template;
+    }
+
+    /**
+     * Validates the template if the parameter is annotated with {@code @Valid}, {@code @Validated}
+     * or an annotation named {@code Valid*}, with the validation groups of the annotation
+     */
+    protected void validateIfApplicable(WebDataBinder binder, MethodParameter parameter) {
+        for (Annotation annotation : parameter.getParameterAnnotations()) {
+            Object[] validationHints = ValidationAnnotationUtils.determineValidationHints(annotation);
+            if (validationHints != null) {
+                binder.validate(validationHints);
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the handler doesn't receive the validation errors by the next parameter
+     */
+    protected boolean isBindExceptionRequired(MethodParameter parameter) {
+        int index = parameter.getParameterIndex();
+        Class<?>[] types = parameter.getExecutable().getParameterTypes();
+        return types.length <= index + 1 || !Errors.class.isAssignableFrom(types[index + 1]);
+    }
+
+    public int getMaxCriteria() {
+        return maxCriteria;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.support.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DSCriteriaNormalizerTest {
+
+    @Test
+    void foldsBoundsOfNumericAttribute() {
+        assertThat(normalize(
+                new DSCriteria("age", DSOperation.GREATER_THAN, 10),
+                new DSCriteria("age", DSOperation.LESS_THAN, "9")).empty()).isTrue();
+        assertThat(normalize(
+                new DSCriteria("age", DSOperation.GREATER_THAN, 10),
+                new DSCriteria("age", DSOperation.GREATER_THAN_EQUAL, 12),
+                new DSCriteria("age", DSOperation.LESS_THAN_EQUAL, 20)).criteria()).containsExactly(
+                new DSCriteria("age", DSOperation.GREATER_THAN_EQUAL, 12, false),
+                new DSCriteria("age", DSOperation.LESS_THAN_EQUAL, 20, false));
+    }
+
+    @Test
+    void keepsBoundsOfStringAttribute() {
+        // '5' is within both bounds when compared as strings
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("code", DSOperation.GREATER_THAN, 10),
+                new DSCriteria("code", DSOperation.LESS_THAN, 9));
+
+        DSNormalizedCriteria normalized = DSCriteriaNormalizer.normalize(criteria, Person.class);
+
+        assertThat(normalized.empty()).isFalse();
+        assertThat(normalized.criteria()).hasSize(2);
+    }
+
+    @Test
+    void keepsBoundsOfUnknownAttributeTypes() {
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("age", DSOperation.GREATER_THAN, 10),
+                new DSCriteria("age", DSOperation.LESS_THAN, 9));
+
+        assertThat(DSCriteriaNormalizer.normalize(criteria).criteria()).hasSize(2);
+        assertThat(DSCriteriaNormalizer.normalizeSql(criteria).criteria()).hasSize(2);
+    }
+
+    @Test
+    void dropsBoundSatisfiedByEqualValueOfSameType() {
+        assertThat(normalize(
+                new DSCriteria("age", DSOperation.EQUAL, 10),
+                new DSCriteria("age", DSOperation.GREATER_THAN, 9)).criteria())
+                .containsExactly(new DSCriteria("age", DSOperation.EQUAL, 10, false));
+        // '10' < '9' as strings, the bound is not satisfied by the equal value
+        assertThat(normalize(
+                new DSCriteria("code", DSOperation.EQUAL, 10),
+                new DSCriteria("code", DSOperation.GREATER_THAN, 9)).criteria()).hasSize(2);
+    }
+
+    @Test
+    void keepsBoundsNotConvertibleToAttributeType() {
+        assertThat(normalize(
+                new DSCriteria("age", DSOperation.GREATER_THAN, 9.5),
+                new DSCriteria("age", DSOperation.LESS_THAN, 9)).criteria()).hasSize(2);
+    }
+
+    @Test
+    void foldsDateBoundsGivenAsText() {
+        assertThat(normalize(
+                new DSCriteria("joinedAt", DSOperation.GREATER_THAN_EQUAL, "2024-01-02T00:00:00Z"),
+                new DSCriteria("joinedAt", DSOperation.LESS_THAN, "2024-01-01T00:00:00Z")).empty()).isTrue();
+    }
+
+    @Test
+    void loosensOrBoundsOfNumericAttributeOnly() {
+        assertThat(normalize(
+                new DSCriteria("age", DSOperation.GREATER_THAN, 5),
+                new DSCriteria("age", DSOperation.GREATER_THAN, 3, true)).criteria())
+                .containsExactly(new DSCriteria("age", DSOperation.GREATER_THAN, 3, false));
+        assertThat(normalize(
+                new DSCriteria("code", DSOperation.GREATER_THAN, 5),
+                new DSCriteria("code", DSOperation.GREATER_THAN, 30, true)).criteria()).hasSize(2);
+    }
+
+    @Test
+    void mergesOrEqualsIntoIn() {
+        assertThat(normalize(
+                new DSCriteria("name", DSOperation.EQUAL, "a"),
+                new DSCriteria("name", DSOperation.IN, List.of("b", "a"), true),
+                new DSCriteria("name", DSOperation.EQUAL, "c", true)).criteria())
+                .containsExactly(new DSCriteria("name", DSOperation.IN, List.of("a", "b", "c"), false));
+    }
+
+    @Test
+    void detectsContradictions() {
+        assertThat(normalize(
+                new DSCriteria("name", DSOperation.NUL, null),
+                new DSCriteria("name", DSOperation.EQUAL, "a")).empty()).isTrue();
+        assertThat(normalize(
+                new DSCriteria("name", DSOperation.IN, List.of())).empty()).isTrue();
+        assertThat(normalize(
+                new DSCriteria("age", DSOperation.EQUAL, 1),
+                new DSCriteria("age", DSOperation.EQUAL, "2")).empty()).isTrue();
+    }
+
+    @Test
+    void restartsAfterFalseRunFollowedByOr() {
+        // (age > 5 AND age < 3) OR name = a is name = a
+        assertThat(normalize(
+                new DSCriteria("age", DSOperation.GREATER_THAN, 5),
+                new DSCriteria("age", DSOperation.LESS_THAN, 3),
+                new DSCriteria("name", DSOperation.EQUAL, "a", true)).criteria())
+                .containsExactly(new DSCriteria("name", DSOperation.EQUAL, "a", false));
+    }
+
+    @Test
+    void removesDuplicateSqlGroups() {
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("name", DSOperation.EQUAL, "a"),
+                new DSCriteria("age", DSOperation.EQUAL, 1),
+                new DSCriteria("name", DSOperation.EQUAL, "a", true),
+                new DSCriteria("age", DSOperation.EQUAL, 1));
+
+        assertThat(DSCriteriaNormalizer.normalizeSql(criteria).criteria()).containsExactly(
+                new DSCriteria("name", DSOperation.EQUAL, "a", false),
+                new DSCriteria("age", DSOperation.EQUAL, 1, false));
+    }
+
+    private static DSNormalizedCriteria normalize(DSCriteria... criteria) {
+        return DSCriteriaNormalizer.normalize(List.of(criteria), Person.class);
+    }
+}
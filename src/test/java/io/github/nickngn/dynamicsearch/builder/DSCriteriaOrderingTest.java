@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DSCriteriaOrderingTest {
+
+    private static final DSOperation[] OPERATIONS = DSOperation.values();
+
+    private static final Map<String, Double> ESTIMATES = Map.of("id", 0.01, "code", 0.1, "age", 0.5, "name", 0.9);
+
+    private static final DSSelectivityEstimator BY_KEY = dsCriteria -> ESTIMATES.get(dsCriteria.key());
+
+    private static final DSPredicateBuilder<Person> PREDICATES = new DSPredicateBuilder<>(Person.class);
+
+    @Test
+    void sortsAndRunsOnlyAndKeepsTheirConnectors() {
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("name", DSOperation.NOT_NULL, null, true),
+                new DSCriteria("code", DSOperation.EQUAL, "1", false),
+                new DSCriteria("id", DSOperation.LESS_THAN, 30, true),
+                new DSCriteria("name", DSOperation.CONTAINS, "1", true),
+                new DSCriteria("age", DSOperation.GREATER_THAN, 12, false),
+                new DSCriteria("id", DSOperation.GREATER_THAN, 3, false));
+
+        assertThat(DSCriteriaOrdering.reorder(criteria, BY_KEY)).containsExactly(
+                new DSCriteria("code", DSOperation.EQUAL, "1", true),
+                new DSCriteria("name", DSOperation.NOT_NULL, null, false),
+                new DSCriteria("id", DSOperation.LESS_THAN, 30, true),
+                new DSCriteria("name", DSOperation.CONTAINS, "1", true),
+                new DSCriteria("id", DSOperation.GREATER_THAN, 3, false),
+                new DSCriteria("age", DSOperation.GREATER_THAN, 12, false));
+    }
+
+    @Test
+    void sortsGroupsBetweenOrsOfSql() {
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("name", DSOperation.NOT_NULL, null),
+                new DSCriteria("code", DSOperation.EQUAL, "1", false),
+                new DSCriteria("age", DSOperation.LESS_THAN, 30, true),
+                new DSCriteria("id", DSOperation.GREATER_THAN, 3, false));
+
+        assertThat(DSCriteriaOrdering.reorderSql(criteria, BY_KEY)).containsExactly(
+                new DSCriteria("code", DSOperation.EQUAL, "1", null),
+                new DSCriteria("name", DSOperation.NOT_NULL, null, false),
+                new DSCriteria("id", DSOperation.GREATER_THAN, 3, true),
+                new DSCriteria("age", DSOperation.LESS_THAN, 30, false));
+    }
+
+    @Test
+    void keepsTheOrderOfEqualEstimates() {
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("name", DSOperation.EQUAL, "b"),
+                new DSCriteria("name", DSOperation.EQUAL, "a", false),
+                new DSCriteria("code", DSOperation.EQUAL, "1", false));
+
+        assertThat(DSCriteriaOrdering.reorder(criteria, BY_KEY)).extracting(DSCriteria::value)
+                .containsExactly("1", "b", "a");
+    }
+
+    @Test
+    void reorderedCriteriaMatchTheSameRows() {
+        List<Person> persons = People.persons();
+        Random random = new Random(13);
+        for (int round = 0; round < 500; round++) {
+            List<DSCriteria> criteria = randomCriteria(random);
+            DSSelectivityEstimator estimator = randomEstimator(random);
+
+            assertThat(matches(persons, PREDICATES.build(DSCriteriaOrdering.reorder(criteria, estimator))))
+                    .as("%s", criteria)
+                    .isEqualTo(matches(persons, PREDICATES.build(criteria)));
+            assertThat(matches(persons, sql(DSCriteriaOrdering.reorderSql(criteria, estimator))))
+                    .as("%s", criteria)
+                    .isEqualTo(matches(persons, sql(criteria)));
+        }
+    }
+
+    /**
+     * @return predicate of the criteria with the precedence of SQL: ORs of ANDed groups
+     */
+    private static Predicate<Person> sql(List<DSCriteria> criteria) {
+        List<Predicate<Person>> groups = new ArrayList<>();
+        Predicate<Person> group = null;
+        for (int idx = 0; idx < criteria.size(); idx++) {
+            DSCriteria dsCriteria = criteria.get(idx);
+            Predicate<Person> predicate = PREDICATES.build(List.of(dsCriteria));
+            if (idx > 0 && Boolean.TRUE.equals(dsCriteria.isOr())) {
+                groups.add(group);
+                group = predicate;
+            } else {
+                group = group == null ? predicate : group.and(predicate);
+            }
+        }
+        groups.add(group);
+        return groups.stream().reduce(Predicate::or).orElseThrow();
+    }
+
+    private static List<Long> matches(List<Person> persons, Predicate<Person> predicate) {
+        return persons.stream().filter(predicate).map(Person::getId).toList();
+    }
+
+    private static DSSelectivityEstimator randomEstimator(Random random) {
+        double[] weights = random.doubles(OPERATIONS.length).toArray();
+        return dsCriteria -> weights[dsCriteria.operation().ordinal()];
+    }
+
+    private static List<DSCriteria> randomCriteria(Random random) {
+        int size = 1 + random.nextInt(7);
+        DSCriteria[] result = new DSCriteria[size];
+        for (int idx = 0; idx < size; idx++) {
+            DSOperation operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+            String key = random.nextBoolean() ? "age" : "name";
+            Object value = switch (operation) {
+                case NUL, NOT_NULL -> null;
+                case IN, NOT_IN -> random.ints(1 + random.nextInt(4), 0, 40)
+                        .mapToObj(val -> key.equals("age") ? (Object) (10 + val % 25) : "name" + val).toList();
+                default -> key.equals("age") ? String.valueOf(10 + random.nextInt(25)) : "name" + random.nextInt(40);
+            };
+            result[idx] = new DSCriteria(key, operation, value, random.nextBoolean());
+        }
+        return List.of(result);
+    }
+}
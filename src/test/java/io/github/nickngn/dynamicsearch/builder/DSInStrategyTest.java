@@ -0,0 +1,99 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DSInStrategyTest {
+
+    private static final List<DSInStrategy> STRATEGIES = List.of(
+            DSInStrategy.none(),
+            new DSInStrategy(true, 0, false),
+            new DSInStrategy(true, 4, false),
+            new DSInStrategy(true, 6, false),
+            new DSInStrategy(false, 3, false));
+
+    @Test
+    void padsToThePowerOfTwoByRepeatingTheLastValue() {
+        DSInStrategy strategy = new DSInStrategy(true, 0, false);
+
+        assertThat(strategy.partition(values(1))).containsExactly(List.of(1));
+        assertThat(strategy.partition(values(3))).containsExactly(List.of(1, 2, 3, 3));
+        assertThat(strategy.partition(values(4))).containsExactly(List.of(1, 2, 3, 4));
+        assertThat(strategy.partition(values(5))).containsExactly(List.of(1, 2, 3, 4, 5, 5, 5, 5));
+        assertThat(DSInStrategy.none().partition(values(5))).containsExactly(values(5));
+    }
+
+    @Test
+    void chunksLongListsAndPadsOnlyTheLastChunk() {
+        assertThat(new DSInStrategy(false, 3, false).partition(values(7)))
+                .containsExactly(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7));
+        assertThat(new DSInStrategy(true, 4, false).partition(values(7)))
+                .containsExactly(List.of(1, 2, 3, 4), List.of(5, 6, 7, 7));
+        // padding never exceeds the chunk size
+        assertThat(new DSInStrategy(true, 6, false).partition(values(5)))
+                .containsExactly(List.of(1, 2, 3, 4, 5, 5));
+        assertThat(new DSInStrategy(true, 6, false).partition(values(9)))
+                .containsExactly(List.of(1, 2, 3, 4, 5, 6), List.of(7, 8, 9, 9));
+    }
+
+    @Test
+    void countsParametersOfThePartition() {
+        for (DSInStrategy strategy : STRATEGIES) {
+            for (int size = 1; size <= 40; size++) {
+                int rendered = strategy.partition(values(size)).stream().mapToInt(List::size).sum();
+                assertThat(strategy.parameterCount(size)).as("%s of %d", strategy, size).isEqualTo(rendered);
+            }
+        }
+        assertThat(new DSInStrategy(true, 4, true).parameterCount(100)).isEqualTo(1);
+    }
+
+    @Test
+    void typesArrayParametersByTheClassOfTheValues() {
+        DSInStrategy strategy = DSInStrategy.none().withArrayParameter(true);
+
+        assertThat(strategy.toArray(List.of(1L, 2L))).isInstanceOf(Long[].class).containsExactly(1L, 2L);
+        assertThat(strategy.toArray(Arrays.asList("a", null))).isInstanceOf(String[].class).containsExactly("a", null);
+        assertThat(strategy.toArray(DSPrimitiveLists.of(new int[]{3, 4}))).isInstanceOf(Integer[].class);
+        assertThat(strategy.toArray(List.of(1, "a")).getClass()).isEqualTo(Object[].class);
+        assertThat(strategy.toArray(Arrays.asList(null, null)).getClass()).isEqualTo(Object[].class);
+    }
+
+    @Test
+    void rejectsNegativeChunkSize() {
+        assertThatThrownBy(() -> DSInStrategy.none().withChunkSize(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<Integer> values(int size) {
+        return IntStream.rangeClosed(1, size).boxed().toList();
+    }
+}
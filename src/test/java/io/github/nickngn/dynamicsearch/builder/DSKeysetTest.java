@@ -0,0 +1,109 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import io.github.nickngn.dynamicsearch.support.PersonRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class DSKeysetTest {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PersonRepository repository;
+
+    private final DSSpecBuilder<Person> builder = new DSSpecBuilder<>();
+
+    @BeforeEach
+    void seed() {
+        People.seed(em);
+    }
+
+    @Test
+    void pagesOnDateColumnLoadedAsTimestamp() {
+        assertPagesMatchOffsetOrder(Sort.by(Sort.Order.desc("joinedAt")), List.of(), 6);
+        assertThat(repository.findById(1L).orElseThrow().getJoinedAt()).isInstanceOf(Timestamp.class);
+    }
+
+    @Test
+    void pagesOnDuplicateKeysByIdTieBreaker() {
+        assertPagesMatchOffsetOrder(Sort.by("code").and(Sort.by(Sort.Order.desc("address.city"))),
+                List.of(new DSCriteria("age", DSOperation.NOT_NULL, null)), 5);
+    }
+
+    @Test
+    void cursorRoundTripsValuesWithSeparators() {
+        List<String> values = Arrays.asList("12:ab", null, "", "~x");
+
+        assertThat(DSKeyset.decode(DSKeyset.encode(values))).isEqualTo(values);
+    }
+
+    @Test
+    void rejectsCursorOfAnotherSort() {
+        Person last = repository.findAll(Sort.by("id")).get(0);
+        String cursor = DSKeyset.cursor(last, Sort.by("name", "age", "id"));
+
+        assertThatThrownBy(() -> repository.findAll(builder.build(List.of(), Sort.by("id"), cursor)))
+                .isInstanceOf(InvalidCriteriaException.class);
+        assertThatThrownBy(() -> DSKeyset.decode("%%"))
+                .isInstanceOf(InvalidCriteriaException.class);
+    }
+
+    private void assertPagesMatchOffsetOrder(Sort requested, List<DSCriteria> criteria, int pageSize) {
+        Sort sort = DSKeyset.sort(requested, em.getMetamodel().entity(Person.class));
+        List<Long> expected = repository.findAll(builder.build(criteria), sort).stream().map(Person::getId).toList();
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            List<Person> page = repository.findAll(builder.build(criteria, sort, cursor), PageRequest.of(0, pageSize, sort))
+                    .getContent();
+            page.forEach(person -> paged.add(person.getId()));
+            cursor = DSKeyset.nextCursor(page, pageSize, sort);
+        } while (cursor != null);
+
+        assertThat(paged).isEqualTo(expected);
+    }
+}
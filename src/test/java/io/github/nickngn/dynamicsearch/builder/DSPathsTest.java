@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCountMode;
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.execution.DSSearchExecutor;
+import io.github.nickngn.dynamicsearch.support.Address;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class DSPathsTest {
+
+    @Autowired
+    private EntityManager em;
+
+    private CriteriaBuilder cb;
+
+    @BeforeEach
+    void seed() {
+        People.seed(em);
+        cb = em.getCriteriaBuilder();
+    }
+
+    @Test
+    void searchesThroughToManyJoinWithoutDuplicates() {
+        DSSearchExecutor<Address> executor = new DSSearchExecutor<>(em, Address.class);
+        AddressTemplate template = new AddressTemplate(List.of(new DSCriteria("residents.age", DSOperation.GREATER_THAN, 20)),
+                PageRequest.of(0, 10));
+
+        Page<Address> page = (Page<Address>) executor.search(template);
+
+        assertThat(page.getContent()).extracting(Address::getCity).containsExactlyInAnyOrder("Hanoi", "Paris");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(executor.count(template)).isEqualTo(2);
+    }
+
+    @Test
+    void keepsRowPerJoinedElementInProjections() {
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Address> root = query.from(Address.class);
+        Path<Integer> age = DSPaths.resolve(root, query, "residents.age", false);
+        query.multiselect(root.get("city")).where(cb.greaterThan(age, 20));
+
+        List<Tuple> rows = em.createQuery(query).getResultList();
+
+        assertThat(query.isDistinct()).isFalse();
+        assertThat(rows).hasSize((int) People.persons().stream()
+                .filter(person -> person.getAge() != null && person.getAge() > 20).count());
+    }
+
+    @Test
+    void reusesOneJoinPerAssociationPath() {
+        CriteriaQuery<Address> query = cb.createQuery(Address.class);
+        Root<Address> root = query.from(Address.class);
+
+        Path<Integer> age = DSPaths.resolve(root, query, "residents.age", true);
+        Path<String> name = DSPaths.resolve(root, query, "residents.name", true);
+        Path<String> city = DSPaths.resolve(root, query, "residents.address.city", true);
+        query.where(cb.greaterThan(age, 20), cb.isNotNull(name), cb.equal(city, "Paris"));
+
+        assertThat(root.getJoins()).hasSize(1);
+        assertThat(root.getFetches()).isEmpty();
+        // the address of residents isn't fetched, as the residents aren't
+        assertThat(root.getJoins().iterator().next().getJoins()).hasSize(1);
+        assertThat(query.isDistinct()).isTrue();
+        assertThat(em.createQuery(query).getResultList()).extracting(Address::getCity).containsExactly("Paris");
+    }
+
+    @Test
+    void fetchesToOneAssociationsOfEntityQueriesOnly() {
+        CriteriaQuery<Person> entities = cb.createQuery(Person.class);
+        Root<Person> root = entities.from(Person.class);
+        DSPaths.resolve(root, entities, "address.city", true);
+        DSPaths.resolve(root, entities, "address.id", true);
+
+        assertThat(root.getFetches()).hasSize(1);
+        assertThat(root.getJoins()).isEmpty();
+        assertThat(entities.isDistinct()).isFalse();
+
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<Person> counted = count.from(Person.class);
+        DSPaths.resolve(counted, count, "address.city", true);
+
+        assertThat(counted.getFetches()).isEmpty();
+        assertThat(counted.getJoins()).hasSize(1);
+    }
+
+    private static final class AddressTemplate extends DSTemplate {
+
+        private AddressTemplate(List<DSCriteria> criteria, Pageable pageable) {
+            this.criteria = criteria;
+            this.pageable = pageable;
+            this.countMode = DSCountMode.EXACT;
+        }
+
+        @Override
+        public Class<?> getReferenceClass() {
+            return Address.class;
+        }
+
+        @Override
+        public ConditionList customValidate(ConditionList conditionList) {
+            return conditionList;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DSPredicateBuilderTest {
+
+    private static final Item NAMED = new Item("abc", new BigDecimal("2.50"), 3, List.of("red", "blue"));
+
+    private static final Item UNNAMED = new Item(null, null, null, List.of());
+
+    private final DSPredicateBuilder<Item> builder = new DSPredicateBuilder<>(Item.class);
+
+    @Test
+    void nullPropertiesMatchNoOperationButNullChecks() {
+        for (DSOperation operation : DSOperation.values()) {
+            Object value = operation == DSOperation.IN || operation == DSOperation.NOT_IN ? List.of("x") : "x";
+            boolean expected = operation == DSOperation.NUL;
+            assertThat(matches(new DSCriteria("name", operation, value), UNNAMED)).as("%s", operation).isEqualTo(expected);
+        }
+        assertThat(matches(new DSCriteria("quantity", DSOperation.LESS_THAN, 10), UNNAMED)).isFalse();
+        assertThat(matches(new DSCriteria("quantity", DSOperation.NOT_EQUAL, 10), UNNAMED)).isFalse();
+    }
+
+    @Test
+    void nullValuesTestNullProperties() {
+        for (DSOperation operation : List.of(DSOperation.EQUAL, DSOperation.CONTAINS, DSOperation.BEGINS_WITH, DSOperation.ENDS_WITH)) {
+            assertThat(matches(new DSCriteria("name", operation, null), UNNAMED)).as("%s", operation).isTrue();
+            assertThat(matches(new DSCriteria("name", operation, null), NAMED)).as("%s", operation).isFalse();
+        }
+        for (DSOperation operation : List.of(DSOperation.NOT_EQUAL, DSOperation.DOES_NOT_CONTAIN,
+                DSOperation.DOES_NOT_BEGIN_WITH, DSOperation.DOES_NOT_END_WITH)) {
+            assertThat(matches(new DSCriteria("name", operation, null), UNNAMED)).as("%s", operation).isFalse();
+            assertThat(matches(new DSCriteria("name", operation, null), NAMED)).as("%s", operation).isTrue();
+        }
+        assertThatThrownBy(() -> builder.build(List.of(new DSCriteria("quantity", DSOperation.GREATER_THAN, null))))
+                .isInstanceOf(InvalidCriteriaException.class);
+    }
+
+    @Test
+    void notInListHoldingNullMatchesNothing() {
+        assertThat(matches(new DSCriteria("name", DSOperation.NOT_IN, List.of("x")), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("name", DSOperation.NOT_IN, Arrays.asList("x", null)), NAMED)).isFalse();
+        assertThat(matches(new DSCriteria("name", DSOperation.IN, Arrays.asList("abc", null)), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("name", DSOperation.IN, Arrays.asList("abc", null)), UNNAMED)).isFalse();
+    }
+
+    @Test
+    void comparesDecimalsIgnoringScale() {
+        assertThat(matches(new DSCriteria("price", DSOperation.EQUAL, "2.5"), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("price", DSOperation.EQUAL, 2.500), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("price", DSOperation.NOT_EQUAL, "2.50000"), NAMED)).isFalse();
+        assertThat(matches(new DSCriteria("price", DSOperation.IN, List.of("1", "2.5")), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("price", DSOperation.NOT_IN, List.of("2.500")), NAMED)).isFalse();
+        assertThat(matches(new DSCriteria("price", DSOperation.GREATER_THAN_EQUAL, "2.5"), NAMED)).isTrue();
+    }
+
+    @Test
+    void matchesLikeWildcardsAndQuotesOtherCharacters() {
+        assertThat(matches(new DSCriteria("name", DSOperation.CONTAINS, "a_c"), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("name", DSOperation.CONTAINS, "a_b"), NAMED)).isFalse();
+        assertThat(matches(new DSCriteria("name", DSOperation.BEGINS_WITH, "a%c"), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("name", DSOperation.BEGINS_WITH, "_c"), NAMED)).isFalse();
+        assertThat(matches(new DSCriteria("name", DSOperation.ENDS_WITH, "%"), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("name", DSOperation.DOES_NOT_END_WITH, "b_"), NAMED)).isFalse();
+        assertThat(matches(new DSCriteria("name", DSOperation.CONTAINS, "a.c"), NAMED)).isFalse();
+        assertThat(matches(new DSCriteria("name", DSOperation.CONTAINS, "B"), NAMED)).isFalse();
+        assertThat(matches(new DSCriteria("name", DSOperation.CONTAINS, ".*"),
+                new Item("x.*y", null, null, List.of()))).isTrue();
+    }
+
+    @Test
+    void combinesRunsFromLeftToRight() {
+        // (name = x OR quantity = 3) AND price > 5, not name = x OR (quantity = 3 AND price > 5)
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("name", DSOperation.EQUAL, "abc"),
+                new DSCriteria("quantity", DSOperation.EQUAL, 3, true),
+                new DSCriteria("price", DSOperation.GREATER_THAN, 5, false));
+
+        assertThat(builder.build(criteria).test(NAMED)).isFalse();
+        assertThat(builder.build(criteria.subList(0, 2)).test(NAMED)).isTrue();
+        assertThat(builder.build(List.of()).test(UNNAMED)).isTrue();
+    }
+
+    @Test
+    void matchesAnyElementOfCollections() {
+        assertThat(matches(new DSCriteria("tags", DSOperation.EQUAL, "blue"), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("tags", DSOperation.NOT_EQUAL, "red"), NAMED)).isTrue();
+        assertThat(matches(new DSCriteria("tags", DSOperation.NUL, null), UNNAMED)).isTrue();
+        assertThat(matches(new DSCriteria("tags", DSOperation.EQUAL, "red"), UNNAMED)).isFalse();
+    }
+
+    @Test
+    void rejectsKeysOtherThanProperties() {
+        for (String key : List.of("hashCode", "toString", "class", "touch", "name.bytes", "missing", "name..x", "")) {
+            assertThatThrownBy(() -> builder.build(List.of(new DSCriteria(key, DSOperation.NOT_NULL, null))))
+                    .as(key).isInstanceOf(InvalidCriteriaException.class);
+        }
+        DSPredicateBuilder<Bean> beans = new DSPredicateBuilder<>(Bean.class);
+        Bean bean = new Bean();
+        assertThat(beans.build(List.of(new DSCriteria("active", DSOperation.EQUAL, true))).test(bean)).isTrue();
+        assertThatThrownBy(() -> beans.build(List.of(new DSCriteria("reset", DSOperation.NOT_NULL, null))))
+                .isInstanceOf(InvalidCriteriaException.class);
+        assertThat(bean.resets).isZero();
+    }
+
+    private boolean matches(DSCriteria dsCriteria, Item item) {
+        Predicate<Item> predicate = builder.build(List.of(dsCriteria));
+        return predicate.test(item);
+    }
+
+    private record Item(String name, BigDecimal price, Integer quantity, List<String> tags) {
+
+        String touch() {
+            throw new IllegalStateException("must not be invoked");
+        }
+    }
+
+    private static final class Bean {
+
+        private int resets;
+
+        public boolean isActive() {
+            return true;
+        }
+
+        public String reset() {
+            resets++;
+            return "reset";
+        }
+    }
+}
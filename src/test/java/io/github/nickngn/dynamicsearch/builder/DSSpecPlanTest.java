@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import io.github.nickngn.dynamicsearch.support.PersonRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class DSSpecPlanTest {
+
+    private static final DSOperation[] OPERATIONS = DSOperation.values();
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PersonRepository repository;
+
+    @BeforeEach
+    void seed() {
+        People.seed(em);
+    }
+
+    @Test
+    void cachedPlanOfNormalizedCriteriaMatchesComposedSpecifications() {
+        DSInStrategy strategy = new DSInStrategy(true, 3, false);
+        DSSpecBuilder<Person> builder = new DSSpecBuilder<>(Person.class, DSBuilderOptions.builder()
+                .planCacheSize(64).inStrategy(strategy).normalizeCriteria(true).build());
+        Random random = new Random(2);
+        for (int round = 0; round < 300; round++) {
+            List<DSCriteria> criteria = randomCriteria(random);
+            // warm the plan with the same shape and other values, so the plan is bound to new values
+            builder.build(withOtherValues(criteria));
+            assertThat(ids(builder.build(criteria)))
+                    .as("%s", criteria)
+                    .isEqualTo(ids(composed(criteria, strategy)));
+        }
+        assertThat(builder.getPlanCache().size()).isPositive();
+    }
+
+    @Test
+    void rejectsNullRangeValueWhenPredicateIsCreated() {
+        Specification<Person> specification = DSSpecPlan.<Person>compile(
+                        DSCriteriaShape.of(List.of(new DSCriteria("age", DSOperation.LESS_THAN, null))))
+                .bind(List.of(new DSCriteria("age", DSOperation.LESS_THAN, null)));
+
+        assertThatThrownBy(() -> repository.findAll(specification))
+                .isInstanceOf(InvalidCriteriaException.class);
+    }
+
+    private List<Long> ids(Specification<Person> specification) {
+        return repository.findAll(specification).stream().map(Person::getId).sorted().toList();
+    }
+
+    private static Specification<Person> composed(List<DSCriteria> criteria, DSInStrategy strategy) {
+        Specification<Person> result = new DSSpecification<>(criteria.get(0), strategy);
+        for (int idx = 1; idx < criteria.size(); idx++) {
+            Specification<Person> next = new DSSpecification<>(criteria.get(idx), strategy);
+            result = Boolean.TRUE.equals(criteria.get(idx).isOr()) ? result.or(next) : result.and(next);
+        }
+        return result;
+    }
+
+    private static List<DSCriteria> randomCriteria(Random random) {
+        int size = 1 + random.nextInt(5);
+        DSCriteria[] result = new DSCriteria[size];
+        for (int idx = 0; idx < size; idx++) {
+            DSOperation operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+            boolean numeric = !text(operation) && random.nextBoolean();
+            // numbers searched on the string column code are compared as strings by the database
+            String key = numeric ? random.nextBoolean() ? "age" : "code" : random.nextBoolean() ? "name" : "address.city";
+            result[idx] = new DSCriteria(key, operation, value(random, operation, numeric), random.nextBoolean());
+        }
+        return List.of(result);
+    }
+
+    private static Object value(Random random, DSOperation operation, boolean numeric) {
+        return switch (operation) {
+            case NUL, NOT_NULL -> null;
+            case IN, NOT_IN -> random.ints(1 + random.nextInt(6), 0, 40)
+                    .mapToObj(val -> numeric ? (Object) (10 + val) : "name" + val).toList();
+            case GREATER_THAN, GREATER_THAN_EQUAL, LESS_THAN, LESS_THAN_EQUAL -> numeric ? 10 + random.nextInt(25) : "name" + random.nextInt(40);
+            case EQUAL, NOT_EQUAL -> random.nextInt(6) == 0 ? null : numeric ? 10 + random.nextInt(25) : "name" + random.nextInt(40);
+            default -> "e" + random.nextInt(4);
+        };
+    }
+
+    private static boolean text(DSOperation operation) {
+        return switch (operation) {
+            case CONTAINS, DOES_NOT_CONTAIN, BEGINS_WITH, DOES_NOT_BEGIN_WITH, ENDS_WITH, DOES_NOT_END_WITH -> true;
+            default -> false;
+        };
+    }
+
+    private static List<DSCriteria> withOtherValues(List<DSCriteria> criteria) {
+        return criteria.stream()
+                .map(dsCriteria -> new DSCriteria(dsCriteria.key(), dsCriteria.operation(), otherValue(dsCriteria.value()), dsCriteria.isOr()))
+                .toList();
+    }
+
+    private static Object otherValue(Object value) {
+        if (value instanceof List<?> list) {
+            return list.stream().map(DSSpecPlanTest::otherValue).toList();
+        }
+        if (value instanceof Integer number) {
+            return number + 1;
+        }
+        return value != null ? value + "0" : null;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DSSqlPlanTest {
+
+    private static final List<DSInStrategy> STRATEGIES = List.of(
+            DSInStrategy.none(),
+            new DSInStrategy(true, 0, false),
+            new DSInStrategy(true, 4, false),
+            new DSInStrategy(false, 3, false),
+            new DSInStrategy(false, 0, true));
+
+    @Test
+    void bindsValuesOfAnotherCriteriaListOfTheSameShape() {
+        List<DSCriteria> sample = List.of(
+                new DSCriteria("name", DSOperation.CONTAINS, "a"),
+                new DSCriteria("age", DSOperation.GREATER_THAN, 10, true),
+                new DSCriteria("code", DSOperation.IN, List.of(1, 2, 3, 4, 5)),
+                new DSCriteria("code", DSOperation.NOT_IN, List.of(7)),
+                new DSCriteria("name", DSOperation.BEGINS_WITH, null),
+                new DSCriteria("name", DSOperation.NOT_NULL, null),
+                new DSCriteria("age", DSOperation.EQUAL, null, true),
+                new DSCriteria("name", DSOperation.DOES_NOT_END_WITH, "z"));
+        List<DSCriteria> other = List.of(
+                new DSCriteria("name", DSOperation.CONTAINS, "b"),
+                new DSCriteria("age", DSOperation.GREATER_THAN, 20, true),
+                new DSCriteria("code", DSOperation.IN, List.of(6, 7, 8, 9, 10)),
+                new DSCriteria("code", DSOperation.NOT_IN, List.of(8)),
+                new DSCriteria("name", DSOperation.BEGINS_WITH, null),
+                new DSCriteria("name", DSOperation.NOT_NULL, null),
+                new DSCriteria("age", DSOperation.EQUAL, null, true),
+                new DSCriteria("name", DSOperation.DOES_NOT_END_WITH, "y"));
+        for (DSInStrategy strategy : STRATEGIES) {
+            assertThat(DSCriteriaShape.of(other, strategy)).isEqualTo(DSCriteriaShape.of(sample, strategy));
+            DSSqlStatement bound = DSSqlPlan.compile(sample, DSPlaceholderStyle.POSITIONAL, strategy).bind(other);
+            DSSqlStatement rendered = render(other, strategy);
+            assertThat(bound.sql()).isEqualTo(rendered.sql());
+            assertThat(bound.parameters()).usingRecursiveComparison().isEqualTo(rendered.parameters());
+        }
+    }
+
+    @Test
+    void padsAndChunksInValuesLikeTheRenderedStatement() {
+        DSInStrategy strategy = new DSInStrategy(true, 4, false);
+        List<DSCriteria> sample = List.of(new DSCriteria("code", DSOperation.IN, List.of(1, 2, 3, 4, 5, 6, 7, 8)));
+        List<DSCriteria> other = List.of(new DSCriteria("code", DSOperation.IN, List.of(11, 12, 13, 14, 15, 16, 17)));
+
+        DSSqlStatement statement = DSSqlPlan.compile(sample, DSPlaceholderStyle.POSITIONAL, strategy).bind(other);
+
+        assertThat(statement.sql()).isEqualTo("WHERE 1=1 AND (code in (?,?,?,?) OR code in (?,?,?,?))");
+        assertThat(statement.parameters()).containsExactly(11, 12, 13, 14, 15, 16, 17, 17);
+    }
+
+    @Test
+    void bindsWholeListAsArrayParameter() {
+        DSInStrategy strategy = DSInStrategy.none().withArrayParameter(true);
+        List<DSCriteria> criteria = List.of(new DSCriteria("code", DSOperation.NOT_IN, List.of(1, 2)));
+
+        DSSqlStatement statement = DSSqlPlan.compile(criteria, DSPlaceholderStyle.NAMED, strategy).bind(criteria);
+
+        assertThat(statement.sql()).isEqualTo("WHERE 1=1 AND code <> ALL(:p1)");
+        assertThat(statement.parameters()).hasSize(1);
+        assertThat(statement.parameters().get(0)).isInstanceOf(Integer[].class);
+        assertThat((Object[]) statement.parameters().get(0)).containsExactly(1, 2);
+    }
+
+    private static DSSqlStatement render(List<DSCriteria> criteria, DSInStrategy strategy) {
+        StringBuilder sql = new StringBuilder("WHERE 1=1");
+        List<Object> parameters = new ArrayList<>();
+        for (DSCriteria dsCriteria : criteria) {
+            sql.append(' ').append(new DSParameterizedSqlSpec(dsCriteria, parameters, DSPlaceholderStyle.POSITIONAL, strategy).toCondition());
+        }
+        return new DSSqlStatement(sql.toString(), parameters, DSPlaceholderStyle.POSITIONAL);
+    }
+}
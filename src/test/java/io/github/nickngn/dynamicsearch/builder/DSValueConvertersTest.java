@@ -0,0 +1,116 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.builder;
+
+import io.github.nickngn.dynamicsearch.DSOperation;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DSValueConvertersTest {
+
+    @Test
+    void convertsTextsAndNumbersToEverySupportedType() {
+        UUID uuid = UUID.randomUUID();
+        Instant instant = Instant.parse("2023-05-01T10:15:30Z");
+
+        assertThat(DSValueConverters.convert(12, String.class)).isEqualTo("12");
+        assertThat(DSValueConverters.convert("12", Integer.class)).isEqualTo(12);
+        assertThat(DSValueConverters.convert(12L, int.class)).isEqualTo(12);
+        assertThat(DSValueConverters.convert("12.0", Long.class)).isEqualTo(12L);
+        assertThat(DSValueConverters.convert(12, Short.class)).isEqualTo((short) 12);
+        assertThat(DSValueConverters.convert("-12", byte.class)).isEqualTo((byte) -12);
+        assertThat(DSValueConverters.convert("1.5", Double.class)).isEqualTo(1.5);
+        assertThat(DSValueConverters.convert(2, float.class)).isEqualTo(2f);
+        assertThat(DSValueConverters.convert(1.25, BigDecimal.class)).isEqualTo(new BigDecimal("1.25"));
+        assertThat(DSValueConverters.convert("123456789012345678901", BigInteger.class))
+                .isEqualTo(new BigInteger("123456789012345678901"));
+        assertThat(DSValueConverters.convert("TRUE", boolean.class)).isEqualTo(true);
+        assertThat(DSValueConverters.convert("x", char.class)).isEqualTo('x');
+        assertThat(DSValueConverters.convert(uuid.toString(), UUID.class)).isEqualTo(uuid);
+        assertThat(DSValueConverters.convert("IN", DSOperation.class)).isEqualTo(DSOperation.IN);
+        assertThat(DSValueConverters.convert("2023-05-01", LocalDate.class)).isEqualTo(LocalDate.of(2023, 5, 1));
+        assertThat(DSValueConverters.convert("2023-05-01T10:15:30", LocalDateTime.class))
+                .isEqualTo(LocalDateTime.of(2023, 5, 1, 10, 15, 30));
+        assertThat(DSValueConverters.convert("10:15", LocalTime.class)).isEqualTo(LocalTime.of(10, 15));
+        assertThat(DSValueConverters.convert("2023-05-01T10:15:30+02:00", OffsetDateTime.class))
+                .isEqualTo(OffsetDateTime.parse("2023-05-01T10:15:30+02:00"));
+        assertThat(DSValueConverters.convert("2023-05-01T10:15:30Z[UTC]", ZonedDateTime.class))
+                .isEqualTo(ZonedDateTime.parse("2023-05-01T10:15:30Z[UTC]"));
+        assertThat(DSValueConverters.convert(instant.toString(), Instant.class)).isEqualTo(instant);
+        assertThat(DSValueConverters.convert(instant.toEpochMilli(), Date.class)).isEqualTo(Date.from(instant));
+        assertThat(DSValueConverters.convert(new Date(instant.toEpochMilli()), Timestamp.class))
+                .isEqualTo(Timestamp.from(instant));
+    }
+
+    @Test
+    void keepsNullsValuesOfTheTypeAndUnsupportedTypes() {
+        BigDecimal decimal = new BigDecimal("1.50");
+        Object value = new Object();
+
+        assertThat(DSValueConverters.convert(null, Integer.class)).isNull();
+        assertThat(DSValueConverters.convert(decimal, BigDecimal.class)).isSameAs(decimal);
+        assertThat(DSValueConverters.convert(value, List.class)).isSameAs(value);
+        assertThat(DSValueConverters.forType(Long.class)).isSameAs(DSValueConverters.forType(Long.class));
+    }
+
+    @Test
+    void rejectsOverflowsFractionsAndMalformedValues() {
+        List<Object[]> invalid = List.of(
+                new Object[]{3_000_000_000L, Integer.class},
+                new Object[]{"9223372036854775808", Long.class},
+                new Object[]{40_000, Short.class},
+                new Object[]{"128", Byte.class},
+                new Object[]{"1.5", Integer.class},
+                new Object[]{"1.5", BigInteger.class},
+                new Object[]{"abc", Double.class},
+                new Object[]{"yes", Boolean.class},
+                new Object[]{"xy", Character.class},
+                new Object[]{"not-a-uuid", UUID.class},
+                new Object[]{"UNKNOWN", DSOperation.class},
+                new Object[]{"2023-13-01", LocalDate.class},
+                new Object[]{"yesterday", Instant.class});
+        for (Object[] args : invalid) {
+            assertThatThrownBy(() -> DSValueConverters.convert(args[0], (Class<?>) args[1]))
+                    .as("%s to %s", args[0], args[1])
+                    .isInstanceOf(InvalidCriteriaException.class)
+                    .hasMessageContaining("can't be converted to " + ((Class<?>) args[1]).getSimpleName());
+        }
+    }
+}
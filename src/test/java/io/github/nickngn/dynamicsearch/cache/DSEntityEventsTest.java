@@ -0,0 +1,142 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.cache;
+
+import io.github.nickngn.dynamicsearch.support.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DSEntityEventsTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final DSCache<String, String> cache = new DSCache<>(10);
+
+    private final List<Object> changes = new ArrayList<>();
+
+    private final DSEntityEvents.Subscriber subscriber = (entity, removed) -> changes.add(removed ? "-" + entity : entity);
+
+    private final DSEntityEvents.Subscriber failing = (entity, removed) -> {
+        throw new IllegalStateException("broken subscriber");
+    };
+
+    @AfterEach
+    void unregister() {
+        DSEntityEvents.unregister(cache);
+        DSEntityEvents.unsubscribe(subscriber);
+        DSEntityEvents.unsubscribe(failing);
+    }
+
+    @Test
+    void publishesWritesAfterCommit() {
+        register();
+        Person person = new Person();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            DSEntityEvents.changed(person);
+            DSEntityEvents.changed(person);
+            assertThat(cache.get("key", key -> "stale")).isEqualTo("cached");
+            assertThat(changes).isEmpty();
+        });
+
+        assertThat(cache.get("key", key -> "fresh")).isEqualTo("fresh");
+        assertThat(changes).containsExactly(person);
+    }
+
+    @Test
+    void discardsWritesOfRolledBackTransaction() {
+        register();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            DSEntityEvents.removed(new Person());
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache.get("key", key -> "fresh")).isEqualTo("cached");
+        assertThat(changes).isEmpty();
+    }
+
+    @Test
+    void publishesImmediatelyWithoutTransaction() {
+        register();
+        Person person = new Person();
+
+        DSEntityEvents.removed(person);
+
+        assertThat(cache.get("key", key -> "fresh")).isEqualTo("fresh");
+        assertThat(changes).containsExactly("-" + person);
+    }
+
+    @Test
+    void notifiesOthersWhenSubscriberFails() {
+        DSEntityEvents.subscribe(failing, Person.class);
+        register();
+        Person person = new Person();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> DSEntityEvents.changed(person));
+
+        assertThat(cache.get("key", key -> "fresh")).isEqualTo("fresh");
+        assertThat(changes).containsExactly(person);
+    }
+
+    @Test
+    void collectsWritesPerTransaction() {
+        register();
+        Person outer = new Person();
+        Person inner = new Person();
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            DSEntityEvents.changed(outer);
+            requiresNew.executeWithoutResult(innerStatus -> DSEntityEvents.changed(inner));
+            assertThat(changes).containsExactly(inner);
+            status.setRollbackOnly();
+        });
+
+        assertThat(changes).containsExactly(inner);
+    }
+
+    private void register() {
+        cache.get("key", key -> "cached");
+        DSEntityEvents.register(cache, Person.class);
+        DSEntityEvents.subscribe(subscriber, Person.class);
+    }
+}
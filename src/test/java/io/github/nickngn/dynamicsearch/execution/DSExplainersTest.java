@@ -0,0 +1,83 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.sql.DataSource;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class DSExplainersTest {
+
+    private static final String SQL = "select p.id from person p where p.age > 20";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeEach
+    void seed() {
+        People.seed(em);
+    }
+
+    @Test
+    void failedExplainKeepsTheSearchingTransaction() {
+        em.persist(new Person(1_000, "pending", "0", 30, new Date(People.EPOCH), null));
+        em.flush();
+        DSExplainer failing = DSExplainers.jdbc(em, sql -> "EXPLAIN " + sql.replace("person", "missing"));
+
+        assertThatThrownBy(() -> failing.explain(SQL)).isInstanceOf(RuntimeException.class);
+
+        assertThat(DSExplainers.jdbc(em, sql -> "EXPLAIN " + sql).explain(SQL)).containsIgnoringCase("person");
+        assertThat(em.find(Person.class, 1_000L)).isNotNull();
+        assertThat(em.createQuery("select count(p) from Person p", Long.class).getSingleResult())
+                .isEqualTo(People.SIZE + 1L);
+    }
+
+    @Test
+    void explainsOnConnectionOfDataSource() {
+        assertThat(DSExplainers.jdbc(dataSource, sql -> "EXPLAIN " + sql).explain(SQL)).containsIgnoringCase("person");
+        assertThatThrownBy(() -> DSExplainers.jdbc(dataSource, sql -> "EXPLAIN " + sql).explain("select * from missing"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void numbersPlaceholdersOutsideLiterals() {
+        assertThat(DSExplainers.numberPlaceholders("select * from t where a = ? and b = '?' and c in (?, ?)"))
+                .isEqualTo("select * from t where a = $1 and b = '?' and c in ($2, $3)");
+    }
+}
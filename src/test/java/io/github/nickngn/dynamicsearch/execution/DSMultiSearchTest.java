@@ -0,0 +1,130 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DSMultiSearchTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final CountDownLatch never = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void returnsResultsOfEverySearch() {
+        DSMultiSearch multiSearch = new DSMultiSearch(executor, Duration.ofSeconds(5));
+        DSMultiSearch.Handle<String> first = multiSearch.add("first", () -> "a");
+        DSMultiSearch.Handle<Integer> second = multiSearch.add("second", () -> 2);
+        DSMultiSearch.Handle<Long> third = multiSearch.add("third", () -> 3L);
+
+        DSMultiSearchResult result = multiSearch.execute();
+
+        assertThat(result.get(first)).isEqualTo("a");
+        assertThat(result.get(second)).isEqualTo(2);
+        assertThat(result.get(third)).isEqualTo(3L);
+    }
+
+    @Test
+    void timesOutSlowSearchAndCancelsOthers() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(2);
+        AtomicBoolean pendingStarted = new AtomicBoolean();
+        DSMultiSearch multiSearch = new DSMultiSearch(executor, Duration.ofSeconds(30));
+        multiSearch.add("slow", blocking(interrupted), Duration.ofMillis(100));
+        multiSearch.add("other", blocking(interrupted));
+        // queued behind the two others on the pool of two threads
+        multiSearch.add("pending", () -> pendingStarted.getAndSet(true));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(multiSearch::execute)
+                .isInstanceOf(DSMultiSearchException.class)
+                .hasMessageContaining("'slow' timed out");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(10));
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(pendingStarted).isFalse();
+    }
+
+    @Test
+    void interruptsOthersOnFirstFailure() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        DSMultiSearch multiSearch = new DSMultiSearch(executor, Duration.ofSeconds(30));
+        multiSearch.add("running", blocking(interrupted));
+        multiSearch.add("failing", () -> {
+            throw new IllegalStateException("broken");
+        });
+
+        assertThatThrownBy(multiSearch::execute)
+                .isInstanceOf(DSMultiSearchException.class)
+                .hasMessageContaining("'failing' failed")
+                .hasRootCauseMessage("broken");
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void executesOnce() {
+        DSMultiSearch multiSearch = new DSMultiSearch(executor, Duration.ofSeconds(5));
+        multiSearch.add("first", () -> 1);
+        multiSearch.execute();
+
+        assertThatThrownBy(multiSearch::execute).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> multiSearch.add("second", () -> 2)).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * @return search blocking until interrupted, counting down the latch then
+     */
+    private Supplier<Object> blocking(CountDownLatch interrupted) {
+        return () -> {
+            try {
+                never.await();
+                return null;
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.execution;
+
+import io.github.nickngn.dynamicsearch.DSCountMode;
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.stats.DSShapeUsage;
+import io.github.nickngn.dynamicsearch.stats.DSUsageRecorder;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import io.github.nickngn.dynamicsearch.support.PersonTemplate;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+class DSSearchExecutorTest {
+
+    @Autowired
+    private EntityManager em;
+
+    private DSSearchExecutor<Person> executor;
+
+    @BeforeEach
+    void seed() {
+        People.seed(em);
+        executor = new DSSearchExecutor<>(em, Person.class);
+    }
+
+    @Test
+    void asyncCountRequiresExecutor() {
+        PersonTemplate template = new PersonTemplate(List.of(new DSCriteria("age", DSOperation.GREATER_THAN, 20)),
+                PageRequest.of(0, 5), DSCountMode.ASYNC);
+
+        assertThatThrownBy(() -> executor.search(template)).isInstanceOf(IllegalStateException.class);
+
+        executor.setCountExecutor(Runnable::run);
+        Slice<Person> slice = executor.search(template);
+        assertThat(slice).isInstanceOf(DSAsyncCountSlice.class);
+        assertThat(((DSAsyncCountSlice<Person>) slice).getTotalElements().join())
+                .isEqualTo(executor.count(template));
+    }
+
+    @Test
+    void cachedCountIsKeyedByCopyOfCriteria() {
+        List<Object> ids = new ArrayList<>(List.of(1, 2, 3));
+        Page<Person> first = (Page<Person>) executor.search(new PersonTemplate(
+                List.of(new DSCriteria("id", DSOperation.IN, ids)), PageRequest.of(0, 2), DSCountMode.CACHED));
+        assertThat(first.getTotalElements()).isEqualTo(3);
+
+        // the caller reuses its list, the cached count of [1, 2, 3] must not be served for [4]
+        ids.clear();
+        ids.add(4);
+        Page<Person> second = (Page<Person>) executor.search(new PersonTemplate(
+                List.of(new DSCriteria("id", DSOperation.IN, List.of(4))), PageRequest.of(0, 2), DSCountMode.CACHED));
+        assertThat(second.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsResultCacheHitsWithoutLatency() {
+        DSUsageRecorder recorder = new DSUsageRecorder();
+        executor.setUsageRecorder(recorder);
+        executor.setResultCache(10, Duration.ofMinutes(1));
+
+        for (int idx = 0; idx < 3; idx++) {
+            executor.search(new PersonTemplate(List.of(new DSCriteria("age", DSOperation.GREATER_THAN, 20)),
+                    PageRequest.of(0, 5), DSCountMode.NONE));
+        }
+
+        DSShapeUsage usage = recorder.getShapeUsages().get(0);
+        assertThat(usage.count()).isEqualTo(3);
+        assertThat(usage.executions()).isEqualTo(1);
+        assertThat(usage.averageNanos()).isEqualTo(usage.totalNanos());
+        assertThat(recorder.getKeyUsages().get(0).count()).isEqualTo(3);
+    }
+
+    @Test
+    void clearsContextAfterRowsAreConsumed() {
+        PersonTemplate template = new PersonTemplate(List.of(), PageRequest.of(0, 5, Sort.by("id")), DSCountMode.NONE);
+        List<String> cities = new ArrayList<>();
+
+        // every second row is read right before the context is cleared, its lazy address must still load
+        executor.forEach(template, DSStreamOptions.defaults().withClearInterval(2),
+                person -> cities.add(person.getAddress().getCity()));
+
+        assertThat(cities).hasSize(People.SIZE);
+        for (int idx = 0; idx < cities.size(); idx++) {
+            assertThat(cities.get(idx)).isEqualTo(idx % 2 == 0 ? "Paris" : "Hanoi");
+        }
+    }
+
+    @Test
+    void keysCachesByRewrittenCriteria() {
+        executor.setResultCache(10, Duration.ofMinutes(1));
+        String[] tenant = {"Hanoi"};
+        int[] rewrites = {0};
+        executor.setCriteriaRewriter(criteria -> {
+            rewrites[0]++;
+            List<DSCriteria> scoped = new ArrayList<>(criteria);
+            scoped.add(new DSCriteria("address.city", DSOperation.EQUAL, tenant[0], false));
+            return scoped;
+        });
+        PersonTemplate template = new PersonTemplate(List.of(), PageRequest.of(0, 50), DSCountMode.CACHED);
+
+        List<Person> hanoi = executor.search(template).getContent();
+        tenant[0] = "Paris";
+        Page<Person> paris = (Page<Person>) executor.search(template);
+
+        assertThat(hanoi).extracting(Person::getId).allMatch(id -> id % 2 == 0).hasSize(People.SIZE / 2);
+        assertThat(paris.getContent()).extracting(Person::getId).allMatch(id -> id % 2 == 1);
+        assertThat(paris.getTotalElements()).isEqualTo(People.SIZE / 2);
+        assertThat(rewrites[0]).isEqualTo(2);
+        assertThat(executor.search(template).getContent()).isEqualTo(paris.getContent());
+    }
+}
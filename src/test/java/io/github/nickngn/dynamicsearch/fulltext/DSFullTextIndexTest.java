@@ -0,0 +1,199 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.fulltext;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSPredicateBuilder;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.FilterDirectory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexOutput;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DSFullTextIndexTest {
+
+    private static final DSOperation[] TEXT_OPERATIONS = {DSOperation.CONTAINS, DSOperation.BEGINS_WITH, DSOperation.ENDS_WITH};
+
+    private final ByteBuffersDirectory directory = new ByteBuffersDirectory();
+
+    private List<Person> persons;
+
+    private DSFullTextIndex<Person> index;
+
+    @BeforeEach
+    void load() {
+        persons = People.persons();
+        persons.get(4).setName("Name5 Mixed");
+        index = new DSFullTextIndex<>(Person.class, Reference.class, "id", directory, 100);
+        index.load(persons);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        index.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rewritesTextCriteriaIntoIdsOfTheSameMatches() {
+        DSPredicateBuilder<Person> predicates = new DSPredicateBuilder<>(Person.class);
+        Random random = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            DSCriteria dsCriteria = new DSCriteria("name", TEXT_OPERATIONS[random.nextInt(TEXT_OPERATIONS.length)],
+                    substring(random, "name" + (1 + random.nextInt(People.SIZE))));
+
+            List<DSCriteria> rewritten = index.rewrite(List.of(dsCriteria));
+
+            assertThat(rewritten).hasSize(1);
+            assertThat(rewritten.get(0).key()).as("%s", dsCriteria).isEqualTo("id");
+            assertThat(rewritten.get(0).operation()).isEqualTo(DSOperation.IN);
+            assertThat((List<Object>) rewritten.get(0).value()).as("%s", dsCriteria)
+                    .containsExactlyInAnyOrderElementsOf(persons.stream()
+                            .filter(predicates.build(List.of(dsCriteria))).map(Person::getId).toList());
+        }
+    }
+
+    @Test
+    void keepsCriteriaNotResolvedByTheIndex() {
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("name", DSOperation.CONTAINS, "na%e"),
+                new DSCriteria("name", DSOperation.CONTAINS, "n_me"),
+                new DSCriteria("name", DSOperation.CONTAINS, ""),
+                new DSCriteria("name", DSOperation.DOES_NOT_CONTAIN, "name1"),
+                new DSCriteria("name", DSOperation.EQUAL, "name1"),
+                new DSCriteria("code", DSOperation.CONTAINS, "1"));
+
+        assertThat(index.rewrite(criteria)).isSameAs(criteria);
+    }
+
+    @Test
+    void keepsCriteriaMatchingMoreIdsThanTheLimit() throws IOException {
+        index.close();
+        index = new DSFullTextIndex<>(Person.class, Reference.class, "id", new ByteBuffersDirectory(), 5);
+        // one document per segment, so collection is terminated across segments
+        for (Person person : persons) {
+            index.onChange(person, false);
+        }
+        List<DSCriteria> criteria = List.of(new DSCriteria("name", DSOperation.BEGINS_WITH, "name"));
+
+        assertThat(index.rewrite(criteria)).isSameAs(criteria);
+        assertThat(index.rewrite(List.of(new DSCriteria("name", DSOperation.BEGINS_WITH, "name4"))).get(0).value())
+                .isEqualTo(List.of(4L, 40L));
+    }
+
+    @Test
+    void matchesCaseOnlyWhenConfiguredToIgnoreIt() throws IOException {
+        assertThat(index.rewrite(List.of(new DSCriteria("name", DSOperation.CONTAINS, "MIXED"))).get(0).value())
+                .isEqualTo(List.of());
+
+        index.close();
+        index = new DSFullTextIndex<>(Person.class, Reference.class, "id", new ByteBuffersDirectory(), 100, true);
+        index.load(persons);
+
+        assertThat(index.rewrite(List.of(new DSCriteria("name", DSOperation.CONTAINS, "MIXED"))).get(0).value())
+                .isEqualTo(List.of(5L));
+        assertThat(index.rewrite(List.of(new DSCriteria("name", DSOperation.BEGINS_WITH, "NA"))).get(0).value())
+                .asList().hasSize((int) persons.stream().filter(person -> person.getName() != null).count());
+    }
+
+    @Test
+    void searchesAppliedWritesAndCommitsThemOnDemand() throws IOException {
+        index.onChange(new Person(100, "written", "0", 20, new Date(People.EPOCH), null), false);
+        index.onChange(persons.get(1), true);
+
+        assertThat(index.rewrite(List.of(new DSCriteria("name", DSOperation.ENDS_WITH, "itten"))).get(0).value())
+                .isEqualTo(List.of(100L));
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertThat(reader.numDocs()).isEqualTo(People.SIZE);
+            assertThat(reader.numDeletedDocs()).isZero();
+        }
+
+        index.commit();
+
+        try (DirectoryReader reader = DirectoryReader.open(directory)) {
+            assertThat(reader.numDocs()).isEqualTo(People.SIZE);
+            assertThat(reader.numDeletedDocs()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void marksIndexStaleInsteadOfThrowingOnFailedWrite() throws IOException {
+        FailingDirectory failing = new FailingDirectory();
+        index.close();
+        index = new DSFullTextIndex<>(Person.class, Reference.class, "id", failing, 100);
+        index.load(persons);
+        List<DSCriteria> criteria = List.of(new DSCriteria("name", DSOperation.CONTAINS, "name1"));
+        assertThat(index.rewrite(criteria)).isNotSameAs(criteria);
+
+        failing.failing = true;
+        index.onChange(new Person(100, "written", "0", 20, new Date(People.EPOCH), null), false);
+
+        assertThat(index.isStale()).isTrue();
+        assertThat(index.rewrite(criteria)).isSameAs(criteria);
+    }
+
+    private static String substring(Random random, String text) {
+        int from = random.nextInt(text.length());
+        return text.substring(from, from + 1 + random.nextInt(text.length() - from));
+    }
+
+    private static final class FailingDirectory extends FilterDirectory {
+
+        private volatile boolean failing;
+
+        private FailingDirectory() {
+            super(new ByteBuffersDirectory());
+        }
+
+        @Override
+        public IndexOutput createOutput(String name, IOContext context) throws IOException {
+            if (failing) {
+                throw new IOException("disk full");
+            }
+            return super.createOutput(name, context);
+        }
+    }
+
+    private static final class Reference {
+
+        @DSFullText
+        private String name;
+
+        private String code;
+    }
+}
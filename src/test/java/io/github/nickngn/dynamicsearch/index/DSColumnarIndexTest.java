@@ -0,0 +1,201 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.index;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.builder.DSPredicateBuilder;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import io.github.nickngn.dynamicsearch.support.PersonTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DSColumnarIndexTest {
+
+    private static final DSOperation[] OPERATIONS = DSOperation.values();
+
+    private List<Person> persons;
+
+    private DSColumnarIndex<Person> index;
+
+    @BeforeEach
+    void load() {
+        persons = People.persons();
+        index = new DSColumnarIndex<>(Person.class, DSColumnarIndexTest::copy, "id", "name", "code", "age", "address.city");
+        index.load(persons);
+    }
+
+    @Test
+    void matchesPredicatesOfTheSameCriteria() {
+        DSPredicateBuilder<Person> predicates = new DSPredicateBuilder<>(Person.class);
+        Random random = new Random(5);
+        for (int round = 0; round < 500; round++) {
+            List<DSCriteria> criteria = randomCriteria(random);
+            Predicate<Person> predicate = predicates.build(criteria);
+            List<Long> expected = persons.stream().filter(predicate).map(Person::getId).toList();
+
+            assertThat(ids(index.search(template(criteria, Pageable.unpaged()))))
+                    .as("%s", criteria)
+                    .isEqualTo(expected);
+            assertThat(index.count(template(criteria, Pageable.unpaged()))).isEqualTo(expected.size());
+        }
+    }
+
+    @Test
+    void keepsSnapshotsUntilWritesArePublished() {
+        Person person = persons.get(0);
+        person.setName("renamed");
+        person.setAge(99);
+
+        Page<Person> page = index.search(template(List.of(new DSCriteria("name", DSOperation.EQUAL, "name1")),
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "age"))));
+
+        assertThat(page.getContent()).extracting(Person::getName).containsExactly("name1");
+        assertThat(page.getContent().get(0)).isNotSameAs(person);
+
+        index.onChange(person, false);
+
+        assertThat(index.count(template(List.of(new DSCriteria("name", DSOperation.EQUAL, "name1")), Pageable.unpaged())))
+                .isZero();
+        assertThat(index.search(template(List.of(), PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "age")))))
+                .extracting(Person::getName).containsExactly("renamed");
+
+        index.onChange(person, true);
+
+        assertThat(index.size()).isEqualTo(People.SIZE - 1);
+    }
+
+    @Test
+    void sortsAndPagesByIndexedValues() {
+        PageRequest pageable = PageRequest.of(1, 4, Sort.by(Sort.Order.asc("age").nullsLast(), Sort.Order.desc("id")));
+        List<DSCriteria> criteria = List.of(new DSCriteria("address.city", DSOperation.EQUAL, "Paris"));
+
+        Page<Person> page = index.search(template(criteria, pageable));
+
+        List<Long> expected = persons.stream()
+                .filter(person -> person.getId() % 2 == 1)
+                .sorted(Comparator.comparing(Person::getAge, Comparator.nullsLast(Integer::compare))
+                        .thenComparing(Person::getId, Comparator.reverseOrder()))
+                .map(Person::getId)
+                .skip(4).limit(4).toList();
+        assertThat(ids(page)).isEqualTo(expected);
+        assertThat(page.getTotalElements()).isEqualTo(People.SIZE / 2);
+    }
+
+    @Test
+    void indexesImmutableEntities() {
+        DSColumnarIndex<Item> items = new DSColumnarIndex<>(Item.class, UnaryOperator.identity(), "id", "label", "weight");
+        items.load(List.of(new Item(1L, "a", 5), new Item(2L, "b", null), new Item(3L, "c", 7)));
+
+        assertThat(items.search(new ItemTemplate(List.of(new DSCriteria("weight", DSOperation.NOT_IN, List.of(5))))))
+                .extracting(Item::id).containsExactly(3L);
+        assertThat(items.search(new ItemTemplate(List.of(new DSCriteria("label", DSOperation.NOT_IN, List.of("a"))))))
+                .extracting(Item::id).containsExactly(2L, 3L);
+        assertThat(items.count(new ItemTemplate(List.of(
+                new DSCriteria("label", DSOperation.NOT_IN, Arrays.asList("a", null)))))).isZero();
+    }
+
+    private static Person copy(Person person) {
+        return new Person(person.getId(), person.getName(), person.getCode(), person.getAge(), person.getJoinedAt(),
+                person.getAddress());
+    }
+
+    private static PersonTemplate template(List<DSCriteria> criteria, Pageable pageable) {
+        return new PersonTemplate(criteria, pageable, null);
+    }
+
+    private static List<Long> ids(Page<Person> page) {
+        return page.getContent().stream().map(Person::getId).toList();
+    }
+
+    private static List<DSCriteria> randomCriteria(Random random) {
+        int size = 1 + random.nextInt(4);
+        DSCriteria[] result = new DSCriteria[size];
+        for (int idx = 0; idx < size; idx++) {
+            DSOperation operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+            boolean numeric = random.nextBoolean();
+            String key = numeric ? random.nextBoolean() ? "age" : "code" : random.nextBoolean() ? "name" : "address.city";
+            result[idx] = new DSCriteria(key, operation, value(random, operation, key), random.nextBoolean());
+        }
+        return List.of(result);
+    }
+
+    private static Object value(Random random, DSOperation operation, String key) {
+        boolean numeric = key.equals("age");
+        return switch (operation) {
+            case NUL, NOT_NULL -> null;
+            case IN, NOT_IN -> random.ints(1 + random.nextInt(6), 0, 40)
+                    .mapToObj(val -> numeric ? (Object) (10 + val % 25) : text(key, val)).toList();
+            case GREATER_THAN, GREATER_THAN_EQUAL, LESS_THAN, LESS_THAN_EQUAL ->
+                    numeric ? 10 + random.nextInt(25) : text(key, random.nextInt(40));
+            case EQUAL, NOT_EQUAL -> random.nextInt(6) == 0 ? null : numeric ? 10 + random.nextInt(25) : text(key, random.nextInt(40));
+            default -> random.nextInt(8) == 0 ? null : String.valueOf(random.nextInt(10));
+        };
+    }
+
+    private record Item(Long id, String label, Integer weight) {
+    }
+
+    private static final class ItemTemplate extends DSTemplate {
+
+        private ItemTemplate(List<DSCriteria> criteria) {
+            this.criteria = criteria;
+            this.pageable = Pageable.unpaged();
+        }
+
+        @Override
+        public Class<?> getReferenceClass() {
+            return Item.class;
+        }
+
+        @Override
+        public ConditionList customValidate(ConditionList conditionList) {
+            return conditionList;
+        }
+    }
+
+    private static String text(String key, int val) {
+        return switch (key) {
+            case "code" -> String.valueOf(val % 12);
+            case "address.city" -> val % 2 == 0 ? "Hanoi" : "Paris";
+            default -> "name" + val;
+        };
+    }
+}
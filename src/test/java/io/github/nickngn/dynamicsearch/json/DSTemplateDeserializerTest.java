@@ -0,0 +1,147 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import io.github.nickngn.dynamicsearch.DSCountMode;
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSPrimitiveLists;
+import io.github.nickngn.dynamicsearch.support.PersonTemplate;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DSTemplateDeserializerTest {
+
+    private final ObjectMapper mapper = mapper(DSJsonOptions.defaults());
+
+    private static ObjectMapper mapper(DSJsonOptions options) {
+        return new ObjectMapper().registerModule(new DSJacksonModule(options));
+    }
+
+    private PersonTemplate read(String json) throws Exception {
+        return mapper.readValue(json.replace('\'', '"'), PersonTemplate.class);
+    }
+
+    @Test
+    void readsCriteriaAndOtherProperties() throws Exception {
+        PersonTemplate template = read("{'countMode':'NONE','criteria':[" +
+                "{'key':'name','operation':'cn','value':'foo'}," +
+                "{'key':'age','operation':'GREATER_THAN_EQUAL','value':18,'isOr':true}," +
+                "{'key':'code','operation':'nu'}],'fields':['name'],'keyset':true,'cursor':'c'}");
+
+        assertThat(template.getCriteria()).containsExactly(
+                new DSCriteria("name", DSOperation.CONTAINS, "foo", null),
+                new DSCriteria("age", DSOperation.GREATER_THAN_EQUAL, 18, true),
+                new DSCriteria("code", DSOperation.NUL, null, null));
+        assertThat(template.getCountMode()).isEqualTo(DSCountMode.NONE);
+        assertThat(template.getFields()).containsExactly("name");
+        assertThat(template.isKeyset()).isTrue();
+        assertThat(template.getCursor()).isEqualTo("c");
+    }
+
+    @Test
+    void readsListValuesOfNumericFieldsIntoPrimitiveLists() throws Exception {
+        PersonTemplate template = read("{'criteria':[" +
+                "{'key':'age','operation':'in','value':[3,'4',5]}," +
+                "{'key':'id','operation':'ni','value':[1,9007199254740993]}," +
+                "{'value':[7,8],'key':'age','operation':'in'}," +
+                "{'key':'name','operation':'in','value':['a','b']}]}");
+
+        List<DSCriteria> criteria = template.getCriteria();
+        assertThat(criteria.get(0).value()).isInstanceOf(DSPrimitiveLists.Ints.class).isEqualTo(List.of(3, 4, 5));
+        assertThat(criteria.get(1).value()).isInstanceOf(DSPrimitiveLists.Longs.class)
+                .isEqualTo(List.of(1L, 9007199254740993L));
+        assertThat(criteria.get(2).value()).isInstanceOf(DSPrimitiveLists.Ints.class).isEqualTo(List.of(7, 8));
+        assertThat(criteria.get(3).value()).isEqualTo(List.of("a", "b"));
+    }
+
+    @Test
+    void keepsBoxedValuesWhenListHasNull() throws Exception {
+        PersonTemplate template = read("{'criteria':[" +
+                "{'key':'age','operation':'in','value':[1,null,'3']}," +
+                "{'value':[1,null],'key':'age','operation':'in'}]}");
+
+        assertThat(template.getCriteria().get(0).value())
+                .isNotInstanceOf(DSPrimitiveLists.Ints.class).isEqualTo(Arrays.asList(1, null, "3"));
+        assertThat(template.getCriteria().get(1).value()).isEqualTo(Arrays.asList(1, null));
+    }
+
+    @Test
+    void readsSameCriteriaAsDefaultDeserialization() throws Exception {
+        String json = "{'criteria':[{'key':'age','operation':'IN','value':[1,2,3],'isOr':false}," +
+                "{'key':'name','operation':'EQUAL','value':'x'}]}";
+
+        PersonTemplate streamed = read(json);
+        PersonTemplate bound = new ObjectMapper().readValue(json.replace('\'', '"'), PersonTemplate.class);
+
+        assertThat(streamed.getCriteria()).isEqualTo(bound.getCriteria());
+        assertThat(streamed.getCriteria().hashCode()).isEqualTo(bound.getCriteria().hashCode());
+    }
+
+    @Test
+    void rejectsInvalidCriteriaWhileParsing() {
+        assertThatThrownBy(() -> read("{'criteria':[{'key':'password','operation':'eq','value':'x'}]}"))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("isn't allowed searchable key");
+        assertThatThrownBy(() -> read("{'criteria':[{'key':'name','operation':'xx','value':'x'}]}"))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("Unknown operation 'xx'");
+        assertThatThrownBy(() -> read("{'criteria':[{'key':'name','operation':'eq','value':'x','isOr':'yes'}]}"))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("must be a boolean");
+        assertThatThrownBy(() -> read("{'criteria':[{'key':'name','operation':'eq','value':{'a':1}}]}"))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("must be a scalar");
+        assertThatThrownBy(() -> read("{'criteria':[{'key':'age','operation':'in','value':['x']}]}"))
+                .isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> read("{'criteria':[{'operation':'eq','value':'x'}]}"))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("Missing key");
+    }
+
+    @Test
+    void boundsCriteriaValuesAndTexts() throws Exception {
+        ObjectMapper bounded = mapper(DSJsonOptions.builder().maxCriteria(2).maxValues(3).maxTextLength(5).build());
+
+        assertThatThrownBy(() -> bounded.readValue(("{'criteria':[{'key':'code','operation':'nu'}," +
+                "{'key':'code','operation':'nu'},{'key':'code','operation':'nu'}]}").replace('\'', '"'), PersonTemplate.class))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("more than 2 criteria");
+        assertThatThrownBy(() -> bounded.readValue("{'criteria':[{'key':'age','operation':'in','value':[1,2,3,4]}]}"
+                .replace('\'', '"'), PersonTemplate.class))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("more than 3 values");
+        assertThatThrownBy(() -> bounded.readValue("{'criteria':[{'key':'name','operation':'in','value':['a','b','c','d']}]}"
+                .replace('\'', '"'), PersonTemplate.class))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("more than 3 values");
+        assertThatThrownBy(() -> bounded.readValue("{'criteria':[{'key':'name','operation':'eq','value':'abcdef'}]}"
+                .replace('\'', '"'), PersonTemplate.class))
+                .isInstanceOf(MismatchedInputException.class).hasMessageContaining("longer than 5 characters");
+
+        PersonTemplate template = bounded.readValue("{'criteria':[{'key':'age','operation':'in','value':[1,2,3]}]}"
+                .replace('\'', '"'), PersonTemplate.class);
+        assertThat(template.getCriteria().get(0).value()).isEqualTo(List.of(1, 2, 3));
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.metrics;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSBuilderOptions;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+import io.github.nickngn.dynamicsearch.builder.DSSpecBuilder;
+import io.github.nickngn.dynamicsearch.support.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DSMetricsTest {
+
+    @Test
+    void uninstallingRestoresPreviouslyInstalledMetrics() {
+        Recording first = new Recording();
+        Recording second = new Recording();
+        DSMetrics.install(first);
+        DSMetrics.install(second);
+        try {
+            assertThat(DSMetrics.get()).isSameAs(second);
+            DSMetrics.uninstall(first);
+            assertThat(DSMetrics.get()).isSameAs(second);
+            DSMetrics.install(first);
+            DSMetrics.uninstall(first);
+            assertThat(DSMetrics.get()).isSameAs(second);
+        } finally {
+            DSMetrics.uninstall(first);
+            DSMetrics.uninstall(second);
+        }
+        assertThat(DSMetrics.get()).isSameAs(DSSearchMetrics.NOOP);
+    }
+
+    @Test
+    void specBuildsAreMeasuredByInjectedMetrics() {
+        Recording recording = new Recording();
+        DSSpecBuilder<Person> builder = new DSSpecBuilder<>(Person.class,
+                DSBuilderOptions.builder().metrics(recording).build());
+
+        builder.build(List.of(new DSCriteria("name", DSOperation.EQUAL, "name1", null)));
+
+        assertThat(recording.stages).containsExactly(DSSearchMetrics.Stage.BUILD);
+        assertThat(recording.entityTypes).containsExactly(Person.class);
+        assertThat(DSMetrics.get()).isSameAs(DSSearchMetrics.NOOP);
+    }
+
+    private static final class Recording implements DSSearchMetrics {
+
+        private final List<Stage> stages = new ArrayList<>();
+
+        private final List<Class<?>> entityTypes = new ArrayList<>();
+
+        @Override
+        public void record(Stage stage, Class<?> entityType, DSCriteriaShape shape, long nanos) {
+            stages.add(stage);
+            entityTypes.add(entityType);
+        }
+
+        @Override
+        public void recordCriteria(Class<?> entityType, List<DSCriteria> dsCriteriaList) {
+        }
+
+        @Override
+        public void count(Event event, Class<?> entityType) {
+        }
+    }
+}
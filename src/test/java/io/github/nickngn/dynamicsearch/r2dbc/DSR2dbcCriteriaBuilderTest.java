@@ -0,0 +1,195 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.r2dbc;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSBuilderOptions;
+import io.github.nickngn.dynamicsearch.builder.DSInStrategy;
+import io.github.nickngn.dynamicsearch.builder.DSSpecification;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import io.github.nickngn.dynamicsearch.support.PersonRepository;
+import io.github.nickngn.dynamicsearch.support.PersonRow;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.h2.H2ConnectionOption;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs R2DBC criteria and JPA specifications against the same H2 database
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:dsr2dbc;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DSR2dbcCriteriaBuilderTest {
+
+    private static final DSOperation[] OPERATIONS = DSOperation.values();
+
+    private static final R2dbcEntityTemplate R2DBC = new R2dbcEntityTemplate(new H2ConnectionFactory(
+            H2ConnectionConfiguration.builder().inMemory("dsr2dbc").username("sa")
+                    .property(H2ConnectionOption.DB_CLOSE_DELAY, "-1").build()));
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private PersonRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> People.seed(em));
+    }
+
+    @AfterEach
+    void clear() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            em.createQuery("delete from Person").executeUpdate();
+            em.createQuery("delete from Address").executeUpdate();
+        });
+    }
+
+    @Test
+    void groupsPreviousRunsBeforeTheNextOne() {
+        // ((age < 15 OR name = name3) AND code = 3), without grouping AND would bind first
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("age", DSOperation.LESS_THAN, 15),
+                new DSCriteria("name", DSOperation.EQUAL, "name3", true),
+                new DSCriteria("code", DSOperation.EQUAL, "3", false));
+
+        List<Long> ids = r2dbcIds(new DSR2dbcCriteriaBuilder<>(PersonRow.class), criteria);
+
+        assertThat(ids).containsExactly(3L);
+        assertThat(ids).isEqualTo(jpaIds(criteria, DSInStrategy.none()));
+    }
+
+    @Test
+    void groupsChunksOfInValues() {
+        DSInStrategy strategy = new DSInStrategy(true, 4, false);
+        DSR2dbcCriteriaBuilder<PersonRow> builder = new DSR2dbcCriteriaBuilder<>(PersonRow.class,
+                DSBuilderOptions.builder().inStrategy(strategy).build());
+        List<Integer> ages = IntStream.rangeClosed(10, 19).boxed().toList();
+        List<DSCriteria> in = List.of(
+                new DSCriteria("name", DSOperation.NOT_NULL, null),
+                new DSCriteria("age", DSOperation.IN, ages, false),
+                new DSCriteria("code", DSOperation.EQUAL, "0", true));
+        List<DSCriteria> notIn = List.of(
+                new DSCriteria("code", DSOperation.EQUAL, "1"),
+                new DSCriteria("age", DSOperation.NOT_IN, ages, true));
+
+        assertThat(r2dbcIds(builder, in)).isNotEmpty().isEqualTo(jpaIds(in, strategy));
+        assertThat(r2dbcIds(builder, notIn)).isNotEmpty().isEqualTo(jpaIds(notIn, strategy));
+    }
+
+    @Test
+    void matchesSpecificationsOnNullableColumns() {
+        DSR2dbcCriteriaBuilder<PersonRow> builder = new DSR2dbcCriteriaBuilder<>(PersonRow.class);
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<DSCriteria> criteria = randomCriteria(random);
+            assertThat(r2dbcIds(builder, criteria))
+                    .as("%s", criteria)
+                    .isEqualTo(jpaIds(criteria, DSInStrategy.none()));
+        }
+    }
+
+    @Test
+    void matchesNothingByTheIdProperty() {
+        DSR2dbcCriteriaBuilder<PersonRow> builder = new DSR2dbcCriteriaBuilder<>(PersonRow.class,
+                DSBuilderOptions.builder().normalizeCriteria(true).build(),
+                R2DBC.getConverter().getMappingContext());
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("age", DSOperation.GREATER_THAN, 30),
+                new DSCriteria("age", DSOperation.LESS_THAN, 20, false));
+
+        Criteria built = builder.build(criteria);
+
+        assertThat(built.toString()).contains("id IS NULL").doesNotContain("name");
+        assertThat(R2DBC.count(Query.query(built), PersonRow.class).block()).isZero();
+    }
+
+    private static List<Long> r2dbcIds(DSR2dbcCriteriaBuilder<PersonRow> builder, List<DSCriteria> criteria) {
+        return R2DBC.select(Query.query(builder.build(criteria)), PersonRow.class)
+                .map(PersonRow::getId).sort().collectList().block();
+    }
+
+    private List<Long> jpaIds(List<DSCriteria> criteria, DSInStrategy strategy) {
+        Specification<Person> result = new DSSpecification<>(criteria.get(0), strategy);
+        for (int idx = 1; idx < criteria.size(); idx++) {
+            Specification<Person> next = new DSSpecification<>(criteria.get(idx), strategy);
+            result = Boolean.TRUE.equals(criteria.get(idx).isOr()) ? result.or(next) : result.and(next);
+        }
+        return repository.findAll(result).stream().map(Person::getId).sorted().toList();
+    }
+
+    private static List<DSCriteria> randomCriteria(Random random) {
+        int size = 1 + random.nextInt(4);
+        DSCriteria[] result = new DSCriteria[size];
+        for (int idx = 0; idx < size; idx++) {
+            DSOperation operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+            boolean text = switch (operation) {
+                case CONTAINS, DOES_NOT_CONTAIN, BEGINS_WITH, DOES_NOT_BEGIN_WITH, ENDS_WITH, DOES_NOT_END_WITH -> true;
+                default -> false;
+            };
+            String key = text || random.nextBoolean() ? "name" : "age";
+            result[idx] = new DSCriteria(key, operation, value(random, operation, key.equals("age")), random.nextBoolean());
+        }
+        return List.of(result);
+    }
+
+    private static Object value(Random random, DSOperation operation, boolean numeric) {
+        return switch (operation) {
+            case NUL, NOT_NULL -> null;
+            case IN, NOT_IN -> random.ints(1 + random.nextInt(6), 0, 40)
+                    .mapToObj(val -> numeric ? (Object) (10 + val % 25) : "name" + val).toList();
+            case EQUAL, NOT_EQUAL, GREATER_THAN, GREATER_THAN_EQUAL, LESS_THAN, LESS_THAN_EQUAL ->
+                    numeric ? 10 + random.nextInt(25) : "name" + random.nextInt(40);
+            default -> String.valueOf(random.nextInt(10));
+        };
+    }
+}
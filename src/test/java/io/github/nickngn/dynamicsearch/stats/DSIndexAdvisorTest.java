@@ -0,0 +1,139 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.stats;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.support.Address;
+import io.github.nickngn.dynamicsearch.support.Person;
+import io.github.nickngn.dynamicsearch.support.PersonRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Metamodel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+class DSIndexAdvisorTest {
+
+    @Autowired
+    private EntityManager em;
+
+    private Metamodel metamodel;
+
+    private final DSUsageRecorder recorder = new DSUsageRecorder();
+
+    @BeforeEach
+    void setUp() {
+        metamodel = em.getMetamodel();
+    }
+
+    private List<DSIndexSuggestion> advise() {
+        return DSIndexAdvisor.advise(recorder, metamodel, 10);
+    }
+
+    @Test
+    void suggestsEqualityKeysBeforeSingleRangeKey() {
+        recorder.record(Person.class, List.of(
+                new DSCriteria("age", DSOperation.GREATER_THAN, 3),
+                new DSCriteria("name", DSOperation.EQUAL, "a"),
+                new DSCriteria("joinedAt", DSOperation.LESS_THAN, "2020-01-01"),
+                new DSCriteria("code", DSOperation.IN, List.of("x", "y"))), 100);
+
+        assertThat(advise()).singleElement().satisfies(suggestion -> {
+            assertThat(suggestion.entityType()).isEqualTo(Person.class);
+            assertThat(suggestion.attributes()).containsExactly("name", "code", "age");
+            assertThat(suggestion.searches()).isEqualTo(1);
+            assertThat(suggestion.totalNanos()).isEqualTo(100);
+            assertThat(suggestion).hasToString("Person(name, code, age)");
+        });
+    }
+
+    @Test
+    void ignoresKeysAndShapesWhichCantUseIndex() {
+        recorder.record(Person.class, List.of(new DSCriteria("name", DSOperation.EQUAL, "a"),
+                new DSCriteria("code", DSOperation.EQUAL, "b", true)), 1);
+        recorder.record(Person.class, List.of(new DSCriteria("name", DSOperation.CONTAINS, "a"),
+                new DSCriteria("code", DSOperation.NOT_EQUAL, "b")), 1);
+        recorder.record(Person.class, List.of(new DSCriteria("address.city", DSOperation.EQUAL, "Hanoi"),
+                new DSCriteria("address", DSOperation.NUL, null)), 1);
+        recorder.record(Person.class, List.of(new DSCriteria("id", DSOperation.EQUAL, 1L)), 1);
+        recorder.record(PersonRow.class, List.of(new DSCriteria("name", DSOperation.EQUAL, "a")), 1);
+
+        assertThat(advise()).isEmpty();
+    }
+
+    @Test
+    void keepsOnlyIndexableKeysOfShape() {
+        recorder.record(Person.class, List.of(new DSCriteria("name", DSOperation.CONTAINS, "a"),
+                new DSCriteria("address.city", DSOperation.EQUAL, "Hanoi"),
+                new DSCriteria("id", DSOperation.EQUAL, 1L),
+                new DSCriteria("age", DSOperation.EQUAL, 3)), 1);
+
+        assertThat(advise()).extracting(DSIndexSuggestion::attributes).containsExactly(List.of("id", "age"));
+    }
+
+    @Test
+    void mergesPrefixesIntoLongerSuggestion() {
+        recorder.record(Person.class, List.of(new DSCriteria("name", DSOperation.EQUAL, "a")), 10);
+        recorder.record(Person.class, List.of(new DSCriteria("name", DSOperation.EQUAL, "a"),
+                new DSCriteria("age", DSOperation.GREATER_THAN, 3)), 20);
+        recorder.record(Person.class, List.of(new DSCriteria("name", DSOperation.EQUAL, "a"),
+                new DSCriteria("code", DSOperation.EQUAL, "b"), new DSCriteria("age", DSOperation.GREATER_THAN, 3)), 40);
+        recorder.record(Address.class, List.of(new DSCriteria("city", DSOperation.EQUAL, "Hanoi")), 5);
+
+        assertThat(advise()).extracting(DSIndexSuggestion::attributes, DSIndexSuggestion::searches,
+                        DSIndexSuggestion::totalNanos)
+                .containsExactlyInAnyOrder(tuple(List.of("name", "code", "age"), 2L, 50L),
+                        tuple(List.of("name", "age"), 1L, 20L), tuple(List.of("city"), 1L, 5L));
+    }
+
+    @Test
+    void countsOnlyExecutedSearches() {
+        recorder.record(Person.class, List.of(new DSCriteria("name", DSOperation.EQUAL, "a")), 30);
+        recorder.recordCached(Person.class, List.of(new DSCriteria("name", DSOperation.EQUAL, "b")));
+        recorder.recordCached(Person.class, List.of(new DSCriteria("code", DSOperation.EQUAL, "b")));
+
+        assertThat(advise()).extracting(DSIndexSuggestion::attributes, DSIndexSuggestion::searches,
+                        DSIndexSuggestion::averageNanos)
+                .containsExactly(tuple(List.of("name"), 1L, 30L), tuple(List.of("code"), 0L, 0L));
+    }
+
+    @Test
+    void ordersSuggestionsByTotalLatencyUpToLimit() {
+        recorder.record(Person.class, List.of(new DSCriteria("name", DSOperation.EQUAL, "a")), 10);
+        recorder.record(Person.class, List.of(new DSCriteria("code", DSOperation.EQUAL, "a")), 30);
+        recorder.record(Address.class, List.of(new DSCriteria("city", DSOperation.BEGINS_WITH, "H")), 20);
+
+        assertThat(DSIndexAdvisor.advise(recorder, metamodel, 2)).extracting(DSIndexSuggestion::toString)
+                .containsExactly("Person(code)", "Address(city)");
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.stats;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaShape;
+import io.github.nickngn.dynamicsearch.support.Address;
+import io.github.nickngn.dynamicsearch.support.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class DSUsageRecorderTest {
+
+    private final DSUsageRecorder recorder = new DSUsageRecorder();
+
+    private static List<DSCriteria> byName(String name) {
+        return List.of(new DSCriteria("name", DSOperation.EQUAL, name));
+    }
+
+    @Test
+    void recordsCountAndLatencyPerShape() {
+        recorder.record(Person.class, byName("a"), 100);
+        recorder.record(Person.class, byName("b"), 300);
+        recorder.recordCached(Person.class, byName("c"));
+
+        assertThat(recorder.getShapeUsages()).singleElement().satisfies(usage -> {
+            assertThat(usage.entityType()).isEqualTo(Person.class);
+            assertThat(usage.shape()).isEqualTo(DSCriteriaShape.of(byName("x")));
+            assertThat(usage.count()).isEqualTo(3);
+            assertThat(usage.executions()).isEqualTo(2);
+            assertThat(usage.totalNanos()).isEqualTo(400);
+            assertThat(usage.maxNanos()).isEqualTo(300);
+            assertThat(usage.averageNanos()).isEqualTo(200);
+        });
+    }
+
+    @Test
+    void recordsCachedSearchesWithoutLatency() {
+        recorder.recordCached(Person.class, byName("a"));
+
+        DSShapeUsage usage = recorder.getShapeUsages().get(0);
+        assertThat(usage.count()).isEqualTo(1);
+        assertThat(usage.executions()).isZero();
+        assertThat(usage.averageNanos()).isZero();
+        assertThat(recorder.getKeyUsages()).extracting(DSKeyUsage::count).containsExactly(1L);
+    }
+
+    @Test
+    void ordersShapesByTotalLatency() {
+        recorder.record(Person.class, byName("a"), 10);
+        recorder.record(Person.class, List.of(new DSCriteria("age", DSOperation.GREATER_THAN, 3)), 50);
+        recorder.record(Address.class, List.of(new DSCriteria("city", DSOperation.EQUAL, "Hanoi")), 30);
+
+        assertThat(recorder.getShapeUsages()).extracting(DSShapeUsage::entityType, DSShapeUsage::totalNanos)
+                .containsExactly(tuple(Person.class, 50L), tuple(Address.class, 30L), tuple(Person.class, 10L));
+    }
+
+    @Test
+    void ordersKeysAndOperationsByFrequency() {
+        recorder.record(Person.class, List.of(new DSCriteria("age", DSOperation.GREATER_THAN, 3),
+                new DSCriteria("name", DSOperation.EQUAL, "a")), 1);
+        recorder.record(Person.class, List.of(new DSCriteria("age", DSOperation.GREATER_THAN, 5)), 1);
+        recorder.recordCached(Person.class, List.of(new DSCriteria("age", DSOperation.LESS_THAN, 9),
+                new DSCriteria("age", DSOperation.GREATER_THAN, 1)));
+
+        assertThat(recorder.getKeyUsages()).extracting(DSKeyUsage::key, DSKeyUsage::operation, DSKeyUsage::count)
+                .startsWith(tuple("age", DSOperation.GREATER_THAN, 3L))
+                .containsExactlyInAnyOrder(tuple("age", DSOperation.GREATER_THAN, 3L),
+                        tuple("name", DSOperation.EQUAL, 1L), tuple("age", DSOperation.LESS_THAN, 1L));
+    }
+
+    @Test
+    void recordsInListsOfAnySizeAsOneShape() {
+        recorder.record(Person.class, List.of(new DSCriteria("age", DSOperation.IN, List.of(1, 2))), 1);
+        recorder.record(Person.class, List.of(new DSCriteria("age", DSOperation.IN, List.of(1, 2, 3, 4, 5))), 1);
+
+        assertThat(recorder.getShapeUsages()).singleElement().extracting(DSShapeUsage::count).isEqualTo(2L);
+    }
+
+    @Test
+    void dropsSearchesOfShapesBeyondMaximum() {
+        DSUsageRecorder bounded = new DSUsageRecorder(1);
+        bounded.record(Person.class, byName("a"), 1);
+        bounded.record(Person.class, List.of(new DSCriteria("age", DSOperation.EQUAL, 3)), 1);
+        bounded.record(Person.class, byName("b"), 1);
+        bounded.record(Address.class, List.of(new DSCriteria("city", DSOperation.EQUAL, "Paris")), 1);
+
+        assertThat(bounded.getDroppedCount()).isEqualTo(1);
+        assertThat(bounded.getShapeUsages()).extracting(DSShapeUsage::entityType, DSShapeUsage::count)
+                .containsExactlyInAnyOrder(tuple(Person.class, 2L), tuple(Address.class, 1L));
+        // keys of dropped searches are still counted
+        assertThat(bounded.getKeyUsages()).extracting(DSKeyUsage::key).contains("age");
+
+        bounded.reset();
+        assertThat(bounded.getShapeUsages()).isEmpty();
+        assertThat(bounded.getKeyUsages()).isEmpty();
+        assertThat(bounded.getDroppedCount()).isZero();
+    }
+}
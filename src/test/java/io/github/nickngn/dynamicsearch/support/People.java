@@ -0,0 +1,70 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.support;
+
+import jakarta.persistence.EntityManager;
+import lombok.experimental.UtilityClass;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Seeds persons with nullable names, codes and ages, so searches cover null semantics
+ */
+@UtilityClass
+public final class People {
+
+    public static final int SIZE = 40;
+
+    public static final long EPOCH = 1_700_000_000_000L;
+
+    public static void seed(EntityManager em) {
+        List<Person> persons = persons();
+        em.persist(persons.get(0).getAddress());
+        em.persist(persons.get(1).getAddress());
+        persons.forEach(em::persist);
+        em.flush();
+        em.clear();
+    }
+
+    /**
+     * @return new persons, living in Hanoi for even ids and in Paris for odd ones
+     */
+    public static List<Person> persons() {
+        Address hanoi = new Address(1L, "Hanoi");
+        Address paris = new Address(2L, "Paris");
+        List<Person> result = new ArrayList<>(SIZE);
+        for (int id = 1; id <= SIZE; id++) {
+            result.add(new Person(id,
+                    id % 7 == 0 ? null : "name" + id,
+                    String.valueOf(id % 12),
+                    id % 9 == 0 ? null : 10 + id % 25,
+                    new Date(EPOCH + (id % 13) * 3_600_000L + id),
+                    id % 2 == 0 ? hanoi : paris));
+        }
+        return result;
+    }
+}
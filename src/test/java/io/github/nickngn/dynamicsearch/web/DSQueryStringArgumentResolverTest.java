@@ -0,0 +1,127 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.web;
+
+import io.github.nickngn.dynamicsearch.DSCountMode;
+import io.github.nickngn.dynamicsearch.DSTemplate;
+import io.github.nickngn.dynamicsearch.support.PersonTemplate;
+import io.github.nickngn.dynamicsearch.validation.ValidatedCriteria;
+import jakarta.validation.Valid;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.Errors;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class DSQueryStringArgumentResolverTest {
+
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new Controller())
+            .setCustomArgumentResolvers(new DSQueryStringArgumentResolver())
+            .build();
+
+    @Test
+    void resolvesCanonicalCriteriaAndOptions() throws Exception {
+        mvc.perform(get("/people?~name.cn=na&age.ge=18&page=1&size=5&sort=name,desc&count=none&fields=name,age"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "age.ge=18&name.cn=na|Page request [number: 1, size 5, sort: name: DESC]|NONE|[name, age]"));
+    }
+
+    @Test
+    void rejectsInvalidCriteriaOfValidatedArguments() throws Exception {
+        mvc.perform(get("/people?secret.eq=1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertThat(result.getResolvedException())
+                        .isInstanceOf(MethodArgumentNotValidException.class)
+                        .hasMessageContaining("secret"));
+    }
+
+    @Test
+    void passesValidationErrorsToTheNextParameter() throws Exception {
+        mvc.perform(get("/errors?secret.eq=1&name.eq=a"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1"));
+    }
+
+    @Test
+    void leavesUnvalidatedArgumentsAsRead() throws Exception {
+        mvc.perform(get("/unvalidated?secret.eq=1"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("secret.eq=1"));
+    }
+
+    @Test
+    void claimsAnnotatedTemplatesOnly() throws Exception {
+        DSQueryStringArgumentResolver resolver = new DSQueryStringArgumentResolver();
+
+        assertThat(resolver.supportsParameter(parameter("search", 0))).isTrue();
+        assertThat(resolver.supportsParameter(parameter("body", 0))).isFalse();
+    }
+
+    private static MethodParameter parameter(String method, int index) throws NoSuchMethodException {
+        for (var candidate : Controller.class.getDeclaredMethods()) {
+            if (candidate.getName().equals(method)) {
+                return new MethodParameter(candidate, index);
+            }
+        }
+        throw new NoSuchMethodException(method);
+    }
+
+    @ValidatedCriteria
+    public static class ValidatedPersonTemplate extends PersonTemplate {
+    }
+
+    @RestController
+    static class Controller {
+
+        @GetMapping("/people")
+        String search(@DSQuery @Valid ValidatedPersonTemplate template) {
+            return DSQueryString.format(template.getCriteria()) + "|" + template.getPageable() + "|"
+                    + template.getCountMode() + "|" + template.getFields();
+        }
+
+        @GetMapping("/errors")
+        String errors(@DSQuery @Valid ValidatedPersonTemplate template, Errors errors) {
+            return String.valueOf(errors.getErrorCount());
+        }
+
+        @GetMapping("/unvalidated")
+        String unvalidated(@DSQuery ValidatedPersonTemplate template) {
+            return DSQueryString.format(template.getCriteria());
+        }
+
+        String body(DSTemplate template) {
+            return "";
+        }
+    }
+}
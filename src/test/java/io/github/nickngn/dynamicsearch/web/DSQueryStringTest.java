@@ -0,0 +1,145 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) [2023] [NickNgn]
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NON INFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package io.github.nickngn.dynamicsearch.web;
+
+import io.github.nickngn.dynamicsearch.DSCriteria;
+import io.github.nickngn.dynamicsearch.DSOperation;
+import io.github.nickngn.dynamicsearch.builder.DSCriteriaRun;
+import io.github.nickngn.dynamicsearch.builder.DSPredicateBuilder;
+import io.github.nickngn.dynamicsearch.builder.InvalidCriteriaException;
+import io.github.nickngn.dynamicsearch.support.People;
+import io.github.nickngn.dynamicsearch.support.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DSQueryStringTest {
+
+    private static final DSOperation[] OPERATIONS = DSOperation.values();
+
+    @Test
+    void parsesCriteriaParametersOnly() {
+        List<DSCriteria> criteria = DSQueryString.parse("name.cn=fo%20o&~age.ge=18&id.in=1,2%2C3&code.nu&page=0&&size=5");
+
+        assertThat(criteria).containsExactly(
+                new DSCriteria("name", DSOperation.CONTAINS, "fo o", false),
+                new DSCriteria("age", DSOperation.GREATER_THAN_EQUAL, "18", true),
+                new DSCriteria("id", DSOperation.IN, List.of("1", "2,3"), false),
+                new DSCriteria("code", DSOperation.NUL, null, false));
+    }
+
+    @Test
+    void rejectsUnknownOperationsAndTooManyCriteria() {
+        assertThatThrownBy(() -> DSQueryString.parse("name.xx=1")).isInstanceOf(InvalidCriteriaException.class);
+        assertThatThrownBy(() -> DSQueryString.parse(".eq=1")).isInstanceOf(InvalidCriteriaException.class);
+        assertThatThrownBy(() -> DSQueryString.parse("name.eq=%zz")).isInstanceOf(InvalidCriteriaException.class);
+        assertThatThrownBy(() -> DSQueryString.parse("a.eq=1&b.eq=2&c.eq=3", 2)).isInstanceOf(InvalidCriteriaException.class);
+    }
+
+    @Test
+    void formatsEquivalentQueriesIdentically() {
+        assertThat(DSQueryString.canonical("b.eq=2&~a.eq=1&c.eq=3&page=1"))
+                .isEqualTo("a.eq=1&~b.eq=2&c.eq=3")
+                .isEqualTo(DSQueryString.canonical("a.eq=1&~b.eq=2&c.eq=3"));
+        assertThat(DSQueryString.canonical("id.in=2%2C3,1,1&~x.nn=ignored"))
+                .isEqualTo("id.in=1,2%2C3&~x.nn");
+        assertThat(DSQueryString.parse(DSQueryString.canonical("name.eq=a%26b%3Dc")))
+                .containsExactly(new DSCriteria("name", DSOperation.EQUAL, "a&b=c", false));
+    }
+
+    @Test
+    void canonicalizesValuesAndTheIgnoredConnector() {
+        List<DSCriteria> criteria = List.of(
+                new DSCriteria("code", DSOperation.NOT_IN, List.of(3, 1, 3, 2), true),
+                new DSCriteria("age", DSOperation.NUL, "ignored"));
+
+        assertThat(DSQueryString.canonicalize(criteria)).containsExactly(
+                new DSCriteria("age", DSOperation.NUL, null, false),
+                new DSCriteria("code", DSOperation.NOT_IN, List.of(1, 2, 3), false));
+    }
+
+    @Test
+    void reorderingWithinRunsKeepsResults() {
+        List<Person> persons = People.persons();
+        DSPredicateBuilder<Person> predicates = new DSPredicateBuilder<>(Person.class);
+        Random random = new Random(11);
+        for (int round = 0; round < 300; round++) {
+            List<DSCriteria> criteria = randomCriteria(random);
+            List<DSCriteria> canonical = DSQueryString.canonicalize(criteria);
+
+            assertThat(DSQueryString.canonicalize(shuffledWithinRuns(criteria, random)))
+                    .as("%s", criteria)
+                    .isEqualTo(canonical);
+            assertThat(persons.stream().filter(predicates.build(canonical)).toList())
+                    .as("%s", criteria)
+                    .isEqualTo(persons.stream().filter(predicates.build(criteria)).toList());
+        }
+    }
+
+    private static List<DSCriteria> shuffledWithinRuns(List<DSCriteria> criteria, Random random) {
+        List<DSCriteria> result = new ArrayList<>(criteria.size());
+        for (DSCriteriaRun run : DSCriteriaRun.of(criteria)) {
+            List<DSCriteria> elements = new ArrayList<>(criteria.subList(run.from(), run.to()));
+            Collections.shuffle(elements, random);
+            for (DSCriteria dsCriteria : elements) {
+                result.add(new DSCriteria(dsCriteria.key(), dsCriteria.operation(), dsCriteria.value(), run.or()));
+            }
+        }
+        return result;
+    }
+
+    private static List<DSCriteria> randomCriteria(Random random) {
+        int size = 1 + random.nextInt(6);
+        DSCriteria[] result = new DSCriteria[size];
+        for (int idx = 0; idx < size; idx++) {
+            DSOperation operation = OPERATIONS[random.nextInt(OPERATIONS.length)];
+            String key = random.nextBoolean() ? "age" : random.nextBoolean() ? "name" : "code";
+            result[idx] = new DSCriteria(key, operation, value(random, operation, key), random.nextBoolean());
+        }
+        return List.of(result);
+    }
+
+    private static Object value(Random random, DSOperation operation, String key) {
+        return switch (operation) {
+            case NUL, NOT_NULL -> null;
+            case IN, NOT_IN -> random.ints(1 + random.nextInt(6), 0, 40).mapToObj(val -> text(key, val)).toList();
+            default -> text(key, random.nextInt(40));
+        };
+    }
+
+    private static String text(String key, int val) {
+        return switch (key) {
+            case "age" -> String.valueOf(10 + val % 25);
+            case "code" -> String.valueOf(val % 12);
+            default -> "name" + val;
+        };
+    }
+}